@@ -0,0 +1,93 @@
+package uk.gov.pay.api.filter;
+
+import com.google.common.io.BaseEncoding;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking the HMAC on the end of an API key, which {@link AuthorizationValidationFilter} does for every
+ * request to /v1 before the key is sent to publicauth. Invalid keys are measured too because they are what
+ * arrives during credential stuffing.
+ * <p>
+ * Compared against the previous implementation, which keyed a new {@link HmacUtils} and encoded the HMAC into a
+ * String for every key. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationValidationFilterBenchmark {
+
+    private static final String API_KEY_HMAC_SECRET = "qwer9yuhgf";
+    private static final String CLIENT_ADDRESS = "203.0.113.1";
+
+    private AuthorizationValidationFilter authorizationValidationFilter;
+    private String validApiKey;
+    private String invalidApiKey;
+
+    @Setup
+    public void setUp() {
+        authorizationValidationFilter = new AuthorizationValidationFilter(new PublicApiConfig() {
+            @Override
+            public String getApiKeyHmacSecret() {
+                return API_KEY_HMAC_SECRET;
+            }
+        });
+
+        String token = "api_live_qg1vpd8ql3mkhfaoc0hr48gv7su8sbrtmd2rafq8ld1m4g5r0n6jpfn7nd";
+        validApiKey = token + BaseEncoding.base32Hex().lowerCase().omitPadding()
+                .encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, API_KEY_HMAC_SECRET).hmac(token));
+        invalidApiKey = token + "0123456789abcdefghijklmnopqrstuv";
+    }
+
+    @Benchmark
+    public boolean validApiKey() {
+        return authorizationValidationFilter.isValidTokenIntegrity(validApiKey, CLIENT_ADDRESS);
+    }
+
+    @Benchmark
+    public boolean invalidApiKey() {
+        return authorizationValidationFilter.isValidTokenIntegrity(invalidApiKey, CLIENT_ADDRESS);
+    }
+
+    @Benchmark
+    public boolean hmacUtils_validApiKey() {
+        return hmacUtilsTokenIntegrity(validApiKey);
+    }
+
+    @Benchmark
+    public boolean hmacUtils_invalidApiKey() {
+        return hmacUtilsTokenIntegrity(invalidApiKey);
+    }
+
+    /**
+     * AuthorizationValidationFilter's check as it was before it reused Mac instances, without the logging.
+     */
+    private static boolean hmacUtilsTokenIntegrity(String apiKey) {
+        int initHmacIndex = apiKey.length() - 32;
+        String hmacFromApiKey = apiKey.substring(initHmacIndex);
+        String tokenFromApiKey = apiKey.substring(0, initHmacIndex);
+        String hmacCalculatedFromToken = BaseEncoding.base32Hex()
+                .lowerCase().omitPadding()
+                .encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, API_KEY_HMAC_SECRET).hmac(tokenFromApiKey));
+        return MessageDigest.isEqual(hmacCalculatedFromToken.getBytes(StandardCharsets.UTF_8),
+                hmacFromApiKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.pay.api.filter;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the key that every request is rate limited on, for the three kinds of request we see most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterKeyBenchmark {
+
+    private static final URI BASE_URI = URI.create("http://publicapi.url/");
+    private static final String ACCOUNT_ID = "1";
+
+    private ContainerRequest getPaymentRequest;
+    private ContainerRequest createPaymentRequest;
+    private ContainerRequest searchPaymentsRequest;
+
+    @Setup
+    public void setUp() {
+        getPaymentRequest = request("GET", "v1/payments/ch_ab2341da231434l");
+        createPaymentRequest = request("POST", "v1/payments");
+        searchPaymentsRequest = request("GET", "v1/payments?reference=a-reference&state=success&page=2&display_size=500");
+    }
+
+    @Benchmark
+    public RateLimiterKey getPayment() {
+        return RateLimiterKey.from(getPaymentRequest, ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public RateLimiterKey createPayment() {
+        return RateLimiterKey.from(createPaymentRequest, ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public RateLimiterKey searchPayments() {
+        return RateLimiterKey.from(searchPaymentsRequest, ACCOUNT_ID);
+    }
+
+    private static ContainerRequest request(String method, String path) {
+        return new ContainerRequest(BASE_URI, BASE_URI.resolve(path), method, null, new MapPropertiesDelegate(), null);
+    }
+}
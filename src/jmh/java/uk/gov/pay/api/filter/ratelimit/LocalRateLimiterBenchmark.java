@@ -0,0 +1,186 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.dropwizard.core.setup.Environment;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+import uk.gov.pay.api.filter.RateLimiterKey;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.temporal.ChronoUnit.MILLIS;
+
+/**
+ * Throughput of {@link LocalRateLimiter} when many request threads check the rate of the same account, which is
+ * what happens to every request when redis is unavailable. Compared against the previous implementation, which
+ * loaded the cache with a lambda on every call and updated a synchronized RateLimit using {@link Instant}.
+ * <p>
+ * The limit is high, but busy benchmarks will still go over it, so the rejected path is measured too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalRateLimiterBenchmark {
+
+    private static final String ACCOUNT_ID = "1";
+
+    @Param({"FIXED_WINDOW", "SLIDING_WINDOW", "GCRA"})
+    public RateLimitAlgorithm algorithm;
+
+    private LocalRateLimiter localRateLimiter;
+    private SynchronizedLocalRateLimiter synchronizedLocalRateLimiter;
+    private RateLimiterKey rateLimiterKey;
+
+    @Setup
+    public void setUp() {
+        RateLimiterConfig rateLimiterConfig = new ObjectMapper().convertValue(Map.of(
+                "noOfReqPerNode", 500_000,
+                "noOfReqForPostPerNode", 500_000,
+                "perMillis", 1000,
+                "algorithm", algorithm.name()), RateLimiterConfig.class);
+
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, new Environment("benchmarks"));
+        synchronizedLocalRateLimiter = new SynchronizedLocalRateLimiter(500_000, 1000);
+
+        ContainerRequest request = new ContainerRequest(URI.create("http://publicapi.url/"),
+                URI.create("http://publicapi.url/v1/payments/ch_ab2341da231434l"), "GET", null, new MapPropertiesDelegate(), null);
+        rateLimiterKey = RateLimiterKey.from(request, ACCOUNT_ID);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean lockFree_1Thread() {
+        return checkLockFree();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean lockFree_8Threads() {
+        return checkLockFree();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean lockFree_64Threads() {
+        return checkLockFree();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean synchronized_1Thread() {
+        return checkSynchronized();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean synchronized_8Threads() {
+        return checkSynchronized();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean synchronized_64Threads() {
+        return checkSynchronized();
+    }
+
+    private boolean checkLockFree() {
+        try {
+            localRateLimiter.checkRateOf(ACCOUNT_ID, rateLimiterKey);
+            return true;
+        } catch (RateLimitException e) {
+            return false;
+        }
+    }
+
+    private boolean checkSynchronized() {
+        try {
+            synchronizedLocalRateLimiter.checkRateOf(rateLimiterKey);
+            return true;
+        } catch (SynchronizedRateLimitException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The fixed window LocalRateLimiter as it was before it became lock-free, for comparison.
+     * Only the fixed window algorithm existed then, so it is used whichever algorithm is being benchmarked.
+     */
+    private static class SynchronizedLocalRateLimiter {
+
+        private final int noOfReq;
+        private final int perMillis;
+        private final Cache<String, SynchronizedRateLimit> cache;
+
+        SynchronizedLocalRateLimiter(int noOfReq, int perMillis) {
+            this.noOfReq = noOfReq;
+            this.perMillis = perMillis;
+            this.cache = CacheBuilder.newBuilder()
+                    .expireAfterAccess(perMillis, TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        void checkRateOf(RateLimiterKey rateLimiterKey) throws SynchronizedRateLimitException {
+            try {
+                cache.get(rateLimiterKey.getKey(), () -> new SynchronizedRateLimit(noOfReq, perMillis)).updateAllowance();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class SynchronizedRateLimit {
+
+        private final int noOfReq;
+        private final int perMillis;
+
+        private Instant created;
+        private int requestCount;
+
+        SynchronizedRateLimit(int noOfReq, int perMillis) {
+            this.noOfReq = noOfReq;
+            this.perMillis = perMillis;
+            this.created = Instant.now().truncatedTo(MILLIS);
+        }
+
+        synchronized void updateAllowance() throws SynchronizedRateLimitException {
+            requestCount += 1;
+            Instant now = Instant.now().truncatedTo(MILLIS);
+            if (Duration.between(created, now).toMillis() >= perMillis) {
+                requestCount = 1;
+                created = now;
+            }
+            if (requestCount > noOfReq) {
+                throw new SynchronizedRateLimitException();
+            }
+        }
+    }
+
+    /**
+     * RateLimitException used to be created with a stack trace, so this one is too.
+     */
+    private static class SynchronizedRateLimitException extends Exception {
+    }
+}
@@ -0,0 +1,83 @@
+package uk.gov.pay.api.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.model.CreateCardPaymentRequest;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating a create payment request body once Jackson has read it into a tree, for a request with only
+ * the required fields and for one with prefilled cardholder details and metadata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestJsonParserBenchmark {
+
+    private JsonNode minimalPaymentRequest;
+    private JsonNode fullPaymentRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // language=JSON
+        minimalPaymentRequest = objectMapper.readTree("{\n" +
+                "  \"amount\": 1000,\n" +
+                "  \"reference\": \"Some reference\",\n" +
+                "  \"description\": \"Some description\",\n" +
+                "  \"return_url\": \"https://somewhere.gov.uk/rainbow/1\"\n" +
+                "}");
+
+        // language=JSON
+        fullPaymentRequest = objectMapper.readTree("{\n" +
+                "  \"amount\": 1000,\n" +
+                "  \"reference\": \"Some reference\",\n" +
+                "  \"description\": \"Some description\",\n" +
+                "  \"return_url\": \"https://somewhere.gov.uk/rainbow/1\",\n" +
+                "  \"language\": \"cy\",\n" +
+                "  \"delayed_capture\": true,\n" +
+                "  \"email\": \"j.bogs@example.org\",\n" +
+                "  \"prefilled_cardholder_details\": {\n" +
+                "    \"cardholder_name\": \"J. Bogs\",\n" +
+                "    \"billing_address\": {\n" +
+                "      \"line1\": \"address line 1\",\n" +
+                "      \"line2\": \"address line 2\",\n" +
+                "      \"postcode\": \"AB1 CD2\",\n" +
+                "      \"city\": \"address city\",\n" +
+                "      \"country\": \"GB\"\n" +
+                "    }\n" +
+                "  },\n" +
+                "  \"metadata\": {\n" +
+                "    \"ledger_code\": 123,\n" +
+                "    \"fund_code\": \"ABC\",\n" +
+                "    \"is_transferable\": true\n" +
+                "  }\n" +
+                "}");
+    }
+
+    @Benchmark
+    public CreateCardPaymentRequest minimalPaymentRequest() {
+        return RequestJsonParser.parsePaymentRequest(minimalPaymentRequest);
+    }
+
+    @Benchmark
+    public CreateCardPaymentRequest fullPaymentRequest() {
+        return RequestJsonParser.parsePaymentRequest(fullPaymentRequest);
+    }
+}
@@ -0,0 +1,133 @@
+package uk.gov.pay.api.model.links;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.model.Charge;
+import uk.gov.pay.api.model.ChargeFromResponse;
+import uk.gov.pay.api.service.PublicApiUriGenerator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a charge from connector into the payment we return from GET and POST /v1/payments: building the
+ * links (with and without generating the URIs they point to, as GetPaymentService does) and serializing the
+ * resulting {@link uk.gov.pay.api.model.CardPayment} with the application's object mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentWithAllLinksBenchmark {
+
+    private static final String CHARGE_ID = "ch_ab2341da231434l";
+
+    private PublicApiUriGenerator publicApiUriGenerator;
+    private ObjectMapper objectMapper;
+    private Charge charge;
+    private PaymentWithAllLinks payment;
+
+    private URI paymentUri;
+    private URI paymentEventsUri;
+    private URI paymentCancelUri;
+    private URI paymentRefundsUri;
+    private URI paymentCaptureUri;
+    private URI paymentAuthorisationUri;
+
+    @Setup
+    public void setUp() throws IOException {
+        publicApiUriGenerator = new PublicApiUriGenerator(new PublicApiConfig() {
+            @Override
+            public String getBaseUrl() {
+                return "https://publicapi.url/";
+            }
+        });
+        objectMapper = Jackson.newObjectMapper();
+
+        // language=JSON
+        charge = Charge.from(objectMapper.readValue("{\n" +
+                "  \"charge_id\": \"" + CHARGE_ID + "\",\n" +
+                "  \"amount\": 1000,\n" +
+                "  \"state\": {\"status\": \"capturable\", \"finished\": false},\n" +
+                "  \"description\": \"Some description\",\n" +
+                "  \"reference\": \"Some reference\",\n" +
+                "  \"email\": \"j.bogs@example.org\",\n" +
+                "  \"language\": \"en\",\n" +
+                "  \"delayed_capture\": true,\n" +
+                "  \"moto\": false,\n" +
+                "  \"return_url\": \"https://somewhere.gov.uk/rainbow/1\",\n" +
+                "  \"payment_provider\": \"sandbox\",\n" +
+                "  \"created_date\": \"2026-10-18T10:15:30.000Z\",\n" +
+                "  \"gateway_transaction_id\": \"a-gateway-transaction-id\",\n" +
+                "  \"authorisation_mode\": \"web\",\n" +
+                "  \"refund_summary\": {\"status\": \"pending\", \"amount_available\": 1000, \"amount_submitted\": 0},\n" +
+                "  \"settlement_summary\": {},\n" +
+                "  \"card_details\": {\n" +
+                "    \"last_digits_card_number\": \"1234\",\n" +
+                "    \"first_digits_card_number\": \"123456\",\n" +
+                "    \"cardholder_name\": \"J. Bogs\",\n" +
+                "    \"expiry_date\": \"12/30\",\n" +
+                "    \"card_brand\": \"Visa\",\n" +
+                "    \"card_type\": \"debit\",\n" +
+                "    \"billing_address\": {\n" +
+                "      \"line1\": \"address line 1\",\n" +
+                "      \"postcode\": \"AB1 CD2\",\n" +
+                "      \"city\": \"address city\",\n" +
+                "      \"country\": \"GB\"\n" +
+                "    }\n" +
+                "  },\n" +
+                "  \"links\": [\n" +
+                "    {\"rel\": \"self\", \"method\": \"GET\", \"href\": \"https://connector.url/v1/api/charges/" + CHARGE_ID + "\"},\n" +
+                "    {\"rel\": \"refunds\", \"method\": \"GET\", \"href\": \"https://connector.url/v1/api/charges/" + CHARGE_ID + "/refunds\"},\n" +
+                "    {\"rel\": \"capture\", \"method\": \"POST\", \"href\": \"https://connector.url/v1/api/charges/" + CHARGE_ID + "/capture\"}\n" +
+                "  ]\n" +
+                "}", ChargeFromResponse.class));
+
+        paymentUri = publicApiUriGenerator.getPaymentURI(CHARGE_ID);
+        paymentEventsUri = publicApiUriGenerator.getPaymentEventsURI(CHARGE_ID);
+        paymentCancelUri = publicApiUriGenerator.getPaymentCancelURI(CHARGE_ID);
+        paymentRefundsUri = publicApiUriGenerator.getPaymentRefundsURI(CHARGE_ID);
+        paymentCaptureUri = publicApiUriGenerator.getPaymentCaptureURI(CHARGE_ID);
+        paymentAuthorisationUri = publicApiUriGenerator.getPaymentAuthorisationURI();
+
+        payment = getPaymentWithLinks();
+    }
+
+    @Benchmark
+    public PaymentWithAllLinks getPaymentWithLinks() {
+        return PaymentWithAllLinks.getPaymentWithLinks(charge, paymentUri, paymentEventsUri, paymentCancelUri,
+                paymentRefundsUri, paymentCaptureUri, paymentAuthorisationUri);
+    }
+
+    @Benchmark
+    public PaymentWithAllLinks getPaymentWithLinksAndUris() {
+        return PaymentWithAllLinks.getPaymentWithLinks(
+                charge,
+                publicApiUriGenerator.getPaymentURI(charge.getChargeId()),
+                publicApiUriGenerator.getPaymentEventsURI(charge.getChargeId()),
+                publicApiUriGenerator.getPaymentCancelURI(charge.getChargeId()),
+                publicApiUriGenerator.getPaymentRefundsURI(charge.getChargeId()),
+                publicApiUriGenerator.getPaymentCaptureURI(charge.getChargeId()),
+                publicApiUriGenerator.getPaymentAuthorisationURI());
+    }
+
+    @Benchmark
+    public byte[] serializeCardPayment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.pay.api.model.search;
+
+import black.door.hate.HalRepresentation;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.model.TransactionResponse;
+import uk.gov.pay.api.model.search.card.PaymentForSearchResult;
+import uk.gov.pay.api.service.PublicApiUriGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a full page of 500 payment search results to the response, as {@link HalSearchResponse} does,
+ * compared with building a {@link HalRepresentation} and turning it into a String first, as payment search did
+ * before. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HalSearchResponseBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+    private static final String SEARCH_URL = "https://publicapi.url/v1/payments?state=success&display_size=500&page=";
+    private static final String TRANSACTION = """
+            {"amount": 1000, "state": {"finished": true, "status": "success"}, "description": "Test description",
+             "reference": "aReference", "language": "en", "transaction_id": "%s", "return_url": "https://example.org",
+             "email": "someone@example.org", "payment_provider": "sandbox", "created_date": "2026-03-01T10:13:16.067Z",
+             "card_details": {"cardholder_name": "J Doe", "last_digits_card_number": "4242",
+             "first_digits_card_number": "424242", "expiry_date": "12/30", "card_brand": "Visa", "card_type": "debit",
+             "billing_address": {"line1": "line1", "line2": "line2", "postcode": "AB1 2CD", "city": "London",
+             "country": "GB"}}, "delayed_capture": false, "moto": false, "authorisation_mode": "web"}""";
+
+    private ObjectMapper objectMapper;
+    private List<PaymentForSearchResult> results;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson.newObjectMapper().setSerializationInclusion(JsonInclude.Include.ALWAYS);
+        var publicApiUriGenerator = new PublicApiUriGenerator(new PublicApiConfig() {
+            @Override
+            public String getBaseUrl() {
+                return "https://publicapi.url/";
+            }
+        });
+
+        results = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            TransactionResponse transaction = objectMapper.readValue(
+                    TRANSACTION.formatted("charge" + i + "e3c9q2l7atdlbdsh"), TransactionResponse.class);
+            String paymentId = transaction.getTransactionId();
+            results.add(PaymentForSearchResult.valueOf(transaction,
+                    publicApiUriGenerator.getPaymentURI(paymentId),
+                    publicApiUriGenerator.getPaymentEventsURI(paymentId),
+                    publicApiUriGenerator.getPaymentCancelURI(paymentId),
+                    publicApiUriGenerator.getPaymentRefundsURI(paymentId),
+                    publicApiUriGenerator.getPaymentCaptureURI(paymentId)));
+        }
+    }
+
+    @Benchmark
+    public void halSearchResponse() throws IOException {
+        new HalSearchResponse(objectMapper, results)
+                .addProperty("count", PAGE_SIZE)
+                .addProperty("total", 2300)
+                .addProperty("page", 2)
+                .addLink("self", URI.create(SEARCH_URL + 2))
+                .addLink("first_page", URI.create(SEARCH_URL + 1))
+                .addLink("last_page", URI.create(SEARCH_URL + 5))
+                .addLink("prev_page", URI.create(SEARCH_URL + 1))
+                .addLink("next_page", URI.create(SEARCH_URL + 3))
+                .write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void halRepresentation() throws IOException {
+        String json = HalRepresentation.builder()
+                .addProperty("results", results)
+                .addProperty("count", PAGE_SIZE)
+                .addProperty("total", 2300)
+                .addProperty("page", 2)
+                .addLink("self", URI.create(SEARCH_URL + 2))
+                .addLink("first_page", URI.create(SEARCH_URL + 1))
+                .addLink("last_page", URI.create(SEARCH_URL + 5))
+                .addLink("prev_page", URI.create(SEARCH_URL + 1))
+                .addLink("next_page", URI.create(SEARCH_URL + 3))
+                .build()
+                .toString();
+        OutputStream.nullOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
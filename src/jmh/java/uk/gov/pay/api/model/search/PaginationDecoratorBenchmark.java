@@ -0,0 +1,113 @@
+package uk.gov.pay.api.model.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.model.links.Link;
+import uk.gov.pay.api.model.links.SearchNavigationLinks;
+
+import jakarta.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rewriting the five navigation links ledger returns for a page of payment search results into public API
+ * links, which is done for every search. {@code uriBuilder} is the way it used to be done, parsing each link and
+ * removing the ledger-only parameters from a {@link UriBuilder} one at a time. Run with {@code -prof gc} to compare
+ * allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationDecoratorBenchmark {
+
+    private static final String PAYMENTS_PATH = "/v1/payments";
+    private static final String LEDGER_SEARCH_URL = "https://ledger.url/v1/transaction?account_id=1" +
+            "&reference=a-reference&state=success&from_date=2026-01-01T00:00:00Z&display_size=500" +
+            "&transaction_type=PAYMENT&status_version=1&page=";
+
+    private static final ObjectMapper OBJECT_MAPPER = Jackson.newObjectMapper();
+    private static final List<String> QUERY_PARAMETERS_TO_BE_EXCLUDED
+            = List.of("account_id", "gateway_account_id", "transaction_type", "status_version");
+
+    private PaginationDecorator paginationDecorator;
+    private SearchPagination pagination;
+
+    @Setup
+    public void setUp() {
+        paginationDecorator = new PaginationDecorator(new PublicApiConfig() {
+            @Override
+            public String getBaseUrl() {
+                return "https://publicapi.url/";
+            }
+        });
+
+        SearchNavigationLinks links = new SearchNavigationLinks()
+                .withSelfLink(LEDGER_SEARCH_URL + 2)
+                .withFirstLink(LEDGER_SEARCH_URL + 1)
+                .withLastLink(LEDGER_SEARCH_URL + 5)
+                .withPrevLink(LEDGER_SEARCH_URL + 1)
+                .withNextLink(LEDGER_SEARCH_URL + 3);
+
+        pagination = new SearchPagination() {
+            @Override
+            public int getCount() {
+                return 500;
+            }
+
+            @Override
+            public int getTotal() {
+                return 2300;
+            }
+
+            @Override
+            public int getPage() {
+                return 2;
+            }
+
+            @Override
+            public SearchNavigationLinks getLinks() {
+                return links;
+            }
+        };
+    }
+
+    @Benchmark
+    public HalSearchResponse decoratePagination() {
+        return paginationDecorator.decoratePagination(new HalSearchResponse(OBJECT_MAPPER, List.of()), pagination, PAYMENTS_PATH);
+    }
+
+    @Benchmark
+    public void uriBuilder(Blackhole blackhole) throws URISyntaxException {
+        SearchNavigationLinks links = pagination.getLinks();
+        blackhole.consume(uriBuilderPublicUri(links.getSelf()));
+        blackhole.consume(uriBuilderPublicUri(links.getFirstPage()));
+        blackhole.consume(uriBuilderPublicUri(links.getLastPage()));
+        blackhole.consume(uriBuilderPublicUri(links.getPrevPage()));
+        blackhole.consume(uriBuilderPublicUri(links.getNextPage()));
+    }
+
+    private static URI uriBuilderPublicUri(Link link) throws URISyntaxException {
+        UriBuilder uriBuilder = UriBuilder.fromUri("https://publicapi.url/")
+                .path(PAYMENTS_PATH)
+                .replaceQuery(new URI(link.getHref()).getQuery());
+        QUERY_PARAMETERS_TO_BE_EXCLUDED.forEach(queryParam -> uriBuilder.replaceQueryParam(queryParam, (Object[]) null));
+        return uriBuilder.build();
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.pay.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+
+import jakarta.ws.rs.core.UriBuilder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the five links each payment in a search result gets, from the compiled templates in
+ * {@link PublicApiUriGenerator} and from a {@link UriBuilder} per link as it used to do. A page of 500 results
+ * does this 500 times. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicApiUriGeneratorBenchmark {
+
+    private static final String BASE_URL = "https://publicapi.url/";
+    private static final String CHARGE_ID = "ch_ab2341da231434l";
+
+    private PublicApiUriGenerator publicApiUriGenerator;
+
+    @Setup
+    public void setUp() {
+        publicApiUriGenerator = new PublicApiUriGenerator(new PublicApiConfig() {
+            @Override
+            public String getBaseUrl() {
+                return BASE_URL;
+            }
+        });
+    }
+
+    @Benchmark
+    public void linkTemplates(Blackhole blackhole) {
+        blackhole.consume(publicApiUriGenerator.getPaymentURI(CHARGE_ID));
+        blackhole.consume(publicApiUriGenerator.getPaymentEventsURI(CHARGE_ID));
+        blackhole.consume(publicApiUriGenerator.getPaymentCancelURI(CHARGE_ID));
+        blackhole.consume(publicApiUriGenerator.getPaymentRefundsURI(CHARGE_ID));
+        blackhole.consume(publicApiUriGenerator.getPaymentCaptureURI(CHARGE_ID));
+    }
+
+    @Benchmark
+    public void uriBuilder(Blackhole blackhole) {
+        blackhole.consume(UriBuilder.fromUri(BASE_URL).path("/v1/payments/{paymentId}").build(CHARGE_ID));
+        blackhole.consume(UriBuilder.fromUri(BASE_URL).path("/v1/payments/{paymentId}/events").build(CHARGE_ID));
+        blackhole.consume(UriBuilder.fromUri(BASE_URL).path("/v1/payments/{paymentId}/cancel").build(CHARGE_ID));
+        blackhole.consume(UriBuilder.fromUri(BASE_URL).path("/v1/payments/{paymentId}/refunds").build(CHARGE_ID));
+        blackhole.consume(UriBuilder.fromUri(BASE_URL).path("/v1/payments/{paymentId}/capture").build(CHARGE_ID));
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.pay.api.agreement.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -22,15 +23,26 @@ public class AgreementSearchResults implements SearchPagination {
                     "To view other pages, make this request again using the `page` parameter.")
     private int page;
     private List<Agreement> results;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(name = "next_cursor", example = "Mjow.Bq4pPVXn6FUKyGRkk2xy8A",
+            description = "Send this as the `cursor` parameter to get the next page of agreements. " +
+                    "Only included on the first page of results, or a page you got with `cursor`, when there are more agreements.")
+    private String nextCursor;
     @JsonProperty("_links")
     @Schema(name = "_links")
     SearchNavigationLinks links;
 
     public AgreementSearchResults(int total, int count, int page, List<Agreement> results, SearchNavigationLinks links) {
+        this(total, count, page, results, null, links);
+    }
+
+    public AgreementSearchResults(int total, int count, int page, List<Agreement> results, String nextCursor,
+                                  SearchNavigationLinks links) {
         this.total = total;
         this.count = count;
         this.page = page;
         this.results = results;
+        this.nextCursor = nextCursor;
         this.links = links;
     }
     
@@ -54,6 +66,10 @@ public class AgreementSearchResults implements SearchPagination {
         return results;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     @Override
     public SearchNavigationLinks getLinks() {
         return links;
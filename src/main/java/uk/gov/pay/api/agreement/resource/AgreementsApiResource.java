@@ -16,6 +16,7 @@ import uk.gov.pay.api.agreement.model.AgreementSearchResults;
 import uk.gov.pay.api.agreement.model.CreateAgreementRequest;
 import uk.gov.pay.api.agreement.service.AgreementsService;
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.ETagged;
 import uk.gov.pay.api.ledger.model.AgreementSearchParams;
 import uk.gov.pay.api.model.RequestError;
 import uk.gov.pay.api.resources.error.ApiErrorResponse;
@@ -96,6 +97,7 @@ public class AgreementsApiResource {
     }
 
     @GET
+    @ETagged
     @Path("/v1/agreements/{agreementId}")
     @Produces(APPLICATION_JSON)
     @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
@@ -8,14 +8,21 @@ import uk.gov.pay.api.agreement.model.AgreementLedgerResponse;
 import uk.gov.pay.api.agreement.model.AgreementSearchResults;
 import uk.gov.pay.api.agreement.model.CreateAgreementRequest;
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.AgreementValidationException;
 import uk.gov.pay.api.ledger.model.AgreementSearchParams;
 import uk.gov.pay.api.ledger.model.SearchResults;
 import uk.gov.pay.api.model.search.PaginationDecorator;
+import uk.gov.pay.api.model.search.SearchCursor;
 import uk.gov.pay.api.service.ConnectorService;
 import uk.gov.pay.api.service.LedgerService;
 
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_AGREEMENTS_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+import static uk.gov.pay.api.model.search.PaginationDecorator.CURSOR;
+
 public class AgreementsService {
     private static final String AGREEMENTS_PATH = "/v1/agreements";
     private final ConnectorService connectorService;
@@ -44,15 +51,54 @@ public class AgreementsService {
     }
 
     public AgreementSearchResults searchAgreements(Account account, AgreementSearchParams params) {
+        if (params.getCursor() != null) {
+            return searchAgreementsAfterCursor(account, params);
+        }
+
         SearchResults<AgreementLedgerResponse> ledgerResponse = ledgerService.searchAgreements(account, params);
-        return processLedgerResponse(ledgerResponse);
+        String nextCursor = null;
+        if ((params.getPageNumber() == null || "1".equals(params.getPageNumber()))
+                && ledgerResponse.getLinks().getNextPage() != null) {
+            nextCursor = paginationDecorator.encodeCursor(new SearchCursor(2, 0), account, AGREEMENTS_PATH, params.getQueryMap());
+        }
+        return processLedgerResponse(ledgerResponse, nextCursor);
+    }
+
+    /**
+     * Ledger cannot search agreements by created date, so an agreements cursor is the number of the next page.
+     */
+    private AgreementSearchResults searchAgreementsAfterCursor(Account account, AgreementSearchParams params) {
+        if (params.getPageNumber() != null) {
+            throw invalidCursor();
+        }
+        Map<String, String> queryMap = params.getQueryMap();
+        SearchCursor cursor = paginationDecorator.decodeCursor(params.getCursor(), account, AGREEMENTS_PATH, queryMap)
+                .orElseThrow(AgreementsService::invalidCursor);
+
+        var pageParams = new AgreementSearchParams(params.getReference(), params.getStatus(),
+                String.valueOf(cursor.position()), params.getDisplaySize());
+        SearchResults<AgreementLedgerResponse> searchResults = ledgerService.searchAgreements(account, pageParams);
+        String nextCursor = searchResults.getLinks().getNextPage() == null ? null : paginationDecorator.encodeCursor(
+                new SearchCursor(cursor.position() + 1, 0), account, AGREEMENTS_PATH, queryMap);
+
+        return new AgreementSearchResults(searchResults.getTotal(),
+                searchResults.getCount(),
+                searchResults.getPage(),
+                searchResults.getResults().stream().map(Agreement::from).collect(Collectors.toUnmodifiableList()),
+                nextCursor,
+                paginationDecorator.cursorLinks(AGREEMENTS_PATH, queryMap, params.getCursor(), nextCursor));
     }
 
-    private AgreementSearchResults processLedgerResponse(SearchResults<AgreementLedgerResponse> searchResults) {
+    private AgreementSearchResults processLedgerResponse(SearchResults<AgreementLedgerResponse> searchResults, String nextCursor) {
         return new AgreementSearchResults(searchResults.getTotal(),
                 searchResults.getCount(),
                 searchResults.getPage(),
                 searchResults.getResults().stream().map(Agreement::from).collect(Collectors.toUnmodifiableList()),
+                nextCursor,
                 paginationDecorator.transformLinksToPublicApiUri(searchResults.getLinks(), AGREEMENTS_PATH));
     }
+
+    private static AgreementValidationException invalidCursor() {
+        return new AgreementValidationException(aRequestError(SEARCH_AGREEMENTS_VALIDATION_ERROR, CURSOR));
+    }
 }
@@ -0,0 +1,108 @@
+package uk.gov.pay.api.app;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.glassfish.jersey.client.spi.PostInvocationInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.CircuitBreakerConfiguration;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.core.Response;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType.COUNT_BASED;
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Stops a client calling a service while the service is failing or slow, so that requests to this API fail
+ * straight away rather than each waiting for the service to time out.
+ * <p>
+ * Responses with a 5xx status and requests that fail without a response (for example because they time out) count
+ * as failures. While the circuit is open the request is not sent and the client gets a 503 response instead, so
+ * callers handle it in the same way as an error response from the service and return their usual error codes.
+ */
+public class CircuitBreakerClientFilter implements ClientRequestFilter, PostInvocationInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakerClientFilter.class);
+    private static final String START_TIME_PROPERTY = CircuitBreakerClientFilter.class.getName() + ".startTime";
+
+    private final CircuitBreaker circuitBreaker;
+    private final LongSupplier nanoTime;
+    private final Counter rejectedCalls;
+
+    public CircuitBreakerClientFilter(String name, CircuitBreakerConfiguration configuration, MetricRegistry metricRegistry) {
+        this(name, configuration, metricRegistry, System::nanoTime);
+    }
+
+    CircuitBreakerClientFilter(String name, CircuitBreakerConfiguration configuration, MetricRegistry metricRegistry,
+                               LongSupplier nanoTime) {
+        this.circuitBreaker = CircuitBreaker.of(name, CircuitBreakerConfig.custom()
+                .slidingWindowType(COUNT_BASED)
+                .slidingWindowSize(configuration.getSlidingWindowSize())
+                .minimumNumberOfCalls(configuration.getMinimumNumberOfCalls())
+                .failureRateThreshold(configuration.getFailureRateThreshold())
+                .slowCallRateThreshold(configuration.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(configuration.getSlowCallDurationThreshold().toJavaDuration())
+                .waitDurationInOpenState(configuration.getWaitDurationInOpenState().toJavaDuration())
+                .permittedNumberOfCallsInHalfOpenState(configuration.getPermittedNumberOfCallsInHalfOpenState())
+                .recordResult(status -> status instanceof Integer code && code >= 500)
+                .build());
+        this.nanoTime = nanoTime;
+
+        String prefix = name("circuit_breaker", name);
+        this.rejectedCalls = metricRegistry.counter(name(prefix, "rejected_calls"));
+        metricRegistry.<Gauge<Integer>>gauge(name(prefix, "state"), () -> this::getStateValue);
+        metricRegistry.<Gauge<Float>>gauge(name(prefix, "failure_rate"), () -> () -> circuitBreaker.getMetrics().getFailureRate());
+        metricRegistry.<Gauge<Float>>gauge(name(prefix, "slow_call_rate"), () -> () -> circuitBreaker.getMetrics().getSlowCallRate());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            metricRegistry.counter(name(prefix, "transitions", transition.getToState().name().toLowerCase(Locale.ROOT))).inc();
+            LOGGER.warn("Circuit breaker for {} changed from {} to {}", name, transition.getFromState(), transition.getToState());
+        });
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (circuitBreaker.tryAcquirePermission()) {
+            requestContext.setProperty(START_TIME_PROPERTY, nanoTime.getAsLong());
+        } else {
+            rejectedCalls.inc();
+            requestContext.abortWith(Response.status(SERVICE_UNAVAILABLE).build());
+        }
+    }
+
+    @Override
+    public void afterRequest(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        if (requestContext.getProperty(START_TIME_PROPERTY) instanceof Long startTime) {
+            circuitBreaker.onResult(nanoTime.getAsLong() - startTime, NANOSECONDS, responseContext.getStatus());
+        }
+    }
+
+    @Override
+    public void onException(ClientRequestContext requestContext, ExceptionContext exceptionContext) {
+        if (requestContext.getProperty(START_TIME_PROPERTY) instanceof Long startTime) {
+            circuitBreaker.onError(nanoTime.getAsLong() - startTime, NANOSECONDS, exceptionContext.getThrowables().getFirst());
+        }
+    }
+
+    /**
+     * 0 when closed, 1 when half-open and 2 when open, so that higher is worse.
+     */
+    private int getStateValue() {
+        return switch (circuitBreaker.getState()) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            default -> 2;
+        };
+    }
+}
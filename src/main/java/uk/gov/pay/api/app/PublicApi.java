@@ -4,7 +4,6 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import io.dropwizard.auth.AuthDynamicFeature;
 import io.dropwizard.auth.AuthValueFactoryProvider;
-import io.dropwizard.auth.CachingAuthenticator;
 import io.dropwizard.auth.oauth.OAuthCredentialAuthFilter;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
@@ -24,6 +23,7 @@ import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.PublicApiModule;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.auth.AccountAuthenticator;
+import uk.gov.pay.api.auth.RefreshingAuthenticator;
 import uk.gov.pay.api.exception.mapper.AgreementValidationExceptionMapper;
 import uk.gov.pay.api.exception.mapper.AuthorisationRequestExceptionMapper;
 import uk.gov.pay.api.exception.mapper.BadRefundsRequestExceptionMapper;
@@ -51,17 +51,21 @@ import uk.gov.pay.api.exception.mapper.SearchRefundsExceptionMapper;
 import uk.gov.pay.api.exception.mapper.ViolationExceptionMapper;
 import uk.gov.pay.api.filter.AuthorizationValidationFilter;
 import uk.gov.pay.api.filter.ClearMdcValuesFilter;
+import uk.gov.pay.api.filter.ETagFilter;
 import uk.gov.pay.api.filter.LoggingMDCRequestFilter;
 import uk.gov.pay.api.filter.RateLimiterFilter;
 import uk.gov.pay.api.healthcheck.Ping;
 import uk.gov.pay.api.ledger.resource.TransactionsResource;
 import uk.gov.pay.api.managed.RedisClientManager;
 import uk.gov.pay.api.resources.AuthorisationResource;
+import uk.gov.pay.api.resources.BatchGetPaymentsResource;
+import uk.gov.pay.api.resources.BulkRefundResource;
 import uk.gov.pay.api.resources.HealthCheckResource;
 import uk.gov.pay.api.resources.PaymentRefundsResource;
 import uk.gov.pay.api.resources.PaymentsResource;
 import uk.gov.pay.api.resources.RequestDeniedResource;
 import uk.gov.pay.api.resources.SearchDisputesResource;
+import uk.gov.pay.api.resources.SearchExportResource;
 import uk.gov.pay.api.resources.SearchRefundsResource;
 import uk.gov.pay.api.resources.SecuritytxtResource;
 import uk.gov.pay.api.resources.telephone.TelephonePaymentNotificationResource;
@@ -81,6 +85,7 @@ public class PublicApi extends Application<PublicApiConfig> {
     private static final Logger logger = LoggerFactory.getLogger(PublicApi.class);
     
     private static final String SERVICE_METRICS_NODE = "publicapi";
+    private static final int AUTHENTICATION_REFRESH_THREADS = 4;
 
     @Override
     public void initialize(Bootstrap<PublicApiConfig> bootstrap) {
@@ -105,10 +110,13 @@ public class PublicApi extends Application<PublicApiConfig> {
 
         environment.jersey().register(injector.getInstance(HealthCheckResource.class));
         environment.jersey().register(injector.getInstance(PaymentsResource.class));
+        environment.jersey().register(injector.getInstance(BatchGetPaymentsResource.class));
         environment.jersey().register(injector.getInstance(AgreementsApiResource.class));
         environment.jersey().register(injector.getInstance(PaymentRefundsResource.class));
+        environment.jersey().register(injector.getInstance(BulkRefundResource.class));
         environment.jersey().register(injector.getInstance(RequestDeniedResource.class));
         environment.jersey().register(injector.getInstance(SearchRefundsResource.class));
+        environment.jersey().register(injector.getInstance(SearchExportResource.class));
         environment.jersey().register(injector.getInstance(TransactionsResource.class));
         environment.jersey().register(injector.getInstance(TelephonePaymentNotificationResource.class));
         environment.jersey().register(new InjectingValidationFeature(injector));
@@ -118,6 +126,7 @@ public class PublicApi extends Application<PublicApiConfig> {
 
         environment.jersey().register(injector.getInstance(RateLimiterFilter.class));
         environment.jersey().register(injector.getInstance(LoggingMDCRequestFilter.class));
+        environment.jersey().register(injector.getInstance(ETagFilter.class));
 
         environment.servlets().addFilter("ClearMdcValuesFilter", injector.getInstance(ClearMdcValuesFilter.class))
                 .addMappingForUrlPatterns(of(REQUEST), true, "/v1/*");
@@ -136,10 +145,14 @@ public class PublicApi extends Application<PublicApiConfig> {
         */
         environment.jersey().property(CommonProperties.FEATURE_AUTO_DISCOVERY_DISABLE, Boolean.TRUE);
 
-        CachingAuthenticator<String, Account> cachingAuthenticator = new CachingAuthenticator<>(
-                environment.metrics(),
+        RefreshingAuthenticator cachingAuthenticator = new RefreshingAuthenticator(
                 injector.getInstance(AccountAuthenticator.class),
-                configuration.getAuthenticationCachePolicy());
+                configuration.getAuthenticationCachePolicy(),
+                environment.lifecycle().executorService("authentication-refresh-%d")
+                        .minThreads(AUTHENTICATION_REFRESH_THREADS)
+                        .maxThreads(AUTHENTICATION_REFRESH_THREADS)
+                        .build(),
+                environment.metrics());
 
         environment.jersey().register(new AuthDynamicFeature(
                 new OAuthCredentialAuthFilter.Builder<Account>()
@@ -1,34 +1,38 @@
 package uk.gov.pay.api.app;
 
+import io.dropwizard.client.JerseyClientBuilder;
+import io.dropwizard.client.ssl.TlsConfiguration;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.jackson.Jackson;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.service.payments.logging.RestClientLoggingFilter;
 
-import javax.net.ssl.SSLContext;
 import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-
-import static java.lang.String.format;
 
 public class RestClientFactory {
     private static final String TLSV1_2 = "TLSv1.2";
 
-    public static Client buildClient(RestClientConfig clientConfig) {
-        ClientBuilder clientBuilder = ClientBuilder.newBuilder();
-
-        if (!clientConfig.isDisabledSecureConnection()) {
-            try {
-                SSLContext sslContext = SSLContext.getInstance(TLSV1_2);
-                sslContext.init(null, null, null);
-                clientBuilder = clientBuilder.sslContext(sslContext);
-            } catch (NoSuchAlgorithmException | KeyManagementException e) {
-                throw new RuntimeException(format("Unable to find an SSL context for %s", TLSV1_2), e);
-            }
+    /**
+     * Builds a client that uses its own pool of keep-alive connections configured by clientConfig. The pool's
+     * leased, available, pending and maximum connections and the time taken by requests are published in the
+     * environment's metrics, named after the client, so each client needs a different name. If clientConfig has
+     * a circuit breaker, the client stops calling the service while it is failing or slow.
+     */
+    public static Client buildClient(String name, RestClientConfig clientConfig, Environment environment) {
+        if (!clientConfig.isDisabledSecureConnection() && clientConfig.getTlsConfiguration() == null) {
+            TlsConfiguration tlsConfiguration = new TlsConfiguration();
+            tlsConfiguration.setProtocol(TLSV1_2);
+            clientConfig.setTlsConfiguration(tlsConfiguration);
         }
 
-        Client client = clientBuilder.build();
+        // Not the environment's object mapper, which is set up for reading requests to this API
+        Client client = new JerseyClientBuilder(environment)
+                .using(clientConfig)
+                .using(Jackson.newObjectMapper())
+                .build(name);
         client.register(RestClientLoggingFilter.class);
+        clientConfig.getCircuitBreaker().ifPresent(circuitBreaker ->
+                client.register(new CircuitBreakerClientFilter(name, circuitBreaker, environment.metrics())));
 
         return client;
     }
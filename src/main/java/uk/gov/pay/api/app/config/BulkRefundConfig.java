@@ -0,0 +1,65 @@
+package uk.gov.pay.api.app.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Limits on bulk refunds: no more than maxRefunds in one request, no more than maxConcurrentRequestsPerAccount
+ * requests running at once for an account, and no more than maxConcurrentRefundsPerAccount refunds being created at
+ * once for an account across those requests. A refund that cannot start within maxWaitForRefund is not created.
+ */
+public class BulkRefundConfig {
+
+    @Min(1)
+    @JsonProperty("maxRefunds")
+    private int maxRefunds = 1000;
+
+    @Min(1)
+    @JsonProperty("maxConcurrentRequestsPerAccount")
+    private int maxConcurrentRequestsPerAccount = 2;
+
+    @Min(1)
+    @JsonProperty("maxConcurrentRefundsPerAccount")
+    private int maxConcurrentRefundsPerAccount = 4;
+
+    @Valid
+    @NotNull
+    @JsonProperty("maxWaitForRefund")
+    private Duration maxWaitForRefund = Duration.seconds(30);
+
+    public BulkRefundConfig() {
+    }
+
+    public BulkRefundConfig(int maxRefunds, int maxConcurrentRefundsPerAccount) {
+        this.maxRefunds = maxRefunds;
+        this.maxConcurrentRefundsPerAccount = maxConcurrentRefundsPerAccount;
+    }
+
+    public BulkRefundConfig(int maxRefunds, int maxConcurrentRequestsPerAccount, int maxConcurrentRefundsPerAccount,
+                            Duration maxWaitForRefund) {
+        this.maxRefunds = maxRefunds;
+        this.maxConcurrentRequestsPerAccount = maxConcurrentRequestsPerAccount;
+        this.maxConcurrentRefundsPerAccount = maxConcurrentRefundsPerAccount;
+        this.maxWaitForRefund = maxWaitForRefund;
+    }
+
+    public int getMaxRefunds() {
+        return maxRefunds;
+    }
+
+    public int getMaxConcurrentRequestsPerAccount() {
+        return maxConcurrentRequestsPerAccount;
+    }
+
+    public int getMaxConcurrentRefundsPerAccount() {
+        return maxConcurrentRefundsPerAccount;
+    }
+
+    public Duration getMaxWaitForRefund() {
+        return maxWaitForRefund;
+    }
+}
@@ -0,0 +1,91 @@
+package uk.gov.pay.api.app.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * When to stop calling a service that is failing or slow. The outcomes of the last slidingWindowSize calls are
+ * kept, and once at least minimumNumberOfCalls have been made the circuit opens if the percentage of them that
+ * failed is at least failureRateThreshold or the percentage that took longer than slowCallDurationThreshold is at
+ * least slowCallRateThreshold. While open, calls are not made at all. After waitDurationInOpenState,
+ * permittedNumberOfCallsInHalfOpenState calls are let through and the circuit closes again if they succeed.
+ */
+public class CircuitBreakerConfiguration {
+
+    @Min(1)
+    @Max(100)
+    @JsonProperty("failureRateThreshold")
+    private float failureRateThreshold = 50;
+
+    @Min(1)
+    @Max(100)
+    @JsonProperty("slowCallRateThreshold")
+    private float slowCallRateThreshold = 80;
+
+    @Valid
+    @NotNull
+    @JsonProperty("slowCallDurationThreshold")
+    private Duration slowCallDurationThreshold = Duration.seconds(10);
+
+    @Min(1)
+    @JsonProperty("slidingWindowSize")
+    private int slidingWindowSize = 100;
+
+    @Min(1)
+    @JsonProperty("minimumNumberOfCalls")
+    private int minimumNumberOfCalls = 20;
+
+    @Valid
+    @NotNull
+    @JsonProperty("waitDurationInOpenState")
+    private Duration waitDurationInOpenState = Duration.seconds(10);
+
+    @Min(1)
+    @JsonProperty("permittedNumberOfCallsInHalfOpenState")
+    private int permittedNumberOfCallsInHalfOpenState = 5;
+
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDurationThreshold() {
+        return slowCallDurationThreshold;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    public Duration getWaitDurationInOpenState() {
+        return waitDurationInOpenState;
+    }
+
+    public int getPermittedNumberOfCallsInHalfOpenState() {
+        return permittedNumberOfCallsInHalfOpenState;
+    }
+
+    public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+        this.slowCallDurationThreshold = slowCallDurationThreshold;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+}
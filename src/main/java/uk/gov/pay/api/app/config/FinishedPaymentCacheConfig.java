@@ -0,0 +1,59 @@
+package uk.gov.pay.api.app.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * How long payments that have finished are kept in memory to answer requests for them. Successful payments can
+ * still be refunded, settled and disputed, so they are kept for successfulPaymentExpireAfterWrite, which should be
+ * short. Payments that finished in any other state no longer change and are kept for expireAfterWrite. Nothing
+ * is kept unless enabled is set.
+ */
+public class FinishedPaymentCacheConfig {
+
+    @JsonProperty("enabled")
+    private boolean enabled;
+
+    @Min(1)
+    @JsonProperty("maximumSize")
+    private long maximumSize = 10_000;
+
+    @Valid
+    @NotNull
+    @JsonProperty("expireAfterWrite")
+    private Duration expireAfterWrite = Duration.minutes(10);
+
+    @Valid
+    @NotNull
+    @JsonProperty("successfulPaymentExpireAfterWrite")
+    private Duration successfulPaymentExpireAfterWrite = Duration.seconds(10);
+
+    public FinishedPaymentCacheConfig() {
+    }
+
+    public FinishedPaymentCacheConfig(boolean enabled, Duration expireAfterWrite, Duration successfulPaymentExpireAfterWrite) {
+        this.enabled = enabled;
+        this.expireAfterWrite = expireAfterWrite;
+        this.successfulPaymentExpireAfterWrite = successfulPaymentExpireAfterWrite;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public Duration getSuccessfulPaymentExpireAfterWrite() {
+        return successfulPaymentExpireAfterWrite;
+    }
+}
@@ -0,0 +1,39 @@
+package uk.gov.pay.api.app.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Whether getting a payment asks ledger for it as well as connector if connector has not answered within
+ * ledgerDelay, rather than only once connector has said it does not have the payment. A ledgerDelay of 0 asks
+ * both at once.
+ */
+public class HedgedPaymentLookupConfig {
+
+    @JsonProperty("enabled")
+    private boolean enabled;
+
+    @Valid
+    @NotNull
+    @JsonProperty("ledgerDelay")
+    private Duration ledgerDelay = Duration.milliseconds(50);
+
+    public HedgedPaymentLookupConfig() {
+    }
+
+    public HedgedPaymentLookupConfig(boolean enabled, Duration ledgerDelay) {
+        this.enabled = enabled;
+        this.ledgerDelay = ledgerDelay;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getLedgerDelay() {
+        return ledgerDelay;
+    }
+}
@@ -0,0 +1,50 @@
+package uk.gov.pay.api.app.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * How requests to get a payment with wait_for_change_from wait for it to change: for at most maxTimeout, with
+ * connector asked for the payment every pollInterval, and with no more than maxWaiters requests waiting at once.
+ */
+public class PaymentLongPollConfig {
+
+    @Valid
+    @NotNull
+    @JsonProperty("maxTimeout")
+    private Duration maxTimeout = Duration.seconds(30);
+
+    @Valid
+    @NotNull
+    @JsonProperty("pollInterval")
+    private Duration pollInterval = Duration.seconds(1);
+
+    @Min(0)
+    @JsonProperty("maxWaiters")
+    private int maxWaiters = 10_000;
+
+    public PaymentLongPollConfig() {
+    }
+
+    public PaymentLongPollConfig(Duration maxTimeout, Duration pollInterval, int maxWaiters) {
+        this.maxTimeout = maxTimeout;
+        this.pollInterval = pollInterval;
+        this.maxWaiters = maxWaiters;
+    }
+
+    public Duration getMaxTimeout() {
+        return maxTimeout;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public int getMaxWaiters() {
+        return maxWaiters;
+    }
+}
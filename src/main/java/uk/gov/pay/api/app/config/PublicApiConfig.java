@@ -31,10 +31,43 @@ public class PublicApiConfig extends Configuration {
     @NotNull
     private CaffeineSpec authenticationCachePolicy;
 
+    @NotNull
+    private CaffeineSpec authenticationNegativeCachePolicy;
+
+    @Valid
+    @NotNull
+    @JsonProperty("connectorClient")
+    private RestClientConfig connectorClientConfig;
+
+    @Valid
+    @NotNull
+    @JsonProperty("ledgerClient")
+    private RestClientConfig ledgerClientConfig;
+
+    @Valid
+    @NotNull
+    @JsonProperty("publicAuthClient")
+    private RestClientConfig publicAuthClientConfig;
+
+    @Valid
+    @NotNull
+    @JsonProperty("hedgedPaymentLookup")
+    private HedgedPaymentLookupConfig hedgedPaymentLookupConfig = new HedgedPaymentLookupConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("finishedPaymentCache")
+    private FinishedPaymentCacheConfig finishedPaymentCacheConfig = new FinishedPaymentCacheConfig();
+
     @Valid
     @NotNull
-    @JsonProperty("jerseyClientConfig")
-    private RestClientConfig restClientConfig;
+    @JsonProperty("paymentLongPoll")
+    private PaymentLongPollConfig paymentLongPollConfig = new PaymentLongPollConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("bulkRefund")
+    private BulkRefundConfig bulkRefundConfig = new BulkRefundConfig();
 
     @NotNull
     @JsonProperty
@@ -72,8 +105,32 @@ public class PublicApiConfig extends Configuration {
         return apiKeyHmacSecret;
     }
 
-    public RestClientConfig getRestClientConfig() {
-        return restClientConfig;
+    public RestClientConfig getConnectorClientConfig() {
+        return connectorClientConfig;
+    }
+
+    public RestClientConfig getLedgerClientConfig() {
+        return ledgerClientConfig;
+    }
+
+    public RestClientConfig getPublicAuthClientConfig() {
+        return publicAuthClientConfig;
+    }
+
+    public HedgedPaymentLookupConfig getHedgedPaymentLookupConfig() {
+        return hedgedPaymentLookupConfig;
+    }
+
+    public FinishedPaymentCacheConfig getFinishedPaymentCacheConfig() {
+        return finishedPaymentCacheConfig;
+    }
+
+    public PaymentLongPollConfig getPaymentLongPollConfig() {
+        return paymentLongPollConfig;
+    }
+
+    public BulkRefundConfig getBulkRefundConfig() {
+        return bulkRefundConfig;
     }
 
     public RateLimiterConfig getRateLimiterConfig() {
@@ -84,6 +141,10 @@ public class PublicApiConfig extends Configuration {
         return authenticationCachePolicy;
     }
 
+    public CaffeineSpec getAuthenticationNegativeCachePolicy() {
+        return authenticationNegativeCachePolicy;
+    }
+
     public RedisConfiguration getRedisConfiguration() {
         return redis;
     }
@@ -50,8 +50,23 @@ public class PublicApiModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public Client provideClient() {
-        return RestClientFactory.buildClient(configuration.getRestClientConfig());
+    @ConnectorClient
+    public Client provideConnectorClient() {
+        return RestClientFactory.buildClient("connector", configuration.getConnectorClientConfig(), environment);
+    }
+
+    @Provides
+    @Singleton
+    @LedgerClient
+    public Client provideLedgerClient() {
+        return RestClientFactory.buildClient("ledger", configuration.getLedgerClientConfig(), environment);
+    }
+
+    @Provides
+    @Singleton
+    @PublicAuthClient
+    public Client providePublicAuthClient() {
+        return RestClientFactory.buildClient("publicauth", configuration.getPublicAuthClientConfig(), environment);
     }
 
     @Provides
@@ -81,6 +96,26 @@ public class PublicApiModule extends AbstractModule {
         return configuration.getRateLimiterConfig();
     }
 
+    @Provides
+    public HedgedPaymentLookupConfig getHedgedPaymentLookupConfig() {
+        return configuration.getHedgedPaymentLookupConfig();
+    }
+
+    @Provides
+    public FinishedPaymentCacheConfig getFinishedPaymentCacheConfig() {
+        return configuration.getFinishedPaymentCacheConfig();
+    }
+
+    @Provides
+    public PaymentLongPollConfig getPaymentLongPollConfig() {
+        return configuration.getPaymentLongPollConfig();
+    }
+
+    @Provides
+    public BulkRefundConfig getBulkRefundConfig() {
+        return configuration.getBulkRefundConfig();
+    }
+
     @Provides
     @Singleton
     public RedisClient getRedisClient() {
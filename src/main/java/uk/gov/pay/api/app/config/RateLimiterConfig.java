@@ -2,10 +2,12 @@ package uk.gov.pay.api.app.config;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.dropwizard.core.Configuration;
+import uk.gov.pay.api.filter.ratelimit.RateLimitAlgorithm;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +54,18 @@ public class RateLimiterConfig extends Configuration {
     @Max(3_599_999)
     private int intervalInMillisForLowTrafficAccounts;
 
+    @NotNull
+    private RateLimitAlgorithm algorithm = RateLimitAlgorithm.FIXED_WINDOW;
+
+    @Min(1)
+    private int redisTimeoutInMillis = 50;
+
+    @Min(1)
+    private int maxRedisCallsInFlight = 100;
+
+    @Min(1)
+    private int leaseSizeForElevatedAccounts = 1;
+
     public int getNoOfReq() {
         return noOfReq;
     }
@@ -99,4 +113,20 @@ public class RateLimiterConfig extends Configuration {
     public int getIntervalInMillisForLowTrafficAccounts() {
         return intervalInMillisForLowTrafficAccounts;
     }
+
+    public RateLimitAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getRedisTimeoutInMillis() {
+        return redisTimeoutInMillis;
+    }
+
+    public int getMaxRedisCallsInFlight() {
+        return maxRedisCallsInFlight;
+    }
+
+    public int getLeaseSizeForElevatedAccounts() {
+        return leaseSizeForElevatedAccounts;
+    }
 }
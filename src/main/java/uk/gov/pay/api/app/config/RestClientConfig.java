@@ -1,16 +1,43 @@
 package uk.gov.pay.api.app.config;
 
 
-import io.dropwizard.core.Configuration;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.client.JerseyClientConfiguration;
+import io.dropwizard.util.Duration;
 
-public class RestClientConfig extends Configuration {
+import jakarta.validation.Valid;
+import java.util.Optional;
+
+/**
+ * Configuration for one of the pooled HTTP clients used to call connector, ledger and publicauth. As well as
+ * disabledSecureConnection, everything in Dropwizard's {@link JerseyClientConfiguration} can be set, including
+ * timeout, connectionTimeout, connectionRequestTimeout (how long to wait for a connection from the pool),
+ * maxConnections, maxConnectionsPerRoute, keepAlive (how long an idle connection is kept in the pool), timeToLive
+ * and validateAfterInactivityPeriod. Each client has a single route, to the service it calls, so maxConnections is
+ * also the limit on how many requests can be in progress to that service at once.
+ * <p>
+ * If circuitBreaker is set, the client stops calling the service while it is failing or slow.
+ */
+public class RestClientConfig extends JerseyClientConfiguration {
     
     private String disabledSecureConnection = "false";
 
+    @Valid
+    @JsonProperty("circuitBreaker")
+    private CircuitBreakerConfiguration circuitBreaker;
+
     public RestClientConfig() {
+        // Send requests with a Content-Length and uncompressed, as the JDK HTTP client this replaced did. Unlike
+        // that client, which could wait for a response forever, give up after a minute unless configured otherwise
+        setChunkedEncodingEnabled(false);
+        setGzipEnabledForRequests(false);
+        setTimeout(Duration.minutes(1));
+        setConnectionTimeout(Duration.seconds(5));
+        setConnectionRequestTimeout(Duration.seconds(5));
     }
 
     public RestClientConfig(boolean disabledSecureConnection) {
+        this();
         this.disabledSecureConnection = Boolean.valueOf(disabledSecureConnection).toString();
     }
 
@@ -18,4 +45,11 @@ public class RestClientConfig extends Configuration {
         return "true".equals(disabledSecureConnection);
     }
 
+    public Optional<CircuitBreakerConfiguration> getCircuitBreaker() {
+        return Optional.ofNullable(circuitBreaker);
+    }
+
+    public void setCircuitBreaker(CircuitBreakerConfiguration circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
 }
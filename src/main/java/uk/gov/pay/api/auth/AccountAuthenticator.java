@@ -1,10 +1,18 @@
 package uk.gov.pay.api.auth;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
 import io.dropwizard.auth.Authenticator;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.app.config.PublicAuthClient;
+import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.model.publicauth.AuthResponse;
 import uk.gov.service.payments.commons.model.ErrorIdentifier;
 
@@ -13,7 +21,14 @@ import jakarta.ws.rs.ServiceUnavailableException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static java.lang.String.format;
 import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
@@ -26,16 +41,85 @@ public class AccountAuthenticator implements Authenticator<String, Account> {
 
     private final Client client;
     private final String publicAuthUrl;
+    private final Cache<String, RejectedApiKey> rejectedApiKeys;
+    private final Counter rejectedApiKeyCacheHits;
+    private final Counter rejectedApiKeyCacheMisses;
+    private final ConcurrentMap<String, CompletableFuture<Optional<Account>>> inFlightLookups = new ConcurrentHashMap<>();
+    private final Counter coalescedLookups;
+    private final long inFlightLookupWaitMillis;
 
     @Inject
-    public AccountAuthenticator(Client client, PublicApiConfig configuration) {
+    public AccountAuthenticator(@PublicAuthClient Client client, PublicApiConfig configuration, Environment environment) {
         this.client = client;
         this.publicAuthUrl = configuration.getPublicAuthUrl();
+        this.rejectedApiKeys = Caffeine.from(configuration.getAuthenticationNegativeCachePolicy()).build();
+        this.rejectedApiKeyCacheHits = environment.metrics().counter("auth.negative_cache.hits");
+        this.rejectedApiKeyCacheMisses = environment.metrics().counter("auth.negative_cache.misses");
+        environment.metrics().<Gauge<Long>>gauge("auth.negative_cache.size", () -> rejectedApiKeys::estimatedSize);
+        this.coalescedLookups = environment.metrics().counter("auth.coalesced_requests");
+        // No longer than the request being waited for can take to get a connection, connect and get a response
+        RestClientConfig publicAuthClientConfig = Optional.ofNullable(configuration.getPublicAuthClientConfig())
+                .orElseGet(RestClientConfig::new);
+        this.inFlightLookupWaitMillis = publicAuthClientConfig.getConnectionRequestTimeout().toMilliseconds()
+                + publicAuthClientConfig.getConnectionTimeout().toMilliseconds()
+                + publicAuthClientConfig.getTimeout().toMilliseconds();
     }
 
+    /**
+     * API keys that publicauth has said are revoked or invalid are remembered, by a hash of the key, for as long as
+     * the authenticationNegativeCachePolicy allows so that a client repeatedly using one does not cause a call to
+     * publicauth for every request.
+     * <p>
+     * Only one request to publicauth is made at a time for each API key. Requests that arrive while it is in
+     * progress wait for it, for no longer than the publicauth client's own timeouts allow, and share its result. If
+     * it fails, or they stop waiting, each of them fails with its own {@link ServiceUnavailableException}.
+     */
     @Override
     public Optional<Account> authenticate(String bearerToken) {
+        String apiKeyHash = Hashing.sha256().hashString(bearerToken, StandardCharsets.UTF_8).toString();
+        RejectedApiKey rejectedApiKey = rejectedApiKeys.getIfPresent(apiKeyHash);
+        if (rejectedApiKey != null) {
+            rejectedApiKeyCacheHits.inc();
+            logRejected(rejectedApiKey);
+            return Optional.empty();
+        }
+        rejectedApiKeyCacheMisses.inc();
+
+        CompletableFuture<Optional<Account>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<Account>> inFlightLookup = inFlightLookups.putIfAbsent(apiKeyHash, lookup);
+        if (inFlightLookup != null) {
+            coalescedLookups.inc();
+            return awaitInFlightLookup(inFlightLookup, inFlightLookupWaitMillis);
+        }
+
+        try {
+            Optional<Account> account = authenticateWithPublicAuth(bearerToken, apiKeyHash);
+            lookup.complete(account);
+            return account;
+        } catch (RuntimeException | Error e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(apiKeyHash, lookup);
+        }
+    }
+
+    private static Optional<Account> awaitInFlightLookup(CompletableFuture<Optional<Account>> inFlightLookup,
+                                                         long waitMillis) {
+        try {
+            return inFlightLookup.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new ServiceUnavailableException((Long) null, e.getCause());
+        } catch (TimeoutException e) {
+            logger.warn("Gave up waiting for another request's call to publicauth after " + waitMillis + "ms");
+            throw new ServiceUnavailableException((Long) null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException((Long) null, e);
+        }
+    }
 
+    private Optional<Account> authenticateWithPublicAuth(String bearerToken, String apiKeyHash) {
         Response response = client.target(publicAuthUrl).request()
                 .header(AUTHORIZATION, "Bearer " + bearerToken)
                 .accept(MediaType.APPLICATION_JSON)
@@ -49,12 +133,14 @@ public class AccountAuthenticator implements Authenticator<String, Account> {
         } else if (response.getStatus() == UNAUTHORIZED.getStatusCode()) {
             JsonNode unauthorisedResponse = response.readEntity(JsonNode.class);
             ErrorIdentifier errorIdentifier = ErrorIdentifier.valueOf(unauthorisedResponse.get("error_identifier").asText());
+            RejectedApiKey rejectedApiKey;
             if (errorIdentifier == ErrorIdentifier.AUTH_TOKEN_REVOKED) {
-                String tokenLink = unauthorisedResponse.get("token_link").asText();
-                logger.warn(format("Attempt to authenticate using revoked API key with token_link %s", tokenLink), kv("token_link", tokenLink));
+                rejectedApiKey = new RejectedApiKey(errorIdentifier, unauthorisedResponse.get("token_link").asText());
             } else {
-                logger.warn("Attempt to authenticate using invalid API key with valid checksum");
+                rejectedApiKey = new RejectedApiKey(errorIdentifier, null);
             }
+            rejectedApiKeys.put(apiKeyHash, rejectedApiKey);
+            logRejected(rejectedApiKey);
             response.close();
             return Optional.empty();
         } else {
@@ -63,4 +149,16 @@ public class AccountAuthenticator implements Authenticator<String, Account> {
             throw new ServiceUnavailableException();
         }
     }
+
+    private static void logRejected(RejectedApiKey rejectedApiKey) {
+        if (rejectedApiKey.errorIdentifier() == ErrorIdentifier.AUTH_TOKEN_REVOKED) {
+            String tokenLink = rejectedApiKey.tokenLink();
+            logger.warn(format("Attempt to authenticate using revoked API key with token_link %s", tokenLink), kv("token_link", tokenLink));
+        } else {
+            logger.warn("Attempt to authenticate using invalid API key with valid checksum");
+        }
+    }
+
+    private record RejectedApiKey(ErrorIdentifier errorIdentifier, String tokenLink) {
+    }
 }
@@ -0,0 +1,66 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Caches the accounts that API keys belong to, replacing Dropwizard's CachingAuthenticator so that active keys do
+ * not all have to wait for publicauth whenever they expire.
+ * <p>
+ * With refreshAfterWrite in the cache policy, the first request for a key after that long is still served from
+ * the cache while the key is authenticated again in the background on the given executor. If publicauth is
+ * unavailable the cached account carries on being used until expireAfterWrite, so the difference between the two
+ * is the grace period. If publicauth says the key is no longer valid it is removed from the cache.
+ * <p>
+ * Keys that fail authentication are not cached here, and keys that are not cached are authenticated outside of
+ * the cache rather than by the cache loading them, so that concurrent requests for the same key wait in
+ * {@link AccountAuthenticator}, which counts them, rather than on a lock inside the cache.
+ */
+public class RefreshingAuthenticator implements Authenticator<String, Account> {
+
+    private final Authenticator<String, Account> authenticator;
+    private final LoadingCache<String, Account> cache;
+
+    public RefreshingAuthenticator(Authenticator<String, Account> authenticator, CaffeineSpec cachePolicy,
+                                   Executor refreshExecutor, MetricRegistry metricRegistry) {
+        this(authenticator, cachePolicy, refreshExecutor, Ticker.systemTicker(), metricRegistry);
+    }
+
+    RefreshingAuthenticator(Authenticator<String, Account> authenticator, CaffeineSpec cachePolicy,
+                            Executor refreshExecutor, Ticker ticker, MetricRegistry metricRegistry) {
+        this.authenticator = authenticator;
+        CacheLoader<String, Account> loader = bearerToken -> authenticator.authenticate(bearerToken).orElse(null);
+        this.cache = Caffeine.from(cachePolicy)
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(loader);
+
+        metricRegistry.<Gauge<Long>>gauge("auth.cache.hits", () -> () -> cache.stats().hitCount());
+        metricRegistry.<Gauge<Long>>gauge("auth.cache.misses", () -> () -> cache.stats().missCount());
+        metricRegistry.<Gauge<Long>>gauge("auth.cache.load_failures", () -> () -> cache.stats().loadFailureCount());
+        metricRegistry.<Gauge<Long>>gauge("auth.cache.size", () -> cache::estimatedSize);
+    }
+
+    @Override
+    public Optional<Account> authenticate(String bearerToken) throws AuthenticationException {
+        Account account = cache.getIfPresent(bearerToken);
+        if (account != null) {
+            return Optional.of(account);
+        }
+
+        Optional<Account> authenticated = authenticator.authenticate(bearerToken);
+        authenticated.ifPresent(authenticatedAccount -> cache.put(bearerToken, authenticatedAccount));
+        return authenticated;
+    }
+}
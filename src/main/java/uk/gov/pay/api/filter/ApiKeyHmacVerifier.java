@@ -0,0 +1,86 @@
+package uk.gov.pay.api.filter;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Checks that an API key ends with the lowercase, unpadded base32hex HMAC-SHA1 of the rest of the key.
+ * <p>
+ * Every thread keeps its own keyed {@link Mac} and digest buffer, and the expected checksum is compared with the
+ * end of the API key one character at a time rather than being encoded into a String, so checking a key only
+ * allocates the bytes of the key itself.
+ */
+class ApiKeyHmacVerifier {
+
+    static final int HMAC_SHA1_BASE32_LENGTH = 32;
+
+    private static final String HMAC_SHA1 = "HmacSHA1";
+    private static final int HMAC_SHA1_LENGTH = 20;
+    private static final char[] BASE32_HEX_LOWER_CASE = "0123456789abcdefghijklmnopqrstuv".toCharArray();
+
+    private final ThreadLocal<ThreadHmac> threadHmac;
+
+    ApiKeyHmacVerifier(String apiKeyHmacSecret) {
+        this.threadHmac = ThreadLocal.withInitial(() -> new ThreadHmac(apiKeyHmacSecret));
+    }
+
+    boolean isValid(String apiKey) {
+        if (apiKey.length() < HMAC_SHA1_BASE32_LENGTH + 1) {
+            return false;
+        }
+
+        // If the checksum part contains anything other than ASCII the comparison below fails, so the token
+        // is always the bytes in front of the last 32 when it matters
+        byte[] apiKeyBytes = apiKey.getBytes(StandardCharsets.UTF_8);
+        byte[] hmac = threadHmac.get().hmac(apiKeyBytes, apiKeyBytes.length - HMAC_SHA1_BASE32_LENGTH);
+
+        return matchesBase32Hex(hmac, apiKey, apiKey.length() - HMAC_SHA1_BASE32_LENGTH);
+    }
+
+    /**
+     * Compares every character so that the time taken does not depend on how much of the checksum is right.
+     */
+    private static boolean matchesBase32Hex(byte[] hmac, String apiKey, int offset) {
+        int difference = 0;
+        int bits = 0;
+        int bitCount = 0;
+        int index = offset;
+        for (byte b : hmac) {
+            bits = (bits << 8) | (b & 0xFF);
+            bitCount += 8;
+            while (bitCount >= 5) {
+                bitCount -= 5;
+                difference |= BASE32_HEX_LOWER_CASE[(bits >>> bitCount) & 0x1F] ^ apiKey.charAt(index++);
+            }
+        }
+        return difference == 0;
+    }
+
+    private static class ThreadHmac {
+
+        private final Mac mac;
+        private final byte[] digest = new byte[HMAC_SHA1_LENGTH];
+
+        private ThreadHmac(String apiKeyHmacSecret) {
+            try {
+                mac = Mac.getInstance(HMAC_SHA1);
+                mac.init(new SecretKeySpec(apiKeyHmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA1));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not initialise " + HMAC_SHA1, e);
+            }
+        }
+
+        private byte[] hmac(byte[] input, int length) {
+            mac.update(input, 0, length);
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            return digest;
+        }
+    }
+}
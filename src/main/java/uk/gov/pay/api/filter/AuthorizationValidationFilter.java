@@ -1,8 +1,5 @@
 package uk.gov.pay.api.filter;
 
-import com.google.common.io.BaseEncoding;
-import org.apache.commons.codec.digest.HmacAlgorithms;
-import org.apache.commons.codec.digest.HmacUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
@@ -17,8 +14,6 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -30,18 +25,17 @@ public class AuthorizationValidationFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorizationValidationFilter.class);
 
-    private static final int HMAC_SHA1_LENGTH = 32;
     private static final String BEARER_PREFIX = "Bearer ";
     
     private static final String[] EXCLUDED_URLS = {
             "/v1/auth"
     };
     
-    private String apiKeyHmacSecret;
+    private final ApiKeyHmacVerifier apiKeyHmacVerifier;
 
     @Inject
     public AuthorizationValidationFilter(PublicApiConfig configuration) {
-        this.apiKeyHmacSecret = configuration.getApiKeyHmacSecret();
+        this.apiKeyHmacVerifier = new ApiKeyHmacVerifier(configuration.getApiKeyHmacSecret());
     }
 
     @Override
@@ -79,14 +73,8 @@ public class AuthorizationValidationFilter implements Filter {
                 && isValidTokenIntegrity(authorization.substring(BEARER_PREFIX.length()), clientAddress);
     }
 
-    private boolean isValidTokenIntegrity(String apiKey, String clientAddress) {
-        boolean isValid = false;
-        if (apiKey.length() >= HMAC_SHA1_LENGTH + 1) {
-            int initHmacIndex = apiKey.length() - HMAC_SHA1_LENGTH;
-            String hmacFromApiKey = apiKey.substring(initHmacIndex);
-            String tokenFromApiKey = apiKey.substring(0, initHmacIndex);
-            isValid = tokenMatchesHmac(tokenFromApiKey, hmacFromApiKey);
-        }
+    boolean isValidTokenIntegrity(String apiKey, String clientAddress) {
+        boolean isValid = apiKeyHmacVerifier.isValid(apiKey);
 
         if (!isValid) {
             logger.warn("Attempt to authenticate using an API key with an invalid checksum",
@@ -95,11 +83,4 @@ public class AuthorizationValidationFilter implements Filter {
 
         return isValid;
     }
-
-    private boolean tokenMatchesHmac(String token, String currentHmac) {
-        final String hmacCalculatedFromToken = BaseEncoding.base32Hex()
-                .lowerCase().omitPadding()
-                .encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, apiKeyHmacSecret).hmac(token));
-        return MessageDigest.isEqual(hmacCalculatedFromToken.getBytes(StandardCharsets.UTF_8), currentHmac.getBytes(StandardCharsets.UTF_8));
-    }
 }
@@ -0,0 +1,88 @@
+package uk.gov.pay.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.ext.Provider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Adds a strong ETag, a hash of the JSON body, to successful responses from {@link ETagged} resource methods and
+ * replaces the body with 304 Not Modified when the request's If-None-Match already has that ETag, so that services
+ * polling a payment, refund or agreement only download it again when it has changed.
+ * <p>
+ * The entity is serialised here, hashing the bytes as they are written, and the bytes become the response entity,
+ * so it is still only serialised once.
+ */
+@Provider
+@ETagged
+@Priority(Priorities.ENTITY_CODER)
+public class ETagFilter implements ContainerResponseFilter {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final String WEAK_PREFIX = "W/";
+
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public ETagFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        if (!HttpMethod.GET.equals(requestContext.getMethod())
+                || responseContext.getStatus() != Status.OK.getStatusCode()
+                || !responseContext.hasEntity()) {
+            return;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HashingOutputStream hashingBody = new HashingOutputStream(HASH_FUNCTION, body);
+        objectMapper.writeValue(hashingBody, responseContext.getEntity());
+        String eTag = '"' + hashingBody.hash().toString() + '"';
+
+        responseContext.getHeaders().putSingle(HttpHeaders.ETAG, eTag);
+        if (matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            responseContext.setStatus(Status.NOT_MODIFIED.getStatusCode());
+            responseContext.setEntity(null);
+            responseContext.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        } else {
+            responseContext.setEntity(body.toByteArray());
+        }
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so a W/ prefix on a tag the client sends back is ignored.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -68,6 +68,9 @@ public class RateLimiterFilter implements ContainerRequestFilter {
 
         String accountId = getAccountId(requestContext);
         RateLimiterKey key = RateLimiterKey.from(requestContext, accountId);
+        if (key.isCheckedByResource()) {
+            return;
+        }
         try {
             rateLimiter.checkRateOf(accountId, key);
         } catch (RateLimitException e) {
@@ -2,6 +2,7 @@ package uk.gov.pay.api.filter;
 
 import uk.gov.pay.api.utils.PathHelper;
 
+import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.container.ContainerRequestContext;
 
 public class RateLimiterKey {
@@ -22,6 +23,12 @@ public class RateLimiterKey {
         StringBuilder builder = new StringBuilder(method);
 
         final String pathType = PathHelper.getPathType(requestContext.getUriInfo().getPath(), method);
+        if (PathHelper.BATCH_GET_PAYMENTS.equals(pathType)) {
+            return forBatchGetPayments(accountId);
+        }
+        if (PathHelper.BULK_REFUNDS.equals(pathType)) {
+            return forBulkRefunds(accountId);
+        }
         if (!pathType.isBlank()) {
             builder.append("-").append(pathType);
         }
@@ -32,6 +39,35 @@ public class RateLimiterKey {
         return new RateLimiterKey(builder.toString(), keyType, method);
     }
 
+    /**
+     * The key for a batch get of payments, which shares the limit for GET requests so that getting payments in a
+     * batch allows no more than getting them one at a time. The batch is charged one request per payment in it, by
+     * the resource rather than the filter.
+     */
+    public static RateLimiterKey forBatchGetPayments(String accountId) {
+        return new RateLimiterKey(HttpMethod.GET + "-" + accountId, HttpMethod.POST + "-" + PathHelper.BATCH_GET_PAYMENTS,
+                HttpMethod.POST);
+    }
+
+    /**
+     * The key for a bulk refund, which shares the limit for POST requests such as refunding a single payment, so
+     * that refunding payments in bulk allows no more than refunding them one at a time. The bulk refund is charged
+     * one request per refund in it, by the resource rather than the filter.
+     */
+    public static RateLimiterKey forBulkRefunds(String accountId) {
+        return new RateLimiterKey(HttpMethod.POST + "-" + accountId, HttpMethod.POST + "-" + PathHelper.BULK_REFUNDS,
+                HttpMethod.POST);
+    }
+
+    /**
+     * Whether the resource checks the rate of the request itself, once it knows how many requests' worth of work
+     * the request does, rather than the filter counting it as one. Charging the whole cost in one check means one
+     * round trip to redis and no request that is counted in part before being turned away.
+     */
+    public boolean isCheckedByResource() {
+        return keyType.endsWith(PathHelper.BATCH_GET_PAYMENTS) || keyType.endsWith(PathHelper.BULK_REFUNDS);
+    }
+
     public String getKey() {
         return key;
     }
@@ -43,4 +79,12 @@ public class RateLimiterKey {
     public String getMethod() {
         return method;
     }
+
+    /**
+     * Whether the request counts against the limits for POST requests. Batch gets of payments are POSTs so that
+     * they can have a body, but only read payments, so they count against the limits for GET requests instead.
+     */
+    public boolean isLimitedAsPost() {
+        return HttpMethod.POST.equals(method) && !keyType.endsWith(PathHelper.BATCH_GET_PAYMENTS);
+    }
 }
@@ -0,0 +1,55 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts requests in a window of perMillis starting from the first request after the previous window ended.
+ * <p>
+ * The start of the window (epoch millis) and the count are packed into one long:
+ * [ window start : 44 bits | count : 20 bits ]
+ */
+final class FixedWindowRateLimit extends RateLimit {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLong state;
+
+    FixedWindowRateLimit(int noOfReq, int perMillis) {
+        super(noOfReq, perMillis);
+        this.state = new AtomicLong(System.currentTimeMillis() << COUNT_BITS);
+    }
+
+    @Override
+    void updateAllowance(int cost) throws RateLimitException {
+        long weight = Math.max(1, Math.min(cost, noOfReq));
+        long now = System.currentTimeMillis();
+        while (true) {
+            long current = state.get();
+            long windowStart = current >>> COUNT_BITS;
+            long count = current & COUNT_MASK;
+
+            long next;
+            if (now - windowStart >= perMillis) {
+                next = (now << COUNT_BITS) | weight;
+            } else if (count > noOfReq) {
+                // already over the limit in this window, so there is nothing to record
+                throw new RateLimitException();
+            } else {
+                next = current + weight;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                if ((next & COUNT_MASK) > noOfReq) {
+                    throw new RateLimitException();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int getRequestCount() {
+        return (int) (state.get() & COUNT_MASK);
+    }
+}
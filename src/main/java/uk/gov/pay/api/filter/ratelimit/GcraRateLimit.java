@@ -0,0 +1,47 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm. Each allowed request moves the theoretical arrival time (TAT) on by
+ * perMillis / noOfReq. A request is allowed while the TAT it would produce is no more than noOfReq
+ * emission intervals ahead of now, which permits a burst of noOfReq and then spaces requests out evenly.
+ * <p>
+ * The TAT (epoch micros) is the only state, so it is held in a single long.
+ */
+final class GcraRateLimit extends RateLimit {
+
+    private final long emissionIntervalInMicros;
+    private final AtomicLong theoreticalArrivalTimeInMicros = new AtomicLong();
+
+    GcraRateLimit(int noOfReq, int perMillis) {
+        super(noOfReq, perMillis);
+        this.emissionIntervalInMicros = Math.max(1L, perMillis * 1000L / noOfReq);
+    }
+
+    @Override
+    void updateAllowance(int cost) throws RateLimitException {
+        long increment = emissionIntervalInMicros * Math.max(1, Math.min(cost, noOfReq));
+        long now = System.currentTimeMillis() * 1000L;
+        while (true) {
+            long current = theoreticalArrivalTimeInMicros.get();
+            long next = Math.max(current, now) + increment;
+            if (countFor(next, now) > noOfReq) {
+                throw new RateLimitException();
+            }
+            if (theoreticalArrivalTimeInMicros.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int getRequestCount() {
+        long now = System.currentTimeMillis() * 1000L;
+        return (int) countFor(Math.max(theoreticalArrivalTimeInMicros.get(), now) + emissionIntervalInMicros, now);
+    }
+
+    private long countFor(long theoreticalArrivalTime, long now) {
+        return Math.ceilDiv(theoreticalArrivalTime - now, emissionIntervalInMicros);
+    }
+}
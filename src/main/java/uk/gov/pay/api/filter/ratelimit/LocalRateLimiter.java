@@ -1,7 +1,9 @@
 package uk.gov.pay.api.filter.ratelimit;
 
+import com.codahale.metrics.Counter;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.RateLimiterConfig;
@@ -9,7 +11,6 @@ import uk.gov.pay.api.filter.RateLimiterKey;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
-import jakarta.ws.rs.HttpMethod;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -21,25 +22,38 @@ public class LocalRateLimiter {
     private final int noOfReqPerNode;
     private final int noOfReqForPostPerNode;
     private final int perMillis;
+    private final RateLimitAlgorithm algorithm;
+    private final Counter rejectedCounter;
 
     private final Cache<String, RateLimit> cache;
 
     @Inject
-    public LocalRateLimiter(RateLimiterConfig rateLimiterConfig) {
+    public LocalRateLimiter(RateLimiterConfig rateLimiterConfig, Environment environment) {
         this.noOfReqPerNode = rateLimiterConfig.getNoOfReqPerNode();
         this.noOfReqForPostPerNode = rateLimiterConfig.getNoOfReqForPostPerNode();
         this.perMillis = rateLimiterConfig.getPerMillis();
+        this.algorithm = rateLimiterConfig.getAlgorithm();
+        this.rejectedCounter = environment.metrics().counter("rate_limit.local." + algorithm.getMetricName() + ".rejected");
+        // the sliding window algorithm needs the count for the previous window as well as the current one
         this.cache = CacheBuilder.newBuilder()
-                .expireAfterAccess(perMillis, TimeUnit.MILLISECONDS)
+                .expireAfterAccess(2L * perMillis, TimeUnit.MILLISECONDS)
                 .build();
     }
 
     void checkRateOf(String accountId, RateLimiterKey rateLimiterKey) throws RateLimitException {
+        checkRateOf(accountId, rateLimiterKey, 1);
+    }
+
+    void checkRateOf(String accountId, RateLimiterKey rateLimiterKey, int cost) throws RateLimitException {
 
         RateLimit rateLimit = null;
         try {
-            rateLimit = cache.get(rateLimiterKey.getKey(), () -> new RateLimit(getNoOfRequestsForMethod(rateLimiterKey.getMethod()), perMillis));
-            rateLimit.updateAllowance();
+            // look up without a value loader first so the usual case of an existing RateLimit does not allocate
+            rateLimit = cache.getIfPresent(rateLimiterKey.getKey());
+            if (rateLimit == null) {
+                rateLimit = cache.get(rateLimiterKey.getKey(), () -> RateLimit.of(algorithm, getNoOfRequests(rateLimiterKey), perMillis));
+            }
+            rateLimit.updateAllowance(cost);
         } catch (ExecutionException e) {
             //ExecutionException is thrown when the valueLoader (cache.get())  throws a checked exception.
             //We just create a new instance (RateLimit) so no exceptions will be thrown, this should never happen.
@@ -50,13 +64,14 @@ public class LocalRateLimiter {
                     rateLimiterKey.getMethod(),
                     rateLimit.getRequestCount(),
                     rateLimit.getNoOfReq()));
+            rejectedCounter.inc();
 
             throw e;
         }
     }
 
-    private int getNoOfRequestsForMethod(String method) {
-        if (HttpMethod.POST.equals(method)) {
+    private int getNoOfRequests(RateLimiterKey rateLimiterKey) {
+        if (rateLimiterKey.isLimitedAsPost()) {
             return noOfReqForPostPerNode;
         }
         return noOfReqPerNode;
@@ -1,48 +1,47 @@
 package uk.gov.pay.api.filter.ratelimit;
 
-import java.time.Duration;
-import java.time.Instant;
+/**
+ * The state of a rate limit for one source (Service). Each RateLimit object will be shared between requests
+ * from the same source, so is not shared across all the requests, but may be updated concurrently by many
+ * request threads. Implementations are lock-free: state is packed into a single long and updated by
+ * compare-and-set, and checking a request does not allocate unless it is rejected.
+ */
+abstract class RateLimit {
 
-import static java.time.temporal.ChronoUnit.MILLIS;
-
-final class RateLimit {
-
-    private final int noOfReq;
-    private final int perMillis;
-
-    private Instant created;
-    private int requestCount;
+    protected final int noOfReq;
+    protected final int perMillis;
 
     RateLimit(int noOfReq, int perMillis) {
         this.noOfReq = noOfReq;
         this.perMillis = perMillis;
-        this.requestCount = 0;
-        this.created = Instant.now().truncatedTo(MILLIS);
+    }
+
+    static RateLimit of(RateLimitAlgorithm algorithm, int noOfReq, int perMillis) {
+        return switch (algorithm) {
+            case FIXED_WINDOW -> new FixedWindowRateLimit(noOfReq, perMillis);
+            case SLIDING_WINDOW -> new SlidingWindowRateLimit(noOfReq, perMillis);
+            case GCRA -> new GcraRateLimit(noOfReq, perMillis);
+        };
     }
 
     /**
-     * This block needs to be synchronous. Each RateLimit object will be shared between requests
-     * from the same source (Service), so is not shared across all the requests.
-     *
      * @throws RateLimitException
      */
-    synchronized void updateAllowance() throws RateLimitException {
-        requestCount += 1;
-        Instant now = Instant.now().truncatedTo(MILLIS);
-        if (Duration.between(created, now).toMillis() >= perMillis) {
-            requestCount = 1;
-            created = now;
-        }
-        if (requestCount > noOfReq) {
-            throw new RateLimitException();
-        }
+    void updateAllowance() throws RateLimitException {
+        updateAllowance(1);
     }
 
+    /**
+     * Counts a request that costs as much as cost single requests, such as a batch. A cost above the limit is
+     * counted as the whole limit, so that the request is still allowed once nothing else has been counted.
+     *
+     * @throws RateLimitException
+     */
+    abstract void updateAllowance(int cost) throws RateLimitException;
+
     public int getNoOfReq() {
         return noOfReq;
     }
 
-    public int getRequestCount() {
-        return requestCount;
-    }
+    public abstract int getRequestCount();
 }
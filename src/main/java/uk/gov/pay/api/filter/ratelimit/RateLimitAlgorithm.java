@@ -0,0 +1,22 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * Algorithm used to decide whether a request is within the rate limit.
+ * <p>
+ * - FIXED_WINDOW : counts requests in fixed windows of perMillis. Allows bursts of up to twice the limit around window boundaries.
+ * - SLIDING_WINDOW : weights the count of the previous window by how much of it still overlaps a window ending now,
+ *                    which approximates a true sliding window without keeping a log of requests.
+ * - GCRA : generic cell rate algorithm (equivalent to a token bucket). Requests are spaced perMillis / noOfReq apart,
+ *          with a burst of up to noOfReq allowed, so load is smoothed rather than reset at window edges.
+ */
+public enum RateLimitAlgorithm {
+    FIXED_WINDOW,
+    SLIDING_WINDOW,
+    GCRA;
+
+    public String getMetricName() {
+        return name().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -1,4 +1,12 @@
 package uk.gov.pay.api.filter.ratelimit;
 
 public class RateLimitException extends Exception {
+
+    /**
+     * Rate limit exceptions are expected, control flow exceptions which can be thrown for a large number of
+     * requests when a client goes over its limit, so they are created without the cost of a stack trace.
+     */
+    public RateLimitException() {
+        super(null, null, false, false);
+    }
 }
@@ -0,0 +1,41 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests leased from redis for one rate limit window, which this node can allow without going back to redis.
+ */
+final class RateLimitLease {
+
+    private final String window;
+    private final AtomicInteger remaining;
+
+    RateLimitLease(String window, int remaining) {
+        this.window = window;
+        this.remaining = new AtomicInteger(remaining);
+    }
+
+    boolean isFor(String window) {
+        return this.window.equals(window);
+    }
+
+    boolean tryTake() {
+        return tryTake(1);
+    }
+
+    boolean tryTake(int requests) {
+        int current;
+        do {
+            current = remaining.get();
+            if (current < requests) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - requests));
+        return true;
+    }
+
+    RateLimitLease add(int requests) {
+        remaining.addAndGet(requests);
+        return this;
+    }
+}
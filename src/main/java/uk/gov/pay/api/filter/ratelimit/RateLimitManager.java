@@ -3,8 +3,6 @@ package uk.gov.pay.api.filter.ratelimit;
 import uk.gov.pay.api.app.config.RateLimiterConfig;
 import uk.gov.pay.api.filter.RateLimiterKey;
 
-import jakarta.ws.rs.HttpMethod;
-
 public class RateLimitManager {
 
     private RateLimiterConfig configuration;
@@ -13,9 +11,13 @@ public class RateLimitManager {
         configuration = config;
     }
 
+    public boolean isElevatedAccount(String account) {
+        return configuration.getElevatedAccounts().contains(account);
+    }
+
     public int getAllowedNumberOfRequests(RateLimiterKey rateLimiterKey, String account) {
-        if (configuration.getElevatedAccounts().contains(account)) {
-            if (HttpMethod.POST.equals(rateLimiterKey.getMethod())) {
+        if (isElevatedAccount(account)) {
+            if (rateLimiterKey.isLimitedAsPost()) {
                 return configuration.getNoOfPostReqForElevatedAccounts();
             }
 
@@ -23,13 +25,13 @@ public class RateLimitManager {
         }
 
         if (configuration.getLowTrafficAccounts().contains(account)) {
-            if (HttpMethod.POST.equals(rateLimiterKey.getMethod())) {
+            if (rateLimiterKey.isLimitedAsPost()) {
                 return configuration.getNoOfPostReqForLowTrafficAccounts();
             }
             return configuration.getNoOfReqForLowTrafficAccounts();
         }
 
-        if (HttpMethod.POST.equals(rateLimiterKey.getMethod())) {
+        if (rateLimiterKey.isLimitedAsPost()) {
             return configuration.getNoOfReqForPost();
         }
 
@@ -29,4 +29,17 @@ public class RateLimiter {
             localRateLimiter.checkRateOf(accountId, key);
         }
     }
+
+    /**
+     * As {@link #checkRateOf(String, RateLimiterKey)}, for a request that counts as cost requests against the limit,
+     * such as a batch that does the work of one request per item in it.
+     */
+    public void checkRateOf(String accountId, RateLimiterKey key, int cost) throws RateLimitException {
+        try {
+            redisRateLimiter.checkRateOf(accountId, key, cost);
+        } catch (RedisException e) {
+            LOGGER.warn("Exception occurred checking rate limits using RedisRateLimiter, falling back to LocalRateLimiter");
+            localRateLimiter.checkRateOf(accountId, key, cost);
+        }
+    }
 }
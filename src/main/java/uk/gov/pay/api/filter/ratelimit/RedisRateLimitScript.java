@@ -0,0 +1,133 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Lua script evaluated atomically on redis for a {@link RateLimitAlgorithm}. Each algorithm script returns the number of
+ * requests counted against the limit, including the current one. The last argument to an algorithm script is the
+ * cost of the request, for a request that counts as more than one such as a batch; it is left out for a single
+ * request, which costs one.
+ * <p>
+ * The script is called asynchronously by its SHA, which is loaded on first use and loaded again if redis no longer has it.
+ */
+final class RedisRateLimitScript {
+
+    /**
+     * KEYS[1] : key for the current window
+     * ARGV[1] : expiry in milliseconds
+     * ARGV[2] : cost of the request, if more than one
+     */
+    private static final String FIXED_WINDOW_SCRIPT =
+            "local cost = tonumber(ARGV[2]) or 1 " +
+            "local count = redis.call('INCRBY', KEYS[1], cost) " +
+            "if count == cost then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "return count";
+
+    /**
+     * KEYS[1] : key for the current window
+     * KEYS[2] : key for the previous window
+     * ARGV[1] : expiry in milliseconds (two windows, so the count is available while it is the previous window)
+     * ARGV[2] : milliseconds of the previous window that still overlap a window ending now
+     * ARGV[3] : window length in milliseconds
+     * ARGV[4] : cost of the request, if more than one
+     */
+    private static final String SLIDING_WINDOW_SCRIPT =
+            "local cost = tonumber(ARGV[4]) or 1 " +
+            "local count = redis.call('INCRBY', KEYS[1], cost) " +
+            "if count == cost then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "local previous = tonumber(redis.call('GET', KEYS[2])) or 0 " +
+            "return count + math.floor(previous * tonumber(ARGV[2]) / tonumber(ARGV[3]))";
+
+    /**
+     * KEYS[1] : key holding the theoretical arrival time in microseconds
+     * ARGV[1] : now in microseconds
+     * ARGV[2] : emission interval in microseconds (window length / number of requests allowed)
+     * ARGV[3] : number of requests allowed
+     * ARGV[4] : cost of the request, if more than one
+     * <p>
+     * The theoretical arrival time is only moved on when the request is allowed.
+     */
+    private static final String GCRA_SCRIPT =
+            "local now = tonumber(ARGV[1]) " +
+            "local emissionInterval = tonumber(ARGV[2]) " +
+            "local cost = tonumber(ARGV[4]) or 1 " +
+            "local tat = tonumber(redis.call('GET', KEYS[1])) " +
+            "if not tat or tat < now then tat = now end " +
+            "local newTat = tat + emissionInterval * cost " +
+            "local count = math.ceil((newTat - now) / emissionInterval) " +
+            "if count <= tonumber(ARGV[3]) then " +
+            "  redis.call('SET', KEYS[1], newTat, 'PX', math.ceil((newTat - now) / 1000)) " +
+            "end " +
+            "return count";
+
+    /**
+     * KEYS[1] : key for the current window
+     * ARGV[1] : expiry in milliseconds
+     * ARGV[2] : number of requests the caller would like to lease
+     * ARGV[3] : number of requests allowed
+     * <p>
+     * Returns how many requests were leased, which is never more than is left in the window,
+     * so the total leased across all nodes never exceeds the limit.
+     */
+    private static final String FIXED_WINDOW_LEASE_SCRIPT =
+            "local count = tonumber(redis.call('GET', KEYS[1])) or 0 " +
+            "local leased = math.min(tonumber(ARGV[2]), tonumber(ARGV[3]) - count) " +
+            "if leased <= 0 then return 0 end " +
+            "if redis.call('INCRBY', KEYS[1], leased) == leased then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "return leased";
+
+    private final String source;
+    private volatile String sha;
+
+    private RedisRateLimitScript(String source) {
+        this.source = source;
+    }
+
+    static RedisRateLimitScript forAlgorithm(RateLimitAlgorithm algorithm) {
+        return switch (algorithm) {
+            case FIXED_WINDOW -> new RedisRateLimitScript(FIXED_WINDOW_SCRIPT);
+            case SLIDING_WINDOW -> new RedisRateLimitScript(SLIDING_WINDOW_SCRIPT);
+            case GCRA -> new RedisRateLimitScript(GCRA_SCRIPT);
+        };
+    }
+
+    static RedisRateLimitScript forFixedWindowLease() {
+        return new RedisRateLimitScript(FIXED_WINDOW_LEASE_SCRIPT);
+    }
+
+    CompletableFuture<Long> evaluate(RedisAsyncCommands<String, String> commands, String[] keys, String... args) {
+        return getSha(commands)
+                .thenCompose(scriptSha -> commands.<Long>evalsha(scriptSha, ScriptOutputType.INTEGER, keys, args))
+                .exceptionallyCompose(e -> {
+                    if (unwrap(e) instanceof RedisNoScriptException) {
+                        // redis has lost its script cache (e.g. after a restart or failover) so the script needs loading again
+                        return loadScript(commands)
+                                .thenCompose(scriptSha -> commands.<Long>evalsha(scriptSha, ScriptOutputType.INTEGER, keys, args));
+                    }
+                    return CompletableFuture.failedFuture(e);
+                })
+                .toCompletableFuture();
+    }
+
+    private CompletionStage<String> getSha(RedisAsyncCommands<String, String> commands) {
+        String scriptSha = sha;
+        if (scriptSha == null) {
+            return loadScript(commands);
+        }
+        return CompletableFuture.completedFuture(scriptSha);
+    }
+
+    private CompletionStage<String> loadScript(RedisAsyncCommands<String, String> commands) {
+        return commands.scriptLoad(source).thenApply(scriptSha -> sha = scriptSha);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
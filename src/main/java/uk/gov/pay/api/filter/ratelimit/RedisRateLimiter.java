@@ -1,6 +1,10 @@
 package uk.gov.pay.api.filter.ratelimit;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.Inject;
 import com.google.inject.OutOfScopeException;
 import io.dropwizard.core.setup.Environment;
@@ -13,12 +17,31 @@ import uk.gov.pay.api.managed.RedisClientManager;
 import jakarta.inject.Singleton;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoField;
-import java.util.concurrent.Callable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Singleton
 public class RedisRateLimiter {
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisRateLimiter.class);
-    private final MetricRegistry metricsRegistry;
+
+    private final RateLimitAlgorithm algorithm;
+    private final RedisRateLimitScript script;
+    private final RedisRateLimitScript leaseScript;
+    private final int leaseSize;
+    private final Cache<String, RateLimitLease> leases;
+    private final int redisTimeoutInMillis;
+    private final Semaphore redisCallsInFlight;
+    private final Timer scriptTimer;
+    private final Timer leaseScriptTimer;
+    private final Counter rejectedCounter;
+    private final Counter servedFromLeaseCounter;
+    private final Counter timedOutCounter;
+    private final Counter inFlightLimitReachedCounter;
 
     private RateLimitManager rateLimitManager;
     private RedisClientManager redisClientManager;
@@ -27,57 +50,208 @@ public class RedisRateLimiter {
     public RedisRateLimiter(RateLimiterConfig rateLimiterConfig, RedisClientManager redisClientManager, Environment environment) {
         this.rateLimitManager = new RateLimitManager(rateLimiterConfig);
         this.redisClientManager = redisClientManager;
-        this.metricsRegistry = environment.metrics();
+        this.algorithm = rateLimiterConfig.getAlgorithm();
+        this.script = RedisRateLimitScript.forAlgorithm(algorithm);
+        this.leaseScript = RedisRateLimitScript.forFixedWindowLease();
+        this.leaseSize = rateLimiterConfig.getLeaseSizeForElevatedAccounts();
+        this.leases = CacheBuilder.newBuilder()
+                .expireAfterAccess(2L * rateLimiterConfig.getPerMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.redisTimeoutInMillis = rateLimiterConfig.getRedisTimeoutInMillis();
+        this.redisCallsInFlight = new Semaphore(rateLimiterConfig.getMaxRedisCallsInFlight());
+
+        MetricRegistry metricsRegistry = environment.metrics();
+        this.scriptTimer = metricsRegistry.timer("redis.rate_limit." + algorithm.getMetricName());
+        this.leaseScriptTimer = metricsRegistry.timer("redis.rate_limit.lease");
+        this.rejectedCounter = metricsRegistry.counter("rate_limit.redis." + algorithm.getMetricName() + ".rejected");
+        this.servedFromLeaseCounter = metricsRegistry.counter("rate_limit.redis.served_from_lease");
+        this.timedOutCounter = metricsRegistry.counter("rate_limit.redis.timed_out");
+        this.inFlightLimitReachedCounter = metricsRegistry.counter("rate_limit.redis.in_flight_limit_reached");
     }
 
     void checkRateOf(String accountId, RateLimiterKey key)
             throws RedisException, RateLimitException {
+        checkRateOf(accountId, key, 1);
+    }
+
+    /**
+     * @param cost how many requests this one counts as; more than the limit counts as the whole limit
+     */
+    void checkRateOf(String accountId, RateLimiterKey key, int cost)
+            throws RedisException, RateLimitException {
 
         Long count;
 
         int rateLimitInterval = rateLimitManager.getRateLimitInterval(accountId);
-        count = updateAllowance(key.getKey(), rateLimitInterval);
-
-        if (count != null) {
-            int allowedNumberOfRequests = rateLimitManager.getAllowedNumberOfRequests(key, accountId);
-            if (count > allowedNumberOfRequests) {
-                LOGGER.info(String.format("RedisRateLimiter - Rate limit exceeded for account [%s] and method [%s] - count: %d, rate allowed: %d",
-                        accountId, key.getKeyType(), count, allowedNumberOfRequests));
-                throw new RateLimitException();
+        int allowedNumberOfRequests = rateLimitManager.getAllowedNumberOfRequests(key, accountId);
+        int weight = Math.max(1, Math.min(cost, allowedNumberOfRequests));
+
+        if (shouldLease(accountId)) {
+            checkRateUsingLease(accountId, key, rateLimitInterval, allowedNumberOfRequests, weight);
+            return;
+        }
+
+        count = updateAllowance(key.getKey(), rateLimitInterval, allowedNumberOfRequests, weight);
+
+        if (count != null && count > allowedNumberOfRequests) {
+            LOGGER.info(String.format("RedisRateLimiter - Rate limit exceeded for account [%s] and method [%s] - count: %d, rate allowed: %d",
+                    accountId, key.getKeyType(), count, allowedNumberOfRequests));
+            rejectedCounter.inc();
+            throw new RateLimitException();
+        }
+    }
+
+    /**
+     * Leasing only applies to elevated accounts, whose limits are high enough that leasing a block of requests
+     * on each node does not noticeably reduce what the account can use across all nodes.
+     */
+    private boolean shouldLease(String accountId) {
+        return leaseSize > 1 && algorithm == RateLimitAlgorithm.FIXED_WINDOW && rateLimitManager.isElevatedAccount(accountId);
+    }
+
+    /**
+     * Allows the request from this node's lease for the current window if it has any requests left, otherwise
+     * leases up to leaseSize more requests from redis. Redis never leases more than is left in the window, so
+     * the limit across all nodes is never exceeded. The cost is that up to leaseSize - 1 requests leased by each
+     * node may go unused in a window, which another node could otherwise have allowed.
+     * <p>
+     * Leases are not handed back at the end of a window: the redis key for the window expires with it and
+     * the next window starts from zero, so unused requests from a past window have nothing to return to.
+     */
+    private void checkRateUsingLease(String accountId, RateLimiterKey key, int rateLimitInterval, int allowedNumberOfRequests,
+                                     int cost) throws RedisException, RateLimitException {
+
+        String window = getKeyForWindow(key.getKey(), rateLimitInterval);
+
+        RateLimitLease lease = leases.getIfPresent(key.getKey());
+        if (lease != null && lease.isFor(window) && lease.tryTake(cost)) {
+            servedFromLeaseCounter.inc();
+            return;
+        }
+
+        Long leased = callRedis(window, leaseScriptTimer, () -> leaseScript.evaluate(redisClientManager.getRedisConnection().async(),
+                new String[]{window},
+                String.valueOf(rateLimitInterval),
+                String.valueOf(Math.max(leaseSize, cost)),
+                String.valueOf(allowedNumberOfRequests)));
+
+        int leasedRequests = leased == null ? 0 : leased.intValue();
+        if (leasedRequests < cost) {
+            // too few for this request, but they are counted in redis already so keep them for smaller requests
+            if (leasedRequests > 0) {
+                keepLeased(key.getKey(), window, leasedRequests);
             }
+            LOGGER.info(String.format("RedisRateLimiter - Rate limit exceeded for account [%s] and method [%s] - no requests left to lease, rate allowed: %d",
+                    accountId, key.getKeyType(), allowedNumberOfRequests));
+            rejectedCounter.inc();
+            throw new RateLimitException();
         }
+
+        // this request uses cost of the leased requests; keep the rest for the window
+        keepLeased(key.getKey(), window, leasedRequests - cost);
+    }
+
+    private void keepLeased(String key, String window, int requests) {
+        leases.asMap().compute(key, (k, existing) ->
+                existing != null && existing.isFor(window) ? existing.add(requests) : new RateLimitLease(window, requests));
     }
 
     /**
      * @param key the {@link RateLimiterKey#getKey()} key
      * @param rateLimitInterval in milliseconds
-     * @return the count so far within the rateLimitInterval
+     * @param allowedNumberOfRequests within the rateLimitInterval
+     * @return the count so far within the rateLimitInterval, as measured by the configured {@link RateLimitAlgorithm}
      * @throws RedisException
      */
-    private Long updateAllowance(String key, int rateLimitInterval) throws RedisException {
-        String derivedKey = getKeyForWindow(key, rateLimitInterval);
-        
-        Long count = 0L;
+    private Long updateAllowance(String key, int rateLimitInterval, int allowedNumberOfRequests, int cost) throws RedisException {
+        return callRedis(key, scriptTimer, () -> switch (algorithm) {
+            case FIXED_WINDOW -> incrementFixedWindow(key, rateLimitInterval, cost);
+            case SLIDING_WINDOW -> incrementSlidingWindow(key, rateLimitInterval, cost);
+            case GCRA -> updateTheoreticalArrivalTime(key, rateLimitInterval, allowedNumberOfRequests, cost);
+        });
+    }
+
+    /**
+     * Sends a rate limit script to redis without blocking on the connection, then waits at most
+     * redisTimeoutInMillis for the result. If more than maxRedisCallsInFlight calls are already waiting on redis,
+     * this fails straight away rather than tying up another request thread, so the caller can fall back to the
+     * {@link LocalRateLimiter}.
+     */
+    private Long callRedis(String key, Timer timer, Supplier<CompletableFuture<Long>> scriptCall) throws RedisException {
+        if (!redisCallsInFlight.tryAcquire()) {
+            LOGGER.info(String.format("Too many calls to redis in flight to update rate limit for redis key %s", key));
+            inFlightLimitReachedCounter.inc();
+            throw new RedisException();
+        }
+
+        CompletableFuture<Long> result;
         try {
-            count = time("redis.incr", () -> redisClientManager.getRedisConnection().sync().incr(derivedKey));
+            Timer.Context timerContext = timer.time();
+            result = scriptCall.get();
+            result.whenComplete((value, e) -> {
+                timerContext.stop();
+                redisCallsInFlight.release();
+            });
         } catch (Exception e) {
-            LOGGER.info(String.format("Failed to increment redis key %s. Cause of error: %s", derivedKey, e));
+            redisCallsInFlight.release();
+            LOGGER.info(String.format("Failed to update rate limit for redis key %s. Cause of error: %s", key, e));
             throw new RedisException();
         }
-        
+
         try {
-            // expire key after a (rateLimitInterval / 1000) so they are not on redis forever
-            time("redis.expire", () -> redisClientManager.getRedisConnection().sync().expire(derivedKey, rateLimitInterval / 1000));
-        } catch (Exception e) {
-            LOGGER.info(String.format("Failed to expire redis key %s. Cause of error: %s", derivedKey, e));
+            return result.get(redisTimeoutInMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.info(String.format("Timed out after %dms updating rate limit for redis key %s", redisTimeoutInMillis, key));
+            timedOutCounter.inc();
+            throw new RedisException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException();
+        } catch (ExecutionException e) {
+            LOGGER.info(String.format("Failed to update rate limit for redis key %s. Cause of error: %s", key, e.getCause()));
             throw new RedisException();
         }
-        
-        return count;
     }
 
-    private <T> T time(String metricName, Callable<T> callable) throws Exception {
-        return this.metricsRegistry.timer(metricName).time(callable);
+    private CompletableFuture<Long> incrementFixedWindow(String key, int rateLimitInterval, int cost) {
+        String[] keys = {getKeyForWindow(key, rateLimitInterval)};
+        return script.evaluate(redisClientManager.getRedisConnection().async(), keys,
+                withCost(cost, String.valueOf(rateLimitInterval)));
+    }
+
+    private CompletableFuture<Long> incrementSlidingWindow(String key, int rateLimitInterval, int cost) {
+        long now = System.currentTimeMillis();
+        long window = now / rateLimitInterval;
+        long overlapOfPreviousWindow = rateLimitInterval - (now % rateLimitInterval);
+
+        String[] keys = {key + window, key + (window - 1)};
+        return script.evaluate(redisClientManager.getRedisConnection().async(), keys, withCost(cost,
+                String.valueOf(2L * rateLimitInterval),
+                String.valueOf(overlapOfPreviousWindow),
+                String.valueOf(rateLimitInterval)));
+    }
+
+    private CompletableFuture<Long> updateTheoreticalArrivalTime(String key, int rateLimitInterval, int allowedNumberOfRequests,
+                                                                 int cost) {
+        long emissionIntervalInMicros = Math.max(1L, rateLimitInterval * 1000L / allowedNumberOfRequests);
+
+        String[] keys = {key + "-gcra"};
+        return script.evaluate(redisClientManager.getRedisConnection().async(), keys, withCost(cost,
+                String.valueOf(System.currentTimeMillis() * 1000L),
+                String.valueOf(emissionIntervalInMicros),
+                String.valueOf(allowedNumberOfRequests)));
+    }
+
+    /**
+     * The script arguments, with the cost added on the end unless it is one, which the scripts take as the default.
+     */
+    private static String[] withCost(int cost, String... args) {
+        if (cost == 1) {
+            return args;
+        }
+        String[] argsWithCost = Arrays.copyOf(args, args.length + 1);
+        argsWithCost[args.length] = String.valueOf(cost);
+        return argsWithCost;
     }
 
     /**
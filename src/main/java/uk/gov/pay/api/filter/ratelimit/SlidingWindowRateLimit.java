@@ -0,0 +1,68 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximates a sliding window by adding the count for the current window to the count for the
+ * previous window, weighted by how much of the previous window overlaps a window ending now.
+ * <p>
+ * The current window number (epoch millis / perMillis, modulo 2^24) and the counts for the previous and
+ * current windows are packed into one long:
+ * [ window : 24 bits | previous count : 20 bits | current count : 20 bits ]
+ */
+final class SlidingWindowRateLimit extends RateLimit {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+    private static final long WINDOW_MASK = (1L << 24) - 1;
+
+    private final AtomicLong state;
+
+    SlidingWindowRateLimit(int noOfReq, int perMillis) {
+        super(noOfReq, perMillis);
+        this.state = new AtomicLong(((System.currentTimeMillis() / perMillis) & WINDOW_MASK) << WINDOW_SHIFT);
+    }
+
+    @Override
+    void updateAllowance(int cost) throws RateLimitException {
+        long weight = Math.max(1, Math.min(cost, noOfReq));
+        long now = System.currentTimeMillis();
+        long window = (now / perMillis) & WINDOW_MASK;
+        long overlapOfPreviousWindow = perMillis - (now % perMillis);
+
+        while (true) {
+            long current = state.get();
+            long currentWindow = current >>> WINDOW_SHIFT;
+            long previousCount = (current >>> COUNT_BITS) & COUNT_MASK;
+            long currentCount = current & COUNT_MASK;
+
+            if (window != currentWindow) {
+                previousCount = ((window - currentWindow) & WINDOW_MASK) == 1 ? currentCount : 0;
+                currentCount = 0;
+            }
+
+            long requestCount = currentCount + weight + previousCount * overlapOfPreviousWindow / perMillis;
+            if (requestCount > noOfReq && window == currentWindow) {
+                // already over the limit in this window, so there is nothing to record
+                throw new RateLimitException();
+            }
+
+            long next = (window << WINDOW_SHIFT) | (previousCount << COUNT_BITS) | Math.min(currentCount + weight, COUNT_MASK);
+            if (state.compareAndSet(current, next)) {
+                if (requestCount > noOfReq) {
+                    throw new RateLimitException();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int getRequestCount() {
+        long current = state.get();
+        long now = System.currentTimeMillis();
+        long previousCount = (current >>> COUNT_BITS) & COUNT_MASK;
+        return (int) ((current & COUNT_MASK) + previousCount * (perMillis - (now % perMillis)) / perMillis);
+    }
+}
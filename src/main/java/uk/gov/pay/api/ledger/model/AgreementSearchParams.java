@@ -43,6 +43,13 @@ public class AgreementSearchParams {
             example = "50")
     private String displaySize;
 
+    @QueryParam("cursor")
+    @Parameter(name = "cursor",
+            description = "Returns the page of results after the one that gave you this `next_cursor`. " +
+                    "Send the same search parameters as before, without `page`.",
+            example = "Mjow.Bq4pPVXn6FUKyGRkk2xy8A")
+    private String cursor;
+
     public AgreementSearchParams() {
         // Framework gubbins
     }
@@ -86,6 +93,14 @@ public class AgreementSearchParams {
         this.displaySize = displaySize;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     public Map<String, String> getQueryMap() {
         var queryParams = new HashMap<String, String>();
         Optional.ofNullable(reference).ifPresent(reference -> queryParams.put(REFERENCE_KEY, reference));
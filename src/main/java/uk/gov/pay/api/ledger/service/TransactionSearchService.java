@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.LedgerClient;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.BadRequestException;
@@ -57,7 +58,7 @@ public class TransactionSearchService {
     private final Logger LOGGER = LoggerFactory.getLogger(TransactionSearchService.class);
 
     @Inject
-    public TransactionSearchService(Client client,
+    public TransactionSearchService(@LedgerClient Client client,
                                     PublicApiConfig configuration,
                                     LedgerUriGenerator ledgerUriGenerator,
                                     PaymentUriGenerator paymentApiUriGenerator) {
@@ -10,16 +10,23 @@ import jakarta.inject.Singleton;
 @Singleton
 public class RedisClientManager implements Managed {
     private RedisClient redisClient;
-    private StatefulRedisConnection<String, String> statefulRedisConnection;
+    private volatile StatefulRedisConnection<String, String> statefulRedisConnection;
 
     @Inject
     public RedisClientManager(RedisClient redisClient) {
         this.redisClient = redisClient;
     }
 
-    public StatefulRedisConnection getRedisConnection() {
+    /**
+     * The connection is thread-safe and shared by all request threads, which pipeline their commands over it.
+     */
+    public StatefulRedisConnection<String, String> getRedisConnection() {
         if (statefulRedisConnection == null) {
-            statefulRedisConnection = redisClient.connect();
+            synchronized (this) {
+                if (statefulRedisConnection == null) {
+                    statefulRedisConnection = redisClient.connect();
+                }
+            }
         }
         return statefulRedisConnection;
     }
@@ -0,0 +1,35 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "BatchGetPaymentsRequest", description = "The payments to get")
+public class BatchGetPaymentsRequest {
+
+    public static final String PAYMENT_IDS_FIELD_NAME = "payment_ids";
+    public static final int MAX_PAYMENT_IDS = 100;
+
+    @JsonProperty(PAYMENT_IDS_FIELD_NAME)
+    @ArraySchema(maxItems = MAX_PAYMENT_IDS, minItems = 1,
+            schema = @Schema(description = "The `payment_id` of a payment to get.", example = "hu20sqlact5260q2nanm0q8u93"))
+    private List<String> paymentIds;
+
+    public BatchGetPaymentsRequest() {
+    }
+
+    public BatchGetPaymentsRequest(List<String> paymentIds) {
+        this.paymentIds = paymentIds;
+    }
+
+    public List<String> getPaymentIds() {
+        return paymentIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchGetPaymentsRequest{paymentIds=" + paymentIds + '}';
+    }
+}
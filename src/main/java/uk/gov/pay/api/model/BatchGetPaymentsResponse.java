@@ -0,0 +1,47 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import java.util.List;
+
+@Schema(name = "BatchGetPaymentsResponse", description = "The payments asked for, in the same order")
+public class BatchGetPaymentsResponse {
+
+    @JsonProperty("results")
+    private final List<Result> results;
+
+    public BatchGetPaymentsResponse(List<Result> results) {
+        this.results = results;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * The payment with one of the IDs asked for or, if it could not be got, the error that getting it on its own
+     * would have returned.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(name = "BatchGetPaymentsResult", description = "A payment asked for, or the error getting it")
+    public record Result(@JsonProperty("payment_id") String paymentId,
+                         @JsonProperty("payment") PaymentWithAllLinks payment,
+                         @JsonProperty("error") RequestError error) {
+
+        public static Result of(String paymentId, PaymentWithAllLinks payment) {
+            return new Result(paymentId, payment, null);
+        }
+
+        public static Result ofError(String paymentId, RequestError error) {
+            return new Result(paymentId, null, error);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchGetPaymentsResponse{results=" + results.size() + '}';
+    }
+}
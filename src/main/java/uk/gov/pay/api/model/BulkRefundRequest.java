@@ -0,0 +1,91 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.NOT_REQUIRED;
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(name = "BulkRefundRequest", description = "The refunds to create")
+public class BulkRefundRequest {
+
+    public static final String REFUNDS_FIELD_NAME = "refunds";
+
+    @JsonProperty(REFUNDS_FIELD_NAME)
+    @ArraySchema(minItems = 1, schema = @Schema(implementation = Refund.class))
+    private List<Refund> refunds;
+
+    public BulkRefundRequest() {
+    }
+
+    public BulkRefundRequest(List<Refund> refunds) {
+        this.refunds = refunds;
+    }
+
+    public List<Refund> getRefunds() {
+        return refunds;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkRefundRequest{refunds=" + (refunds == null ? null : refunds.size()) + '}';
+    }
+
+    @Schema(name = "BulkRefundRequestRefund", description = "A refund to create")
+    public static class Refund {
+
+        public static final String PAYMENT_ID_FIELD_NAME = "payment_id";
+
+        @JsonProperty(PAYMENT_ID_FIELD_NAME)
+        @Schema(description = "The unique `payment_id` of the payment you want to refund.",
+                requiredMode = REQUIRED, example = "hu20sqlact5260q2nanm0q8u93")
+        private String paymentId;
+
+        @JsonProperty("amount")
+        @Schema(description = "The amount you want to refund to your user in pence.", requiredMode = REQUIRED,
+                example = "150000", minimum = "1", maximum = "10000000")
+        private Integer amount;
+
+        @JsonProperty(CreatePaymentRefundRequest.REFUND_AMOUNT_AVAILABLE)
+        @Schema(description = "Amount in pence. Total amount still available before issuing the refund",
+                requiredMode = NOT_REQUIRED, example = "200000", minimum = "1", maximum = "10000000")
+        private Integer refundAmountAvailable;
+
+        public Refund() {
+        }
+
+        public Refund(String paymentId, Integer amount, Integer refundAmountAvailable) {
+            this.paymentId = paymentId;
+            this.amount = amount;
+            this.refundAmountAvailable = refundAmountAvailable;
+        }
+
+        public String getPaymentId() {
+            return paymentId;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        public Integer getRefundAmountAvailable() {
+            return refundAmountAvailable;
+        }
+
+        public CreatePaymentRefundRequest toCreatePaymentRefundRequest() {
+            return new CreatePaymentRefundRequest(amount, refundAmountAvailable);
+        }
+
+        @Override
+        public String toString() {
+            return "Refund{" +
+                    "paymentId='" + paymentId + '\'' +
+                    ", amount=" + amount +
+                    ", refundAmountAvailable=" + refundAmountAvailable +
+                    '}';
+        }
+    }
+}
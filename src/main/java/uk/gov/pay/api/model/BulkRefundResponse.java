@@ -0,0 +1,48 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import static jakarta.ws.rs.core.Response.Status.ACCEPTED;
+
+/**
+ * Describes the body of a bulk refund response for the API documentation. The response itself is streamed a
+ * {@link Result} at a time as the refunds are created.
+ */
+@Schema(name = "BulkRefundResponse", description = "The outcome of each refund asked for, in the same order")
+public class BulkRefundResponse {
+
+    @JsonProperty("results")
+    private final List<Result> results;
+
+    public BulkRefundResponse(List<Result> results) {
+        this.results = results;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * The refund of one of the payments asked for or, if it could not be created, the error that creating it on
+     * its own would have returned, with the HTTP status that would have been returned either way.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(name = "BulkRefundResult", description = "A refund asked for, or the error creating it")
+    public record Result(@JsonProperty("payment_id") String paymentId,
+                         @JsonProperty("status") int status,
+                         @JsonProperty("refund") RefundResponse refund,
+                         @JsonProperty("error") RequestError error) {
+
+        public static Result of(String paymentId, RefundResponse refund) {
+            return new Result(paymentId, ACCEPTED.getStatusCode(), refund, null);
+        }
+
+        public static Result ofError(String paymentId, int status, RequestError error) {
+            return new Result(paymentId, status, null, error);
+        }
+    }
+}
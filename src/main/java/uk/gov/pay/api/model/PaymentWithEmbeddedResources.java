@@ -0,0 +1,47 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import java.util.List;
+
+/**
+ * A payment with the sub-resources asked for with embed in an _embedded section, as in a HAL document.
+ */
+@Schema(hidden = true)
+public class PaymentWithEmbeddedResources {
+
+    @JsonUnwrapped
+    private final PaymentWithAllLinks payment;
+
+    @JsonProperty("_embedded")
+    private final Embedded embedded;
+
+    public PaymentWithEmbeddedResources(PaymentWithAllLinks payment, List<PaymentEventResponse> events,
+                                        List<RefundResponse> refunds) {
+        this.payment = payment;
+        this.embedded = new Embedded(events, refunds);
+    }
+
+    public PaymentWithAllLinks getPayment() {
+        return payment;
+    }
+
+    public Embedded getEmbedded() {
+        return embedded;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Embedded(@JsonProperty("events") List<PaymentEventResponse> events,
+                           @JsonProperty("refunds") List<RefundResponse> refunds) {
+    }
+
+    @Override
+    public String toString() {
+        return payment + ", embedded events: " + (embedded.events() == null ? "none" : embedded.events().size())
+                + ", embedded refunds: " + (embedded.refunds() == null ? "none" : embedded.refunds().size());
+    }
+}
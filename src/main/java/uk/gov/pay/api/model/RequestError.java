@@ -33,6 +33,8 @@ public class RequestError {
         CREATE_PAYMENT_IDEMPOTENCY_KEY_ALREADY_USED("P0191", "The `Idempotency-Key` you sent in the request header has already been used to create a payment."),
 
         GET_PAYMENT_NOT_FOUND_ERROR("P0200", "Not found"),
+        GET_PAYMENT_VALIDATION_ERROR("P0201", "Invalid parameters: %s. See Public API documentation for the correct data formats"),
+        BATCH_GET_PAYMENTS_VALIDATION_ERROR("P0202", "Invalid attribute value: %s. %s"),
         GET_PAYMENT_CONNECTOR_ERROR("P0298", "Downstream system error"),
 
         GET_PAYMENT_EVENTS_NOT_FOUND_ERROR("P0300", "Not found"),
@@ -64,6 +66,7 @@ public class RequestError {
         CREATE_PAYMENT_REFUND_NOT_AVAILABLE("P0603", "The payment is not available for refund. Payment refund status: %s"),
         CREATE_PAYMENT_REFUND_NOT_AVAILABLE_DUE_TO_DISPUTE("P0603", "The payment is disputed and cannot be refunded"),
         CREATE_PAYMENT_REFUND_AMOUNT_AVAILABLE_MISMATCH("P0604", "Refund amount available mismatch."),
+        BULK_REFUND_VALIDATION_ERROR("P0605", "Invalid attribute value: %s. %s"),
 
         GET_PAYMENT_REFUND_NOT_FOUND_ERROR("P0700", "Not found"),
         GET_PAYMENT_REFUND_CONNECTOR_ERROR("P0798", "Downstream system error"),
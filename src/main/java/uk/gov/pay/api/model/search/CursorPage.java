@@ -0,0 +1,81 @@
+package uk.gov.pay.api.model.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A page of results sorted by created date, most recent first, cut from what ledger returned for a search made
+ * with {@link PaginationDecorator#afterCursor}, along with the cursor for the page after it.
+ * <p>
+ * Ledger is asked for results created before the end of the cursor's millisecond, so the {@code seen} results from
+ * that millisecond have already been returned and are skipped. They are told apart by transaction id where the
+ * cursor has them, as ledger may return results created in the same millisecond in any order. Ledger is asked for
+ * that many extra results to make up for it.
+ *
+ * @param results the results to return
+ * @param skipped how many results in ledger's page had already been returned
+ * @param next    the cursor for the page after this one, if there might be more results
+ */
+public record CursorPage<T>(List<T> results, int skipped, Optional<SearchCursor> next) {
+
+    public static <T> CursorPage<T> of(List<T> ledgerResults, Function<T, String> createdDate,
+                                       Function<T, String> transactionId, SearchCursor cursor, int displaySize,
+                                       boolean ledgerHasNextPage) {
+        List<T> unseen = ledgerResults;
+        int skipped = 0;
+        if (cursor != null && cursor.seen() > 0) {
+            unseen = new ArrayList<>(ledgerResults.size());
+            for (T result : ledgerResults) {
+                if (skipped < cursor.seen() && alreadySeen(result, createdDate, transactionId, cursor, unseen.isEmpty())) {
+                    skipped++;
+                } else {
+                    unseen.add(result);
+                }
+            }
+        }
+
+        List<T> results = unseen.subList(0, Math.min(unseen.size(), displaySize));
+        boolean more = ledgerHasNextPage || unseen.size() > results.size();
+        if (!more || results.isEmpty()) {
+            return new CursorPage<>(results, skipped, Optional.empty());
+        }
+
+        long lastCreated = createdMillis(results.getLast(), createdDate);
+        List<String> seenIds = new ArrayList<>();
+        for (int i = results.size() - 1; i >= 0 && createdMillis(results.get(i), createdDate) == lastCreated; i--) {
+            seenIds.addFirst(transactionId.apply(results.get(i)));
+        }
+        int seen = seenIds.size();
+        if (cursor != null && lastCreated == cursor.position()) {
+            if (cursor.seenIds().isEmpty()) {
+                seen += skipped;
+                seenIds.clear();
+            } else {
+                seen += cursor.seen();
+                seenIds.addAll(0, cursor.seenIds());
+            }
+        }
+        if (seen != seenIds.size() || seen > SearchCursor.MAX_SEEN_IDS) {
+            seenIds.clear();
+        }
+        return new CursorPage<>(results, skipped, Optional.of(new SearchCursor(lastCreated, seen, seenIds)));
+    }
+
+    /**
+     * Where the cursor has no ids, the first results from its millisecond are taken to be the ones already seen.
+     */
+    private static <T> boolean alreadySeen(T result, Function<T, String> createdDate, Function<T, String> transactionId,
+                                           SearchCursor cursor, boolean noneUnseenYet) {
+        if (createdMillis(result, createdDate) != cursor.position()) {
+            return false;
+        }
+        return cursor.seenIds().isEmpty() ? noneUnseenYet : cursor.seenIds().contains(transactionId.apply(result));
+    }
+
+    private static <T> long createdMillis(T result, Function<T, String> createdDate) {
+        return Instant.parse(createdDate.apply(result)).toEpochMilli();
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.pay.api.model.search;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of search results in HAL form, written straight to the response as JSON with the given
+ * {@link ObjectMapper}.
+ * <p>
+ * This replaces building a {@code HalRepresentation} and turning it into a String, which held the whole response
+ * in memory twice, as a tree and as a String, before Jersey copied it to the response. Here each result is
+ * serialised into the output stream's buffer as it is reached. The JSON has the same shape: {@code _links}, each
+ * with an {@code href}, then {@code results}, then the other properties in the order they were added.
+ */
+public class HalSearchResponse implements StreamingOutput {
+
+    private final ObjectMapper objectMapper;
+    private final List<?> results;
+    private final Map<String, URI> links = new LinkedHashMap<>();
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+
+    public HalSearchResponse(ObjectMapper objectMapper, List<?> results) {
+        this.objectMapper = objectMapper;
+        this.results = results;
+    }
+
+    public HalSearchResponse addProperty(String name, Object value) {
+        properties.put(name, value);
+        return this;
+    }
+
+    public HalSearchResponse addLink(String name, URI href) {
+        links.put(name, href);
+        return this;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            write(generator);
+        }
+    }
+
+    private void write(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        if (!links.isEmpty()) {
+            generator.writeObjectFieldStart("_links");
+            for (Map.Entry<String, URI> link : links.entrySet()) {
+                generator.writeObjectFieldStart(link.getKey());
+                generator.writeStringField("href", link.getValue().toString());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        generator.writeArrayFieldStart("results");
+        for (Object result : results) {
+            generator.writeObject(result);
+        }
+        generator.writeEndArray();
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            generator.writeObjectField(property.getKey(), property.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * The JSON that {@link #write} writes, for logging and tests.
+     */
+    @Override
+    public String toString() {
+        var json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
+    }
+}
@@ -1,105 +1,273 @@
 package uk.gov.pay.api.model.search;
 
-import black.door.hate.HalRepresentation;
+import com.google.common.base.Suppliers;
+import org.apache.commons.lang3.StringUtils;
 import uk.gov.pay.api.app.config.PublicApiConfig;
-import uk.gov.pay.api.exception.SearchPaymentsException;
+import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.model.links.Link;
 import uk.gov.pay.api.model.links.SearchNavigationLinks;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.UriBuilder;
 import java.net.URI;
-import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static uk.gov.pay.api.common.SearchConstants.DISPLAY_SIZE;
+import static uk.gov.pay.api.common.SearchConstants.PAGE;
+import static uk.gov.pay.api.common.SearchConstants.TO_DATE_KEY;
 
 public class PaginationDecorator {
 
-    private final String baseUrl;
-    private final List<String> queryParametersToBeExcluded
+    public static final String CURSOR = "cursor";
+    public static final int MAX_DISPLAY_SIZE = 500;
+
+    private static final List<String> QUERY_PARAMETERS_TO_BE_EXCLUDED
             = List.of("account_id", "gateway_account_id", "transaction_type", "status_version");
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final String baseUrl;
+    private final Supplier<SearchCursorCodec> cursorCodec;
+    private final Map<String, String> publicSearchUrls = new ConcurrentHashMap<>();
 
     @Inject
     public PaginationDecorator(PublicApiConfig config) {
         baseUrl = config.getBaseUrl();
+        // Keyed on first use, as only searches that give or take a cursor need the secret
+        cursorCodec = Suppliers.memoize(() -> new SearchCursorCodec(config.getApiKeyHmacSecret()));
     }
 
-    public HalRepresentation.HalRepresentationBuilder decoratePagination(HalRepresentation.HalRepresentationBuilder halRepresentationBuilder,
-                                                                         SearchPagination pagination, String path) {
+    public HalSearchResponse decoratePagination(HalSearchResponse halSearchResponse, SearchPagination pagination, String path) {
 
-        HalRepresentation.HalRepresentationBuilder builder = addPaginationProperties(halRepresentationBuilder, pagination);
+        HalSearchResponse response = addPaginationProperties(halSearchResponse, pagination);
         SearchNavigationLinks links = pagination.getLinks();
-        try {
-            addLink(builder, "self", transformIntoPublicUri(baseUrl, links.getSelf(), path));
-            addLink(builder, "first_page", transformIntoPublicUri(baseUrl, links.getFirstPage(), path));
-            addLink(builder, "last_page", transformIntoPublicUri(baseUrl, links.getLastPage(), path));
-            addLink(builder, "prev_page", transformIntoPublicUri(baseUrl, links.getPrevPage(), path));
-            addLink(builder, "next_page", transformIntoPublicUri(baseUrl, links.getNextPage(), path));
-        } catch (URISyntaxException ex) {
-            throw new SearchPaymentsException(ex);
-        }
-        return builder;
+        String publicSearchUrl = publicSearchUrl(path);
+        addLink(response, "self", toUri(publicHref(publicSearchUrl, links.getSelf())));
+        addLink(response, "first_page", toUri(publicHref(publicSearchUrl, links.getFirstPage())));
+        addLink(response, "last_page", toUri(publicHref(publicSearchUrl, links.getLastPage())));
+        addLink(response, "prev_page", toUri(publicHref(publicSearchUrl, links.getPrevPage())));
+        addLink(response, "next_page", toUri(publicHref(publicSearchUrl, links.getNextPage())));
+        return response;
     }
 
     public SearchNavigationLinks transformLinksToPublicApiUri(
             SearchNavigationLinks links, String path) {
-        try {
-            return links.withSelfLink(transformIntoPublicUriAsString(baseUrl, links.getSelf(), path))
-                    .withFirstLink(transformIntoPublicUriAsString(baseUrl, links.getFirstPage(), path))
-                    .withLastLink(transformIntoPublicUriAsString(baseUrl, links.getLastPage(), path))
-                    .withPrevLink(transformIntoPublicUriAsString(baseUrl, links.getPrevPage(), path))
-                    .withNextLink(transformIntoPublicUriAsString(baseUrl, links.getNextPage(), path));
-        } catch (URISyntaxException ex) {
-            throw new SearchPaymentsException(ex);
+        String publicSearchUrl = publicSearchUrl(path);
+        return links.withSelfLink(publicHref(publicSearchUrl, links.getSelf()))
+                .withFirstLink(publicHref(publicSearchUrl, links.getFirstPage()))
+                .withLastLink(publicHref(publicSearchUrl, links.getLastPage()))
+                .withPrevLink(publicHref(publicSearchUrl, links.getPrevPage()))
+                .withNextLink(publicHref(publicSearchUrl, links.getNextPage()));
+    }
+
+    /**
+     * The public API link for a link to a page of ledger search results. The query is copied across in one pass,
+     * in the order ledger gave it, leaving out the parameters that only ledger needs. Characters that may not appear
+     * in a query parameter as they are, such as the colons in a date, are percent-encoded; ones ledger has already
+     * encoded are left alone.
+     *
+     * @param publicSearchUrl the public API search URL for the same search, without a query
+     */
+    static String publicHref(String publicSearchUrl, String ledgerHref) {
+        int queryStart = ledgerHref.indexOf('?') + 1;
+        if (queryStart == 0) {
+            return publicSearchUrl;
+        }
+        int queryEnd = ledgerHref.indexOf('#', queryStart);
+        if (queryEnd < 0) {
+            queryEnd = ledgerHref.length();
         }
+
+        var href = new StringBuilder(publicSearchUrl.length() + queryEnd - queryStart + 16).append(publicSearchUrl);
+        char separator = '?';
+        for (int start = queryStart, end; start < queryEnd; start = end + 1) {
+            end = ledgerHref.indexOf('&', start);
+            if (end < 0 || end > queryEnd) {
+                end = queryEnd;
+            }
+            if (end > start && !isExcluded(ledgerHref, start, end)) {
+                href.append(separator);
+                appendQueryParameter(href, ledgerHref, start, end);
+                separator = '&';
+            }
+        }
+        return href.toString();
     }
 
-    private HalRepresentation.HalRepresentationBuilder addPaginationProperties(HalRepresentation.HalRepresentationBuilder halRepresentationBuilder,
-                                                                               SearchPagination pagination) {
-        halRepresentationBuilder
-                .addProperty("count", pagination.getCount())
-                .addProperty("total", pagination.getTotal())
-                .addProperty("page", pagination.getPage());
-        return halRepresentationBuilder;
+    /**
+     * As {@link #decoratePagination}, for a page found with a cursor, whose links are already public API links. There
+     * is no total, as ledger's total for the search from the cursor on is not the number of results matching the
+     * search, and the page is always 1.
+     */
+    public HalSearchResponse decorateCursorPagination(HalSearchResponse halSearchResponse, int count,
+                                                      SearchNavigationLinks links, String nextCursor) {
+        halSearchResponse
+                .addProperty("count", count)
+                .addProperty("page", 1);
+        Optional.ofNullable(nextCursor).ifPresent(cursor -> halSearchResponse.addProperty("next_cursor", cursor));
+        addLink(halSearchResponse, "self", toUri(links.getSelf()));
+        addLink(halSearchResponse, "first_page", toUri(links.getFirstPage()));
+        addLink(halSearchResponse, "next_page", toUri(links.getNextPage()));
+        return halSearchResponse;
     }
 
-    private void addLink(HalRepresentation.HalRepresentationBuilder halRepresentationBuilder, String name, URI uri) {
-        if (uri != null) {
-            halRepresentationBuilder.addLink(name, uri);
+    /**
+     * Links for a page found with a cursor. There are no last or previous page links because a cursor only goes
+     * one way.
+     *
+     * @param params     the search as the client made it, without the cursor
+     * @param cursor     the cursor the client sent, if any
+     * @param nextCursor the cursor for the next page, if there is one
+     */
+    public SearchNavigationLinks cursorLinks(String path, Map<String, String> params, String cursor, String nextCursor) {
+        var links = new SearchNavigationLinks()
+                .withSelfLink(publicSearchUri(path, params, cursor))
+                .withFirstLink(publicSearchUri(path, params, null));
+        if (nextCursor != null) {
+            links.withNextLink(publicSearchUri(path, params, nextCursor));
+        }
+        return links;
+    }
+
+    public String encodeCursor(SearchCursor cursor, Account account, String path, Map<String, String> params) {
+        return cursorCodec.get().encode(cursor, cursorScope(account, path, params));
+    }
+
+    /**
+     * @return the cursor, or nothing if it was not issued by {@link #encodeCursor} for the same account, search and
+     * filters
+     */
+    public Optional<SearchCursor> decodeCursor(String cursor, Account account, String path, Map<String, String> params) {
+        return cursorCodec.get().decode(cursor, cursorScope(account, path, params));
+    }
+
+    /**
+     * The ledger search parameters for the page after a cursor in a search sorted by created date: the first page
+     * of results created before the end of the cursor's millisecond, with room for the ones already seen from it.
+     * If more than {@value #MAX_DISPLAY_SIZE} results were created in one millisecond a crawl cannot get past them.
+     */
+    public static Map<String, String> afterCursor(Map<String, String> params, SearchCursor cursor) {
+        Map<String, String> ledgerParams = new LinkedHashMap<>(params);
+        ledgerParams.put(TO_DATE_KEY, Instant.ofEpochMilli(cursor.position() + 1).toString());
+        ledgerParams.put(PAGE, "1");
+        ledgerParams.put(DISPLAY_SIZE, String.valueOf(Math.min(MAX_DISPLAY_SIZE, displaySize(params) + cursor.seen())));
+        return ledgerParams;
+    }
+
+    /**
+     * A blank display_size, as in {@code ?display_size=}, is treated as if it were not given, as it is by search
+     * validation.
+     */
+    public static int displaySize(Map<String, String> params) {
+        return Optional.ofNullable(params.get(DISPLAY_SIZE)).filter(StringUtils::isNotBlank).map(Integer::parseInt)
+                .orElse(MAX_DISPLAY_SIZE);
+    }
+
+    /**
+     * The filters of a search, in a fixed order, along with whose search it is. Changing the page or the number of
+     * results on a page does not change which results a cursor leads to, so those are left out.
+     */
+    private static String cursorScope(Account account, String path, Map<String, String> params) {
+        var scope = new StringBuilder(account.accountId()).append('\n').append(path);
+        new TreeMap<>(params).forEach((name, value) -> {
+            if (isNotBlank(value) && !PAGE.equals(name) && !DISPLAY_SIZE.equals(name)) {
+                scope.append('\n').append(name).append('=').append(value);
+            }
+        });
+        return scope.toString();
+    }
+
+    private String publicSearchUri(String path, Map<String, String> params, String cursor) {
+        var query = new StringJoiner("&");
+        params.forEach((name, value) -> {
+            if (isNotBlank(value) && !PAGE.equals(name)) {
+                query.add(name + '=' + URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        });
+        if (cursor != null) {
+            query.add(CURSOR + '=' + cursor);
+        }
+        return query.length() == 0 ? publicSearchUrl(path) : publicSearchUrl(path) + '?' + query;
+    }
+
+    private String publicSearchUrl(String path) {
+        return publicSearchUrls.computeIfAbsent(path,
+                searchPath -> UriBuilder.fromUri(baseUrl).path(searchPath).build().toString());
+    }
+
+    private static String publicHref(String publicSearchUrl, Link link) {
+        return link == null || link.getHref() == null ? null : publicHref(publicSearchUrl, link.getHref());
+    }
+
+    private static boolean isExcluded(String query, int start, int end) {
+        int nameEnd = query.indexOf('=', start);
+        if (nameEnd < 0 || nameEnd > end) {
+            nameEnd = end;
+        }
+        for (String name : QUERY_PARAMETERS_TO_BE_EXCLUDED) {
+            if (name.length() == nameEnd - start && query.startsWith(name, start)) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private String transformIntoPublicUriAsString(String baseUrl, Link link, String path) throws URISyntaxException {
-        UriBuilder uriBuilder = getUriBuilder(baseUrl, link, path);
+    private static void appendQueryParameter(StringBuilder href, String query, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = query.charAt(i);
+            if (c == '%' && i + 2 < end && isHexDigit(query.charAt(i + 1)) && isHexDigit(query.charAt(i + 2))) {
+                href.append(query, i, i + 3);
+                i += 2;
+            } else if (isAllowedInQueryParameter(c)) {
+                href.append(c);
+            } else {
+                int codePoint = query.codePointAt(i);
+                i += Character.charCount(codePoint) - 1;
+                for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) {
+                    href.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+                }
+            }
+        }
+    }
+
+    private static boolean isAllowedInQueryParameter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~' || c == '=' || c == '+';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
 
-        return Optional.ofNullable(uriBuilder)
-                .map(builder -> {
-                    // breaks the order of query parameters 
-                    queryParametersToBeExcluded.forEach(queryParam ->
-                            uriBuilder.replaceQueryParam(queryParam, (Object[]) null));
-                    return builder.build().toString();
-                })
-                .orElse(null);
+    private static URI toUri(Link link) {
+        return link == null ? null : toUri(link.getHref());
     }
 
-    private URI transformIntoPublicUri(String baseUrl, Link link, String path) throws URISyntaxException {
-        UriBuilder uriBuilder = getUriBuilder(baseUrl, link, path);
-        return Optional.ofNullable(uriBuilder)
-                .map(builder -> {
-                    // breaks the order of query parameters
-                    queryParametersToBeExcluded.forEach(queryParam ->
-                            uriBuilder.replaceQueryParam(queryParam, (Object[]) null));
-                    return builder.build();
-                })
-                .orElse(null);
+    private static URI toUri(String href) {
+        return href == null ? null : URI.create(href);
     }
 
-    private UriBuilder getUriBuilder(String baseUrl, Link link, String path) throws URISyntaxException {
-        if (link == null)
-            return null;
+    private HalSearchResponse addPaginationProperties(HalSearchResponse halSearchResponse, SearchPagination pagination) {
+        halSearchResponse
+                .addProperty("count", pagination.getCount())
+                .addProperty("total", pagination.getTotal())
+                .addProperty("page", pagination.getPage());
+        return halSearchResponse;
+    }
 
-        return UriBuilder.fromUri(baseUrl)
-                .path(path)
-                .replaceQuery(new URI(link.getHref()).getQuery());
+    private void addLink(HalSearchResponse halSearchResponse, String name, URI uri) {
+        if (uri != null) {
+            halSearchResponse.addLink(name, uri);
+        }
     }
 }
@@ -0,0 +1,57 @@
+package uk.gov.pay.api.model.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * How far through a search a client walking it with {@code next_cursor} has got.
+ * <p>
+ * For searches sorted by created date, {@code position} is the millisecond (since the epoch) in which the last
+ * result returned was created and {@code seen} is how many results created in that millisecond have been returned
+ * so far, so that the next page can start from there however many results have been created since the search
+ * began. Ledger does not say how it orders results created in the same millisecond, so {@code seenIds} holds the
+ * transaction ids of those results and they are skipped by id. If more than {@value #MAX_SEEN_IDS} results were
+ * created in the millisecond, {@code seenIds} is empty and the first {@code seen} of them are skipped instead,
+ * which relies on ledger returning them in the same order each time. For agreements, which ledger can only page
+ * through by number, {@code position} is the next page.
+ */
+public record SearchCursor(long position, int seen, List<String> seenIds) {
+
+    public static final int MAX_SEEN_IDS = 20;
+
+    private static final char SEPARATOR = ':';
+    private static final String ID_SEPARATOR = ",";
+
+    public SearchCursor {
+        seenIds = List.copyOf(seenIds);
+    }
+
+    public SearchCursor(long position, int seen) {
+        this(position, seen, List.of());
+    }
+
+    String toPayload() {
+        String payload = Long.toString(position) + SEPARATOR + seen;
+        return seenIds.isEmpty() ? payload : payload + SEPARATOR + String.join(ID_SEPARATOR, seenIds);
+    }
+
+    static Optional<SearchCursor> fromPayload(String payload) {
+        String[] parts = payload.split(String.valueOf(SEPARATOR), 3);
+        if (parts.length < 2) {
+            return Optional.empty();
+        }
+        try {
+            long position = Long.parseLong(parts[0]);
+            int seen = Integer.parseInt(parts[1]);
+            List<String> seenIds = parts.length == 3 ? Arrays.asList(parts[2].split(ID_SEPARATOR)) : List.of();
+            if (position < 0 || seen < 0 || !(seenIds.isEmpty() || seenIds.size() == seen)
+                    || seenIds.stream().anyMatch(String::isEmpty)) {
+                return Optional.empty();
+            }
+            return Optional.of(new SearchCursor(position, seen, seenIds));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.pay.api.model.search;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Turns a {@link SearchCursor} into the opaque string given to clients as {@code next_cursor} and back again.
+ * <p>
+ * The cursor is signed with HMAC-SHA256 together with the scope it was issued for (the account, the search and
+ * its filters), so a client cannot make one up or take one from one search and use it with another. The signing
+ * key is derived from the API key HMAC secret rather than being that secret, so the two uses cannot be confused.
+ */
+class SearchCursorCodec {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "search-cursor".getBytes(StandardCharsets.UTF_8);
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final char SEPARATOR = '.';
+
+    private final SecretKeySpec key;
+
+    SearchCursorCodec(String apiKeyHmacSecret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(apiKeyHmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            key = new SecretKeySpec(mac.doFinal(KEY_LABEL), HMAC_SHA256);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialise " + HMAC_SHA256, e);
+        }
+    }
+
+    String encode(SearchCursor cursor, String scope) {
+        byte[] payload = cursor.toPayload().getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + SEPARATOR + encoder.encodeToString(sign(payload, scope));
+    }
+
+    Optional<SearchCursor> decode(String encoded, String scope) {
+        int separator = encoded.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payload = decoder.decode(encoded.substring(0, separator));
+            signature = decoder.decode(encoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(payload, scope), signature)) {
+            return Optional.empty();
+        }
+        return SearchCursor.fromPayload(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    private byte[] sign(byte[] payload, String scope) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(key);
+            mac.update(scope.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign search cursor", e);
+        }
+    }
+}
@@ -11,7 +11,8 @@ import java.util.List;
  */
 public class PaymentSearchResults implements SearchPagination {
 
-    @Schema(name = "total", example = "100", description = "Total number of payments matching your search criteria.")
+    @Schema(name = "total", example = "100", description = "Total number of payments matching your search criteria. " +
+            "Not included on a page you got with `cursor`.")
     private int total;
     @Schema(name = "count", example = "20", description = "Number of payments on the current page of search results.")
     private int count;
@@ -21,6 +22,10 @@ public class PaymentSearchResults implements SearchPagination {
                     "To view other pages, make this request again using the `page` parameter.")
     private int page;
     private List<PaymentForSearchResult> results;
+    @Schema(name = "next_cursor", example = "MTQ1Mzc0ODIzNTA2Nzox.1fYkOy6HtBRdGvZz0WMnKQ",
+            description = "Send this as the `cursor` parameter to get the next page of payments. " +
+                    "Only included on the first page of results, or a page you got with `cursor`, when there are more payments.")
+    private String nextCursor;
     @Schema(name = "_links")
     SearchNavigationLinks links;
 
@@ -45,6 +50,10 @@ public class PaymentSearchResults implements SearchPagination {
         return results;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     @Override
     public SearchNavigationLinks getLinks() {
         return links;
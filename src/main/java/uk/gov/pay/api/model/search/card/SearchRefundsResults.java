@@ -1,20 +1,22 @@
 package uk.gov.pay.api.model.search.card;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import io.swagger.v3.oas.annotations.media.Schema;
 import uk.gov.pay.api.model.links.SearchNavigationLinks;
-import uk.gov.pay.api.model.search.SearchPagination;
 
 import java.util.List;
 
 @Schema(name = "RefundSearchResults")
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
-public class SearchRefundsResults implements SearchPagination {
+public class SearchRefundsResults {
 
-    @Schema(example = "100", description = "Number of refunds matching your search criteria.")
-    private int total;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(example = "100", description = "Number of refunds matching your search criteria. " +
+            "Not included on a page you got with `cursor`.")
+    private Integer total;
     @Schema(example = "20", description = "Number of refunds on the current page of search results.")
     private int count;
     @Schema(example = "1", description = "The [page of results](payments.service.gov.uk/api_reference/#pagination) you’re viewing. To view other pages, make this request again using the `page` parameter.")
@@ -22,29 +24,37 @@ public class SearchRefundsResults implements SearchPagination {
     
     @Schema(description = "Contains the refunds matching your search criteria.")
     private List<RefundForSearchRefundsResult> results;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(example = "MTY0NjE0NzI1NTA2Nzox.yZJ6wnAgDDgHvqmH7U0rSA",
+            description = "Send this as the `cursor` parameter to get the next page of refunds. " +
+                    "Only included on the first page of results, or a page you got with `cursor`, when there are more refunds.")
+    private String nextCursor;
     @JsonProperty("_links")
     private SearchNavigationLinks links;
 
-    public SearchRefundsResults(int total, int count, int page, List<RefundForSearchRefundsResult> results,
+    public SearchRefundsResults(Integer total, int count, int page, List<RefundForSearchRefundsResult> results,
                                     SearchNavigationLinks links) {
+        this(total, count, page, results, null, links);
+    }
+
+    public SearchRefundsResults(Integer total, int count, int page, List<RefundForSearchRefundsResult> results,
+                                String nextCursor, SearchNavigationLinks links) {
         this.total = total;
         this.count = count;
         this.page = page;
         this.results = results;
+        this.nextCursor = nextCursor;
         this.links = links;
     }
     
-    @Override
-    public int getTotal() {
+    public Integer getTotal() {
         return total;
     }
 
-    @Override
     public int getCount() {
         return count;
     }
 
-    @Override
     public int getPage() {
         return page;
     }
@@ -53,7 +63,10 @@ public class SearchRefundsResults implements SearchPagination {
         return results;
     }
 
-    @Override
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     public SearchNavigationLinks getLinks() {
         return links;
     }
@@ -1,50 +1,59 @@
 package uk.gov.pay.api.model.search.dispute;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import io.swagger.v3.oas.annotations.media.Schema;
 import uk.gov.pay.api.model.links.SearchNavigationLinks;
-import uk.gov.pay.api.model.search.SearchPagination;
 
 import java.util.List;
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
-public class DisputesSearchResults implements SearchPagination {
-    @Schema(name = "total", example = "100", description = "Number of total disputes matching your search criteria.")
-    private int total;
+public class DisputesSearchResults {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(name = "total", example = "100", description = "Number of total disputes matching your search criteria. " +
+            "Not included on a page you got with `cursor`.")
+    private Integer total;
     @Schema(name = "count", example = "20", description = "Number of disputes on the current page of search results.")
     private int count;
     @Schema(name = "page", example = "1", description = "The page of results you’re viewing. To view other pages, make this request again using the 'page' parameter.")
     private int page;
     @Schema(description = "Contains disputes matching your search criteria.")
     private List<DisputeForSearchResult> results;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(name = "next_cursor", example = "MTY1MzA3MzUwMDAwMDox.0mLBBlFcjRrG8Fd2ERr3rg",
+            description = "Send this as the `cursor` parameter to get the next page of disputes. " +
+                    "Only included on the first page of results, or a page you got with `cursor`, when there are more disputes.")
+    private String nextCursor;
     @Schema(name = "links", description = "Contains links you can use to move between the pages of this search.")
     SearchNavigationLinks links;
 
-    public DisputesSearchResults(int total, int count, int page, List<DisputeForSearchResult> results,
+    public DisputesSearchResults(Integer total, int count, int page, List<DisputeForSearchResult> results,
                                  SearchNavigationLinks links) {
+        this(total, count, page, results, null, links);
+    }
+
+    public DisputesSearchResults(Integer total, int count, int page, List<DisputeForSearchResult> results,
+                                 String nextCursor, SearchNavigationLinks links) {
         this.total = total;
         this.count = count;
         this.page = page;
         this.results = results;
+        this.nextCursor = nextCursor;
         this.links = links;
     }
 
-    @Override
     public int getCount() {
         return count;
     }
 
-    @Override
-    public int getTotal() {
+    public Integer getTotal() {
         return total;
     }
 
-    @Override
     public int getPage() {
         return page;
     }
 
-    @Override
     public SearchNavigationLinks getLinks() {
         return links;
     }
@@ -52,4 +61,8 @@ public class DisputesSearchResults implements SearchPagination {
     public List<DisputeForSearchResult> getResults() {
         return results;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
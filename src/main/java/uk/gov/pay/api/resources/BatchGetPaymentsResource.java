@@ -0,0 +1,112 @@
+package uk.gov.pay.api.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import io.dropwizard.auth.Auth;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.RateLimiterKey;
+import uk.gov.pay.api.filter.ratelimit.RateLimitException;
+import uk.gov.pay.api.filter.ratelimit.RateLimiter;
+import uk.gov.pay.api.model.BatchGetPaymentsRequest;
+import uk.gov.pay.api.model.BatchGetPaymentsResponse;
+import uk.gov.pay.api.model.RequestError;
+import uk.gov.pay.api.resources.error.ApiErrorResponse;
+import uk.gov.pay.api.service.BatchGetPaymentsService;
+
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_200_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_401_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_429_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_500_DESCRIPTION;
+import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse;
+
+@Path("/v1/payments/batch_get")
+@Tag(name = "Card payments")
+@Produces({"application/json"})
+public class BatchGetPaymentsResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchGetPaymentsResource.class);
+
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+
+    private final BatchGetPaymentsService batchGetPaymentsService;
+    private final RateLimiter rateLimiter;
+
+    @Inject
+    public BatchGetPaymentsResource(BatchGetPaymentsService batchGetPaymentsService, RateLimiter rateLimiter) {
+        this.batchGetPaymentsService = batchGetPaymentsService;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @POST
+    @Timed
+    @Produces(APPLICATION_JSON)
+    @Consumes(APPLICATION_JSON)
+    @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
+            operationId = "Get a batch of payments",
+            summary = "Get information about several payments",
+            description = "You can use this endpoint to get information about up to 100 payments in one request. " +
+                    "Results are in the same order as the `payment_ids` you sent. A payment that cannot be got has " +
+                    "an `error` instead of a `payment`. Each payment counts as one request against your rate limit.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = RESPONSE_200_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = BatchGetPaymentsResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request",
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
+                    @ApiResponse(responseCode = "401", description = RESPONSE_401_DESCRIPTION),
+                    @ApiResponse(responseCode = "429", description = RESPONSE_429_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+                    @ApiResponse(responseCode = "500", description = RESPONSE_500_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = RequestError.class)))
+            }
+    )
+    public BatchGetPaymentsResponse batchGetPayments(@Parameter(hidden = true) @Auth Account account,
+                                                     @Parameter(required = true, description = "requestPayload")
+                                                     BatchGetPaymentsRequest requestPayload) {
+        logger.info("Batch get payments request - [ {} ]", requestPayload);
+        // An invalid batch still counts as one request, as it would if the filter had checked it
+        int numberOfPayments = 1;
+        try {
+            batchGetPaymentsService.validate(requestPayload);
+            numberOfPayments = requestPayload.getPaymentIds().size();
+        } finally {
+            checkRateOfBatch(account, numberOfPayments);
+        }
+        BatchGetPaymentsResponse response = batchGetPaymentsService.getPayments(account, requestPayload);
+        logger.info("Batch get payments returned - [ {} ]", response);
+        return response;
+    }
+
+    /**
+     * The rate limiter filter leaves batches to be checked here. The batch counts as one GET request per payment in
+     * it, so that it counts the same as getting its payments one at a time, and is checked in one go.
+     */
+    private void checkRateOfBatch(Account account, int numberOfPayments) {
+        try {
+            rateLimiter.checkRateOf(account.accountId(), RateLimiterKey.forBatchGetPayments(account.accountId()),
+                    numberOfPayments);
+        } catch (RateLimitException e) {
+            logger.info("Rate limit reached for batch get of {} payments for account {}. Sending response '429 Too Many Requests'",
+                    numberOfPayments, account.accountId());
+            throw new WebApplicationException(Response.status(TOO_MANY_REQUESTS_STATUS_CODE)
+                    .entity(anApiErrorResponse(ApiErrorResponse.Code.TOO_MANY_REQUESTS_ERROR))
+                    .type(APPLICATION_JSON)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package uk.gov.pay.api.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.auth.Auth;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.RateLimiterKey;
+import uk.gov.pay.api.filter.ratelimit.RateLimitException;
+import uk.gov.pay.api.filter.ratelimit.RateLimiter;
+import uk.gov.pay.api.model.BulkRefundRequest;
+import uk.gov.pay.api.model.BulkRefundResponse;
+import uk.gov.pay.api.model.RequestError;
+import uk.gov.pay.api.resources.error.ApiErrorResponse;
+import uk.gov.pay.api.service.BulkRefundService;
+import uk.gov.pay.api.service.BulkRefundService.RunningRequest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_401_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_429_DESCRIPTION;
+import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse;
+
+@Path("/v1/refunds/bulk")
+@Tag(name = "Refunding card payments")
+@Produces({"application/json"})
+public class BulkRefundResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkRefundResource.class);
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+
+    private final BulkRefundService bulkRefundService;
+    private final ObjectMapper objectMapper;
+    private final RateLimiter rateLimiter;
+
+    @Inject
+    public BulkRefundResource(BulkRefundService bulkRefundService, ObjectMapper objectMapper, RateLimiter rateLimiter) {
+        this.bulkRefundService = bulkRefundService;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @POST
+    @Timed
+    @Produces(APPLICATION_JSON)
+    @Consumes(APPLICATION_JSON)
+    @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
+            operationId = "Submit refunds for several payments",
+            summary = "Refund several payments",
+            description = "You can use this endpoint to fully or partially refund up to 1,000 payments in one request. " +
+                    "Every refund is checked before any are created. Results are in the same order as the `refunds` " +
+                    "you sent and are returned as each refund is created. Each result has the `status` that " +
+                    "refunding the payment on its own would have returned, with either the `refund` or an `error`. " +
+                    "Each refund counts as one request against your rate limit. If your account already has too " +
+                    "many bulk refund requests running, this returns 429. A refund that cannot be started in time " +
+                    "is not created and has a 429 `status`.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = BulkRefundResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request",
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
+                    @ApiResponse(responseCode = "401", description = RESPONSE_401_DESCRIPTION),
+                    @ApiResponse(responseCode = "429", description = RESPONSE_429_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+            }
+    )
+    public Response submitRefunds(@Parameter(hidden = true) @Auth Account account,
+                                  @Parameter(required = true, description = "requestPayload")
+                                  BulkRefundRequest requestPayload) {
+        int numberOfRefunds = requestPayload == null || requestPayload.getRefunds() == null ? 0 : requestPayload.getRefunds().size();
+        logger.info("Bulk refund request of {} refunds for account {}", numberOfRefunds, account.accountId());
+        // An invalid bulk refund still counts as one request, as it would if the filter had checked it
+        int cost = 1;
+        try {
+            bulkRefundService.validate(requestPayload);
+            cost = numberOfRefunds;
+        } finally {
+            checkRateOfBulkRefund(account, cost);
+        }
+        RunningRequest runningRequest = bulkRefundService.tryStart(account).orElseThrow(() -> {
+            logger.info("Account {} already has as many bulk refund requests running as it is allowed. Sending response '429 Too Many Requests'",
+                    account.accountId());
+            return new WebApplicationException(Response.status(TOO_MANY_REQUESTS_STATUS_CODE)
+                    .entity(anApiErrorResponse(ApiErrorResponse.Code.TOO_MANY_REQUESTS_ERROR))
+                    .type(APPLICATION_JSON)
+                    .build());
+        });
+
+        StreamingOutput results = outputStream -> {
+            try (runningRequest; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("results");
+                bulkRefundService.createRefunds(account, requestPayload, result -> {
+                    try {
+                        generator.writeObject(result);
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while creating bulk refunds");
+            }
+        };
+        return Response.ok(results).build();
+    }
+
+    /**
+     * The rate limiter filter leaves bulk refunds to be checked here. The bulk refund counts as one POST request per
+     * refund in it, so that it counts the same as refunding its payments one at a time, and is checked in one go
+     * before any results are streamed.
+     */
+    private void checkRateOfBulkRefund(Account account, int numberOfRefunds) {
+        try {
+            rateLimiter.checkRateOf(account.accountId(), RateLimiterKey.forBulkRefunds(account.accountId()), numberOfRefunds);
+        } catch (RateLimitException e) {
+            logger.info("Rate limit reached for bulk refund of {} refunds for account {}. Sending response '429 Too Many Requests'",
+                    numberOfRefunds, account.accountId());
+            throw new WebApplicationException(Response.status(TOO_MANY_REQUESTS_STATUS_CODE)
+                    .entity(anApiErrorResponse(ApiErrorResponse.Code.TOO_MANY_REQUESTS_ERROR))
+                    .type(APPLICATION_JSON)
+                    .build());
+        }
+    }
+}
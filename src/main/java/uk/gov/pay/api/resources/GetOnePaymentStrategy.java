@@ -9,12 +9,19 @@ public class GetOnePaymentStrategy extends LedgerOrConnectorStrategyTemplate<Pay
     private final Account account;
     private final String paymentId;
     private final GetPaymentService getPaymentService;
+    private final boolean useFinishedPaymentCache;
 
     public GetOnePaymentStrategy(String strategy, Account account, String paymentId, GetPaymentService getPaymentService) {
+        this(strategy, account, paymentId, getPaymentService, false);
+    }
+
+    public GetOnePaymentStrategy(String strategy, Account account, String paymentId, GetPaymentService getPaymentService,
+                                 boolean useFinishedPaymentCache) {
         super(strategy);
         this.account = account;
         this.paymentId = paymentId;
         this.getPaymentService = getPaymentService;
+        this.useFinishedPaymentCache = useFinishedPaymentCache;
     }
 
     @Override
@@ -24,6 +31,9 @@ public class GetOnePaymentStrategy extends LedgerOrConnectorStrategyTemplate<Pay
 
     @Override
     protected PaymentWithAllLinks executeDefaultStrategy() {
+        if (useFinishedPaymentCache) {
+            return getPaymentService.getPaymentUsingCache(account, paymentId);
+        }
         return getPaymentService.getPayment(account, paymentId);
     }
 
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.ETagged;
 import uk.gov.pay.api.model.CreatePaymentRefundRequest;
 import uk.gov.pay.api.model.RefundResponse;
 import uk.gov.pay.api.model.RefundsResponse;
@@ -96,6 +97,7 @@ public class PaymentRefundsResource {
 
     @GET
     @Timed
+    @ETagged
     @Path("/{refundId}")
     @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
             operationId = "Get a payment refund",
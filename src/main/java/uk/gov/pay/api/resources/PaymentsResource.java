@@ -14,8 +14,11 @@ import org.apache.hc.core5.http.HttpStatus;
 import org.hibernate.validator.constraints.Length;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PaymentLongPollConfig;
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
 import uk.gov.pay.api.exception.CaptureChargeException;
+import uk.gov.pay.api.filter.ETagged;
 import uk.gov.pay.api.model.CreateCardPaymentRequest;
 import uk.gov.pay.api.model.CreatePaymentResult;
 import uk.gov.pay.api.model.CreatedPaymentWithAllLinks;
@@ -29,6 +32,10 @@ import uk.gov.pay.api.service.CapturePaymentService;
 import uk.gov.pay.api.service.CreatePaymentService;
 import uk.gov.pay.api.service.GetPaymentEventsService;
 import uk.gov.pay.api.service.GetPaymentService;
+import uk.gov.pay.api.service.PaymentChangeWatcher;
+import uk.gov.pay.api.service.PaymentEmbeddedResourcesService;
+import uk.gov.pay.api.service.PaymentEmbeddedResourcesService.Embed;
+import uk.gov.pay.api.service.PaymentEmbeddedResourcesService.EmbeddedResources;
 import uk.gov.pay.api.service.PaymentSearchParams;
 import uk.gov.pay.api.service.PaymentSearchService;
 import uk.gov.pay.api.service.PublicApiUriGenerator;
@@ -44,9 +51,15 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static java.lang.String.format;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -60,6 +73,8 @@ import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_409_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_422_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_429_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_500_DESCRIPTION;
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
 
 @Path("/")
 @Tag(name = "Card payments")
@@ -75,6 +90,9 @@ public class PaymentsResource {
     private final CapturePaymentService capturePaymentService;
     private final CancelPaymentService cancelPaymentService;
     private final GetPaymentEventsService getPaymentEventsService;
+    private final PaymentChangeWatcher paymentChangeWatcher;
+    private final PaymentLongPollConfig paymentLongPollConfig;
+    private final PaymentEmbeddedResourcesService paymentEmbeddedResourcesService;
 
     @Inject
     public PaymentsResource(CreatePaymentService createPaymentService,
@@ -83,7 +101,10 @@ public class PaymentsResource {
                             GetPaymentService getPaymentService,
                             CapturePaymentService capturePaymentService,
                             CancelPaymentService cancelPaymentService,
-                            GetPaymentEventsService getPaymentEventsService) {
+                            GetPaymentEventsService getPaymentEventsService,
+                            PaymentChangeWatcher paymentChangeWatcher,
+                            PaymentLongPollConfig paymentLongPollConfig,
+                            PaymentEmbeddedResourcesService paymentEmbeddedResourcesService) {
         this.createPaymentService = createPaymentService;
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.paymentSearchService = paymentSearchService;
@@ -91,10 +112,14 @@ public class PaymentsResource {
         this.capturePaymentService = capturePaymentService;
         this.cancelPaymentService = cancelPaymentService;
         this.getPaymentEventsService = getPaymentEventsService;
+        this.paymentChangeWatcher = paymentChangeWatcher;
+        this.paymentLongPollConfig = paymentLongPollConfig;
+        this.paymentEmbeddedResourcesService = paymentEmbeddedResourcesService;
     }
 
     @GET
     @Timed
+    @ETagged
     @Path("/v1/payments/{paymentId}")
     @Produces(APPLICATION_JSON)
     @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
@@ -105,6 +130,8 @@ public class PaymentsResource {
             responses = {
                     @ApiResponse(responseCode = "200", description = RESPONSE_200_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = PaymentWithAllLinks.class))),
+                    @ApiResponse(responseCode = "400", description = RESPONSE_400_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
                     @ApiResponse(responseCode = "401",
                             description = RESPONSE_401_DESCRIPTION),
                     @ApiResponse(responseCode = "404", description = RESPONSE_404_DESCRIPTION,
@@ -115,22 +142,95 @@ public class PaymentsResource {
                             content = @Content(schema = @Schema(implementation = RequestError.class)))
             }
     )
-    public Response getPayment(@Parameter(hidden = true) @Auth Account account,
-                               @PathParam("paymentId")
-                               @Parameter(name = "paymentId", description = "Returns the payment with the matching `payment_id`.", example = "hu20sqlact5260q2nanm0q8u93")
-                               String paymentId,
-                               @Parameter(hidden = true) @HeaderParam("X-Ledger") String strategyName) {
+    public void getPayment(@Parameter(hidden = true) @Auth Account account,
+                           @PathParam("paymentId")
+                           @Parameter(name = "paymentId", description = "Returns the payment with the matching `payment_id`.", example = "hu20sqlact5260q2nanm0q8u93")
+                           String paymentId,
+                           @QueryParam("wait_for_change_from")
+                           @Parameter(name = "wait_for_change_from", description = "If the payment's `state.status` is this value, " +
+                                   "waits until it changes or the `timeout` has passed before returning the payment.", example = "submitted")
+                           String waitForChangeFrom,
+                           @QueryParam("timeout")
+                           @Parameter(name = "timeout", description = "How long to wait for the payment's status to change, " +
+                                   "for example `20s`. Defaults to and cannot be more than 30 seconds.", example = "30s")
+                           String timeout,
+                           @QueryParam("embed")
+                           @Parameter(name = "embed", description = "Comma-separated list of sub-resources to return in " +
+                                   "`_embedded` with the payment: `events`, `refunds` or both.", example = "events,refunds")
+                           String embed,
+                           @Parameter(hidden = true) @HeaderParam("X-Ledger") String strategyName,
+                           @Suspended AsyncResponse asyncResponse) {
 
-        var strategy = new GetOnePaymentStrategy(strategyName, account, paymentId, getPaymentService);
-        PaymentWithAllLinks payment = strategy.validateAndExecute();
-        
-        logger.info("Payment returned - [ {} ]", payment);
+        Set<Embed> embeds = PaymentEmbeddedResourcesService.parseEmbed(embed);
+        CompletableFuture<EmbeddedResources> embeddedResources = waitForChangeFrom == null && !embeds.isEmpty()
+                ? paymentEmbeddedResourcesService.startGetting(account, paymentId, embeds)
+                : null;
+
+        var strategy = new GetOnePaymentStrategy(strategyName, account, paymentId, getPaymentService, true);
+        PaymentWithAllLinks payment;
+        try {
+            payment = strategy.validateAndExecute();
+        } catch (RuntimeException e) {
+            if (embeddedResources != null) {
+                embeddedResources.cancel(true);
+            }
+            throw e;
+        }
+
+        if (waitForChangeFrom == null) {
+            Object entity = embeddedResources == null ? payment : join(embeddedResources).embedIn(payment);
+            logger.info("Payment returned - [ {} ]", entity);
+            asyncResponse.resume(paymentResponse(entity));
+            return;
+        }
+
+        paymentChangeWatcher.waitForChange(account, paymentId, strategyName, waitForChangeFrom, payment,
+                        longPollTimeout(timeout))
+                .thenCompose(changedPayment -> embeds.isEmpty()
+                        ? CompletableFuture.<Object>completedFuture(changedPayment)
+                        : paymentEmbeddedResourcesService.startGetting(account, paymentId, embeds)
+                                .<Object>thenApply(changedPaymentResources -> changedPaymentResources.embedIn(changedPayment)))
+                .whenComplete((entity, e) -> {
+                    if (e != null) {
+                        asyncResponse.resume(e instanceof CompletionException ? e.getCause() : e);
+                        return;
+                    }
+                    logger.info("Payment returned after waiting for change from {} - [ {} ]", waitForChangeFrom, entity);
+                    asyncResponse.resume(paymentResponse(entity));
+                });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Response paymentResponse(Object payment) {
         return Response.ok(payment)
                 .header(PRAGMA, "no-cache")
                 .header(CACHE_CONTROL, "no-store")
                 .build();
     }
 
+    private Duration longPollTimeout(String timeout) {
+        Duration maxTimeout = paymentLongPollConfig.getMaxTimeout().toJavaDuration();
+        if (timeout == null) {
+            return maxTimeout;
+        }
+        try {
+            Duration requested = io.dropwizard.util.Duration.parse(timeout).toJavaDuration();
+            return requested.compareTo(maxTimeout) < 0 ? requested : maxTimeout;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(aRequestError(GET_PAYMENT_VALIDATION_ERROR, "timeout"));
+        }
+    }
+
     @GET
     @Timed
     @Path("/v1/payments/{paymentId}/events")
@@ -235,6 +335,11 @@ public class PaymentsResource {
                                    @Parameter(description = "Returns payments that were authorised using the agreement with this `agreement_id`. " +
                                            "Must be an exact match.", example = "abcefghjklmnopqr1234567890")
                                    @QueryParam("agreement_id") String agreementId,
+                                   @Parameter(description = "Returns the page of results after the one that gave you this `next_cursor`. " +
+                                           "Send the same search parameters as before, without `page`. " +
+                                           "Unlike `page`, a cursor is not affected by payments created while you go through the results.",
+                                           example = "MTQ1Mzc0ODIzNTA2Nzox.1fYkOy6HtBRdGvZz0WMnKQ")
+                                   @QueryParam("cursor") String cursor,
                                    @Context UriInfo uriInfo) {
 
         logger.info("Payments search request - [ reference: {}, email: REDACTED, status: {}, card_brand {}, fromDate: {}, toDate: {}, page: {}, display_size: {}, cardholder_name: REDACTED, first_digits_card_number: {}, last_digits_card_number: {}, from_settled_date: {}, to_settled_date: {}, agreement_id: {} ]",
@@ -255,6 +360,7 @@ public class PaymentsResource {
                 .withFromSettledDate(fromSettledDate)
                 .withToSettledDate(toSettledDate)
                 .withAgreementId(agreementId)
+                .withCursor(cursor)
                 .build();
 
         return paymentSearchService.searchLedgerPayments(account, paymentSearchParams);
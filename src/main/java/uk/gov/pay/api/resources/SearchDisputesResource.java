@@ -90,7 +90,11 @@ public class SearchDisputesResource {
                                                 @Parameter(description = "Returns a specific page of results. Defaults to `1`.")
                                                 @QueryParam("page") String pageNumber,
                                                 @Parameter(description = "The number of disputes returned per results page. Defaults to `500`. Maximum value is `500`.")
-                                                @QueryParam("display_size") String displaySize) {
+                                                @QueryParam("display_size") String displaySize,
+                                                @Parameter(description = "Returns the page of results after the one that gave you this `next_cursor`. " +
+                                                        "Send the same search parameters as before, without `page`.",
+                                                        example = "MTY1MzA3MzUwMDAwMDox.0mLBBlFcjRrG8Fd2ERr3rg")
+                                                @QueryParam("cursor") String cursor) {
         
         DisputesSearchParams params = new DisputesSearchParams.Builder()
                 .withFromDate(fromDate)
@@ -100,6 +104,7 @@ public class SearchDisputesResource {
                 .withStatus(status)
                 .withPage(pageNumber)
                 .withDisplaySize(displaySize)
+                .withCursor(cursor)
                 .build();
 
         validateDisputeParameters(params);
@@ -0,0 +1,199 @@
+package uk.gov.pay.api.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import io.dropwizard.auth.Auth;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.PaymentValidationException;
+import uk.gov.pay.api.exception.RefundsValidationException;
+import uk.gov.pay.api.model.RequestError;
+import uk.gov.pay.api.resources.error.ApiErrorResponse;
+import uk.gov.pay.api.service.ExportFormat;
+import uk.gov.pay.api.service.PaymentSearchParams;
+import uk.gov.pay.api.service.RefundsParams;
+import uk.gov.pay.api.service.SearchExportService;
+
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.apache.hc.core5.http.HttpHeaders.CACHE_CONTROL;
+import static org.apache.hc.core5.http.HttpHeaders.PRAGMA;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_200_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_401_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_429_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_500_DESCRIPTION;
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_PAYMENTS_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_REFUNDS_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+
+/**
+ * Errors are returned as JSON, which is why it is produced as well as the export formats, which are chosen with
+ * the format query parameter rather than the Accept header.
+ */
+@Path("/")
+public class SearchExportResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchExportResource.class);
+    private static final String EXPORT_END_DESCRIPTION = " The last line of the export is " +
+            "`{\"export\": {\"status\": \"complete\", \"count\": 3}}`, or `# export complete; count: 3` for CSV, " +
+            "with the number of results exported. If the export fails part of the way through, the last line has a " +
+            "`failed` status and an `error` instead, and the export does not have every result.";
+    private static final String FORMAT_DESCRIPTION = "`ndjson` for one JSON object per line, or `csv`. Defaults to `ndjson`.";
+
+    private final SearchExportService searchExportService;
+
+    @Inject
+    public SearchExportResource(SearchExportService searchExportService) {
+        this.searchExportService = searchExportService;
+    }
+
+    @GET
+    @Timed
+    @Path("/v1/payments/export")
+    @Produces({APPLICATION_JSON, "application/x-ndjson", "text/csv"})
+    @Tag(name = "Card payments")
+    @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
+            operationId = "Export payments",
+            summary = "Export payments",
+            description = "You can use this endpoint to get every payment matching a search in one response, instead of " +
+                    "a page at a time. Takes the same parameters as searching payments, except `page` and `display_size`. " +
+                    "Payments are sorted by date, with the most recently-created payment first. If you do not set " +
+                    "`to_date`, payments created after the export starts are not included." +
+                    EXPORT_END_DESCRIPTION,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = RESPONSE_200_DESCRIPTION),
+                    @ApiResponse(responseCode = "401", description = RESPONSE_401_DESCRIPTION),
+                    @ApiResponse(responseCode = "422",
+                            description = "Invalid parameters: format, from_date, to_date, status. See Public API documentation for the correct data formats",
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
+                    @ApiResponse(responseCode = "429", description = RESPONSE_429_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+                    @ApiResponse(responseCode = "500", description = RESPONSE_500_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = RequestError.class)))
+            }
+    )
+    public Response exportPayments(@Parameter(hidden = true) @Auth Account account,
+                                   @Parameter(description = FORMAT_DESCRIPTION, schema = @Schema(allowableValues = {"ndjson", "csv"}))
+                                   @QueryParam("format") String format,
+                                   @Parameter(description = "Returns payments with `reference` values exactly matching your specified value.")
+                                   @QueryParam("reference") String reference,
+                                   @Parameter(description = "Returns payments with matching `email` values.")
+                                   @QueryParam("email") String email,
+                                   @Parameter(description = "Returns payments in a matching `state`.", example = "success",
+                                           schema = @Schema(allowableValues = {"created", "started", "submitted", "success", "failed", "cancelled", "error"}))
+                                   @QueryParam("state") String state,
+                                   @Parameter(description = "Returns payments paid with a particular card brand.")
+                                   @QueryParam("card_brand") String cardBrand,
+                                   @Parameter(description = "Returns payments created on or after the `from_date`.", example = "2015-08-13T12:35:00Z")
+                                   @QueryParam("from_date") String fromDate,
+                                   @Parameter(description = "Returns payments created before the `to_date`.", example = "2015-08-13T12:35:00Z")
+                                   @QueryParam("to_date") String toDate,
+                                   @Parameter(description = "Returns payments paid with cards under this cardholder name.")
+                                   @QueryParam("cardholder_name") String cardHolderName,
+                                   @Parameter(description = "Returns payments paid by cards beginning with the `first_digits_card_number` value.")
+                                   @QueryParam("first_digits_card_number") String firstDigitsCardNumber,
+                                   @Parameter(description = "Returns payments paid by cards ending with the `last_digits_card_number` value.")
+                                   @QueryParam("last_digits_card_number") String lastDigitsCardNumber,
+                                   @Parameter(description = "Returns payments settled on or after the `from_settled_date` value.")
+                                   @QueryParam("from_settled_date") String fromSettledDate,
+                                   @Parameter(description = "Returns payments settled before the `to_settled_date` value.")
+                                   @QueryParam("to_settled_date") String toSettledDate,
+                                   @Parameter(description = "Returns payments that were authorised using the agreement with this `agreement_id`.")
+                                   @QueryParam("agreement_id") String agreementId) {
+
+        logger.info("Payments export request - [ format: {}, reference: {}, email: REDACTED, status: {}, card_brand {}, fromDate: {}, toDate: {}, cardholder_name: REDACTED, first_digits_card_number: {}, last_digits_card_number: {}, from_settled_date: {}, to_settled_date: {}, agreement_id: {} ]",
+                format, reference, state, cardBrand, fromDate, toDate, firstDigitsCardNumber, lastDigitsCardNumber, fromSettledDate, toSettledDate, agreementId);
+
+        ExportFormat exportFormat = ExportFormat.fromName(format)
+                .orElseThrow(() -> new PaymentValidationException(aRequestError(SEARCH_PAYMENTS_VALIDATION_ERROR, "format")));
+
+        var paymentSearchParams = new PaymentSearchParams.Builder()
+                .withReference(reference)
+                .withEmail(email)
+                .withState(state)
+                .withCardBrand(cardBrand)
+                .withFromDate(fromDate)
+                .withToDate(toDate)
+                .withCardHolderName(cardHolderName)
+                .withFirstDigitsCardNumber(firstDigitsCardNumber)
+                .withLastDigitsCardNumber(lastDigitsCardNumber)
+                .withFromSettledDate(fromSettledDate)
+                .withToSettledDate(toSettledDate)
+                .withAgreementId(agreementId)
+                .build();
+
+        return exportResponse(searchExportService.exportPayments(account, paymentSearchParams, exportFormat),
+                exportFormat, "payments");
+    }
+
+    @GET
+    @Timed
+    @Path("/v1/refunds/export")
+    @Produces({APPLICATION_JSON, "application/x-ndjson", "text/csv"})
+    @Tag(name = "Refunding card payments")
+    @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
+            operationId = "Export refunds",
+            summary = "Export refunds",
+            description = "You can use this endpoint to get every refund matching a search in one response, instead of " +
+                    "a page at a time. Takes the same parameters as searching refunds, except `page` and `display_size`. " +
+                    "Refunds are sorted by date, with the most recently created refund first. If you do not set " +
+                    "`to_date`, refunds created after the export starts are not included." +
+                    EXPORT_END_DESCRIPTION,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = RESPONSE_200_DESCRIPTION),
+                    @ApiResponse(responseCode = "401", description = RESPONSE_401_DESCRIPTION),
+                    @ApiResponse(responseCode = "422", description = "Invalid parameters. See Public API documentation for the correct data formats",
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
+                    @ApiResponse(responseCode = "429", description = RESPONSE_429_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+                    @ApiResponse(responseCode = "500", description = RESPONSE_500_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = RequestError.class)))
+            }
+    )
+    public Response exportRefunds(@Parameter(hidden = true) @Auth Account account,
+                                  @Parameter(description = FORMAT_DESCRIPTION, schema = @Schema(allowableValues = {"ndjson", "csv"}))
+                                  @QueryParam("format") String format,
+                                  @Parameter(description = "Returns refunds created on or after the `from_date`.", example = "2015-08-13T12:35:00Z")
+                                  @QueryParam("from_date") String fromDate,
+                                  @Parameter(description = "Returns refunds created before the `to_date`.", example = "2015-08-13T12:35:00Z")
+                                  @QueryParam("to_date") String toDate,
+                                  @Parameter(description = "Returns refunds settled on or after the `from_settled_date` value.", example = "2022-08-13")
+                                  @QueryParam("from_settled_date") String fromSettledDate,
+                                  @Parameter(description = "Returns refunds settled before the `to_settled_date` value.", example = "2022-08-13")
+                                  @QueryParam("to_settled_date") String toSettledDate) {
+
+        logger.info("Refunds export request - [ format: {}, from_date: {}, to_date: {}, from_settled_date: {}, to_settled_date: {} ]",
+                format, fromDate, toDate, fromSettledDate, toSettledDate);
+
+        ExportFormat exportFormat = ExportFormat.fromName(format)
+                .orElseThrow(() -> new RefundsValidationException(aRequestError(SEARCH_REFUNDS_VALIDATION_ERROR, "format")));
+
+        var refundsParams = new RefundsParams(fromDate, toDate, null, null, fromSettledDate, toSettledDate);
+
+        return exportResponse(searchExportService.exportRefunds(account, refundsParams, exportFormat),
+                exportFormat, "refunds");
+    }
+
+    private static Response exportResponse(StreamingOutput export, ExportFormat format, String name) {
+        Response.ResponseBuilder response = Response.ok(export, format.getMediaType())
+                .header(PRAGMA, "no-cache")
+                .header(CACHE_CONTROL, "no-store");
+        if (format == ExportFormat.CSV) {
+            response.header("Content-Disposition", "attachment; filename=\"" + name + ".csv\"");
+        }
+        return response.build();
+    }
+}
@@ -88,11 +88,15 @@ public class SearchRefundsResource {
                                   @QueryParam("page") String pageNumber,
                                   @Parameter(description = "The number of refunds returned [per results page](https://docs.payments.service.gov.uk/api_reference/#pagination). " +
                                           "Defaults to `500`. Maximum value is `500`.", hidden = false)
-                                  @QueryParam("display_size") String displaySize) {
+                                  @QueryParam("display_size") String displaySize,
+                                  @Parameter(description = "Returns the page of results after the one that gave you this `next_cursor`. " +
+                                          "Send the same search parameters as before, without `page`.",
+                                          example = "MTY0NjE0NzI1NTA2Nzox.yZJ6wnAgDDgHvqmH7U0rSA")
+                                  @QueryParam("cursor") String cursor) {
 
         
         RefundsParams refundsParams = new RefundsParams(fromDate, toDate, pageNumber, displaySize,
-                fromSettledDate, toSettledDate);
+                fromSettledDate, toSettledDate, cursor);
         
         validateSearchParameters(refundsParams);
 
@@ -1,5 +1,6 @@
 package uk.gov.pay.api.service;
 
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.exception.AuthorisationRequestException;
 import uk.gov.pay.api.model.AuthorisationRequest;
 
@@ -16,7 +17,7 @@ public class AuthorisationService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public AuthorisationService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public AuthorisationService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
     }
@@ -0,0 +1,172 @@
+package uk.gov.pay.api.service;
+
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
+import uk.gov.pay.api.exception.GetChargeException;
+import uk.gov.pay.api.model.BatchGetPaymentsRequest;
+import uk.gov.pay.api.model.BatchGetPaymentsResponse;
+import uk.gov.pay.api.model.BatchGetPaymentsResponse.Result;
+import uk.gov.pay.api.validation.ExternalIdValidator;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static uk.gov.pay.api.model.BatchGetPaymentsRequest.MAX_PAYMENT_IDS;
+import static uk.gov.pay.api.model.BatchGetPaymentsRequest.PAYMENT_IDS_FIELD_NAME;
+import static uk.gov.pay.api.model.RequestError.Code.BATCH_GET_PAYMENTS_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_CONNECTOR_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_NOT_FOUND_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+
+/**
+ * Gets many payments for one request, each as {@link GetPaymentService} would get it on its own, with at most
+ * as many being got at once across all requests as there are threads in the executor.
+ * <p>
+ * Each request has no more than {@value #MAX_LOOKUPS_IN_FLIGHT_PER_BATCH} of its payments being got at once, so that
+ * one large batch cannot fill the executor's queue ahead of everyone else's, and waits no longer than the batch
+ * timeout for all of them. A payment that has not been got by then has an error in place of it.
+ */
+@Singleton
+public class BatchGetPaymentsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchGetPaymentsService.class);
+    private static final int BATCH_GET_PAYMENTS_THREADS = 16;
+    static final int MAX_LOOKUPS_IN_FLIGHT_PER_BATCH = 4;
+    private static final Duration BATCH_TIMEOUT = Duration.ofSeconds(20);
+
+    private final GetPaymentService getPaymentService;
+    private final ExecutorService executor;
+    private final Duration batchTimeout;
+
+    @Inject
+    public BatchGetPaymentsService(GetPaymentService getPaymentService, Environment environment) {
+        this(getPaymentService, environment.lifecycle().executorService("batch-get-payments-%d")
+                .minThreads(BATCH_GET_PAYMENTS_THREADS)
+                .maxThreads(BATCH_GET_PAYMENTS_THREADS)
+                .build(), BATCH_TIMEOUT);
+    }
+
+    BatchGetPaymentsService(GetPaymentService getPaymentService, ExecutorService executor, Duration batchTimeout) {
+        this.getPaymentService = getPaymentService;
+        this.executor = executor;
+        this.batchTimeout = batchTimeout;
+    }
+
+    public void validate(BatchGetPaymentsRequest request) {
+        List<String> paymentIds = request == null ? null : request.getPaymentIds();
+        if (paymentIds == null || paymentIds.isEmpty() || paymentIds.size() > MAX_PAYMENT_IDS) {
+            throw new BadRequestException(aRequestError(PAYMENT_IDS_FIELD_NAME, BATCH_GET_PAYMENTS_VALIDATION_ERROR,
+                    "Must contain between 1 and " + MAX_PAYMENT_IDS + " payment IDs"));
+        }
+        for (int i = 0; i < paymentIds.size(); i++) {
+            if (!ExternalIdValidator.isValid(paymentIds.get(i))) {
+                throw new BadRequestException(aRequestError(format("%s[%d]", PAYMENT_IDS_FIELD_NAME, i),
+                        BATCH_GET_PAYMENTS_VALIDATION_ERROR,
+                        format("Must be a payment ID of up to %d letters and numbers", ExternalIdValidator.MAX_LENGTH)));
+            }
+        }
+    }
+
+    public BatchGetPaymentsResponse getPayments(Account account, BatchGetPaymentsRequest request) {
+        validate(request);
+        List<String> paymentIds = request.getPaymentIds();
+        long deadline = System.nanoTime() + batchTimeout.toNanos();
+
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        Semaphore lookupsInFlight = new Semaphore(MAX_LOOKUPS_IN_FLIGHT_PER_BATCH);
+        Map<String, CompletableFuture<Result>> lookups = new HashMap<>();
+        for (String paymentId : paymentIds) {
+            if (lookups.containsKey(paymentId)) {
+                continue;
+            }
+            if (!tryAcquire(lookupsInFlight, deadline)) {
+                break;
+            }
+            CompletableFuture<Result> lookup;
+            try {
+                lookup = CompletableFuture.supplyAsync(() -> {
+                    if (mdcContext != null) {
+                        MDC.setContextMap(mdcContext);
+                    }
+                    try {
+                        return lookUp(account, paymentId);
+                    } finally {
+                        MDC.clear();
+                    }
+                }, executor);
+            } catch (RuntimeException e) {
+                lookupsInFlight.release();
+                throw e;
+            }
+            lookup.whenComplete((result, e) -> lookupsInFlight.release());
+            lookups.put(paymentId, lookup);
+        }
+
+        List<Result> results = paymentIds.stream()
+                .map(paymentId -> await(paymentId, lookups.get(paymentId), deadline))
+                .toList();
+        // anything still queued is no longer wanted
+        lookups.values().forEach(lookup -> lookup.cancel(false));
+        return new BatchGetPaymentsResponse(results);
+    }
+
+    private static boolean tryAcquire(Semaphore lookupsInFlight, long deadline) {
+        try {
+            return lookupsInFlight.tryAcquire(deadline - System.nanoTime(), NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Result await(String paymentId, CompletableFuture<Result> lookup, long deadline) {
+        if (lookup == null) {
+            return notGotInTime(paymentId);
+        }
+        try {
+            return lookup.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return notGotInTime(paymentId);
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            return notGotInTime(paymentId);
+        }
+    }
+
+    private Result notGotInTime(String paymentId) {
+        LOGGER.warn("Did not get payment {} in batch within {}", paymentId, batchTimeout);
+        return Result.ofError(paymentId, aRequestError(GET_PAYMENT_CONNECTOR_ERROR));
+    }
+
+    private Result lookUp(Account account, String paymentId) {
+        try {
+            return Result.of(paymentId, getPaymentService.getPaymentUsingCache(account, paymentId));
+        } catch (GetChargeException e) {
+            if (e.getErrorStatus() == NOT_FOUND.getStatusCode()) {
+                return Result.ofError(paymentId, aRequestError(GET_PAYMENT_NOT_FOUND_ERROR));
+            }
+            LOGGER.error("Failed to get payment {} in batch: {}", paymentId, e.getMessage());
+            return Result.ofError(paymentId, aRequestError(GET_PAYMENT_CONNECTOR_ERROR));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to get payment {} in batch: {}", paymentId, e.getMessage());
+            return Result.ofError(paymentId, aRequestError(GET_PAYMENT_CONNECTOR_ERROR));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package uk.gov.pay.api.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.dropwizard.core.setup.Environment;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import uk.gov.pay.api.app.config.BulkRefundConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
+import uk.gov.pay.api.exception.ConnectorResponseErrorException;
+import uk.gov.pay.api.exception.CreateRefundException;
+import uk.gov.pay.api.exception.mapper.CreateRefundExceptionMapper;
+import uk.gov.pay.api.model.BulkRefundRequest;
+import uk.gov.pay.api.model.BulkRefundRequest.Refund;
+import uk.gov.pay.api.model.BulkRefundResponse.Result;
+import uk.gov.pay.api.model.RequestError;
+import uk.gov.pay.api.validation.ExternalIdValidator;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static uk.gov.pay.api.model.BulkRefundRequest.REFUNDS_FIELD_NAME;
+import static uk.gov.pay.api.model.CreateCardPaymentRequest.AMOUNT_MAX_VALUE;
+import static uk.gov.pay.api.model.CreatePaymentRefundRequest.REFUND_MIN_VALUE;
+import static uk.gov.pay.api.model.RequestError.Code.BULK_REFUND_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.CREATE_PAYMENT_REFUND_CONNECTOR_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.CREATE_PAYMENT_REFUND_NOT_FOUND_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.TOO_MANY_REQUESTS_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+
+/**
+ * Creates many refunds for one request, each as {@link CreateRefundService} would create it on its own.
+ * <p>
+ * Refunds are created on a shared executor, with no more than maxConcurrentRefundsPerAccount being created at once
+ * for an account across all of its bulk refund requests, so that one account's bulk refunds cannot take all of
+ * the threads or put more load on connector than a handful of clients refunding one payment at a time would.
+ * An account can have no more than maxConcurrentRequestsPerAccount bulk refund requests running at once, and a
+ * refund that cannot start within maxWaitForRefund is not created, so a request never waits on the others forever.
+ */
+@Singleton
+public class BulkRefundService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkRefundService.class);
+    private static final int BULK_REFUND_THREADS = 32;
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+    private static final CreateRefundExceptionMapper CREATE_REFUND_EXCEPTION_MAPPER = new CreateRefundExceptionMapper();
+
+    private final CreateRefundService createRefundService;
+    private final BulkRefundConfig config;
+    private final ExecutorService executor;
+    private final LoadingCache<String, Semaphore> accountPermits;
+    private final LoadingCache<String, Semaphore> accountRequests;
+
+    @Inject
+    public BulkRefundService(CreateRefundService createRefundService, BulkRefundConfig config, Environment environment) {
+        this(createRefundService, config, environment.lifecycle().executorService("bulk-refund-%d")
+                .minThreads(BULK_REFUND_THREADS)
+                .maxThreads(BULK_REFUND_THREADS)
+                .build());
+    }
+
+    BulkRefundService(CreateRefundService createRefundService, BulkRefundConfig config, ExecutorService executor) {
+        this.createRefundService = createRefundService;
+        this.config = config;
+        this.executor = executor;
+        // weak values so that an account's permits are dropped once none of its bulk refunds are running
+        this.accountPermits = Caffeine.newBuilder()
+                .weakValues()
+                .build(accountId -> new Semaphore(config.getMaxConcurrentRefundsPerAccount()));
+        this.accountRequests = Caffeine.newBuilder()
+                .weakValues()
+                .build(accountId -> new Semaphore(config.getMaxConcurrentRequestsPerAccount()));
+    }
+
+    /**
+     * Counts a bulk refund request as running for the account until the returned request is closed.
+     *
+     * @return nothing if the account already has as many bulk refund requests running as it is allowed
+     */
+    public Optional<RunningRequest> tryStart(Account account) {
+        Semaphore requests = accountRequests.get(account.accountId());
+        return requests.tryAcquire() ? Optional.of(new RunningRequest(requests)) : Optional.empty();
+    }
+
+    /**
+     * Checks every refund in the request before any are created, so that a mistake in one of them does not leave
+     * the payments before it refunded and the ones after it not.
+     */
+    public void validate(BulkRefundRequest request) {
+        List<Refund> refunds = request == null ? null : request.getRefunds();
+        if (refunds == null || refunds.isEmpty() || refunds.size() > config.getMaxRefunds()) {
+            throw new BadRequestException(aRequestError(REFUNDS_FIELD_NAME, BULK_REFUND_VALIDATION_ERROR,
+                    format("Must contain between 1 and %d refunds", config.getMaxRefunds())));
+        }
+
+        Set<String> paymentIds = new HashSet<>();
+        for (int i = 0; i < refunds.size(); i++) {
+            Refund refund = refunds.get(i);
+            String field = format("%s[%d]", REFUNDS_FIELD_NAME, i);
+            if (refund == null) {
+                throw invalid(field, "Must be a refund");
+            }
+            if (StringUtils.isBlank(refund.getPaymentId())) {
+                throw invalid(field + "." + Refund.PAYMENT_ID_FIELD_NAME, "Must be present");
+            }
+            if (!ExternalIdValidator.isValid(refund.getPaymentId())) {
+                throw invalid(field + "." + Refund.PAYMENT_ID_FIELD_NAME,
+                        format("Must be a payment ID of up to %d letters and numbers", ExternalIdValidator.MAX_LENGTH));
+            }
+            if (!paymentIds.add(refund.getPaymentId())) {
+                throw invalid(field + "." + Refund.PAYMENT_ID_FIELD_NAME, "Must not be the same payment as another refund");
+            }
+            if (refund.getAmount() == null) {
+                throw invalid(field + ".amount", "Must be present");
+            }
+            if (refund.getAmount() < REFUND_MIN_VALUE) {
+                throw invalid(field + ".amount", format("Must be greater than or equal to %d", REFUND_MIN_VALUE));
+            }
+            if (refund.getAmount() > AMOUNT_MAX_VALUE) {
+                throw invalid(field + ".amount", format("Must be less than or equal to %d", AMOUNT_MAX_VALUE));
+            }
+        }
+    }
+
+    /**
+     * Creates the refunds in a request that has been {@link #validate validated}, passing the result of each to
+     * resultConsumer in the order they were asked for as soon as it and the ones before it are known. Blocks
+     * while the account already has as many refunds being created as it is allowed. If that lasts longer than
+     * maxWaitForRefund, that refund and the ones after it are not created and each has a 429 error as its result.
+     */
+    public void createRefunds(Account account, BulkRefundRequest request, Consumer<Result> resultConsumer)
+            throws InterruptedException {
+        Semaphore permits = accountPermits.get(account.accountId());
+        long maxWaitForRefundMillis = config.getMaxWaitForRefund().toMilliseconds();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        Deque<CompletableFuture<Result>> inFlight = new ArrayDeque<>();
+        boolean waitedTooLong = false;
+
+        for (Refund refund : request.getRefunds()) {
+            if (waitedTooLong || !permits.tryAcquire(maxWaitForRefundMillis, MILLISECONDS)) {
+                if (!waitedTooLong) {
+                    LOGGER.warn("Waited more than {} to start creating a refund in bulk for account {}; not creating the rest",
+                            config.getMaxWaitForRefund(), account.accountId());
+                    waitedTooLong = true;
+                }
+                inFlight.add(CompletableFuture.completedFuture(Result.ofError(refund.getPaymentId(),
+                        TOO_MANY_REQUESTS_STATUS_CODE, aRequestError(TOO_MANY_REQUESTS_ERROR))));
+                continue;
+            }
+            CompletableFuture<Result> result;
+            try {
+                result = CompletableFuture.supplyAsync(() -> {
+                    if (mdcContext != null) {
+                        MDC.setContextMap(mdcContext);
+                    }
+                    try {
+                        return createRefund(account, refund);
+                    } finally {
+                        MDC.clear();
+                    }
+                }, executor);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            result.whenComplete((ignored, throwable) -> permits.release());
+            inFlight.add(result);
+
+            while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+                resultConsumer.accept(inFlight.remove().join());
+            }
+        }
+
+        while (!inFlight.isEmpty()) {
+            resultConsumer.accept(inFlight.remove().join());
+        }
+    }
+
+    private Result createRefund(Account account, Refund refund) {
+        String paymentId = refund.getPaymentId();
+        try {
+            return Result.of(paymentId,
+                    createRefundService.createRefund(account, paymentId, refund.toCreatePaymentRefundRequest()));
+        } catch (CreateRefundException e) {
+            Response response = CREATE_REFUND_EXCEPTION_MAPPER.toResponse(e);
+            return Result.ofError(paymentId, response.getStatus(), (RequestError) response.getEntity());
+        } catch (ConnectorResponseErrorException e) {
+            if (e.getErrorStatus() == NOT_FOUND.getStatusCode()) {
+                return Result.ofError(paymentId, NOT_FOUND.getStatusCode(), aRequestError(CREATE_PAYMENT_REFUND_NOT_FOUND_ERROR));
+            }
+            LOGGER.error("Failed to get payment {} to refund in bulk: {}", paymentId, e.getMessage());
+            return Result.ofError(paymentId, INTERNAL_SERVER_ERROR.getStatusCode(), aRequestError(CREATE_PAYMENT_REFUND_CONNECTOR_ERROR));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to refund payment {} in bulk: {}", paymentId, e.getMessage());
+            return Result.ofError(paymentId, INTERNAL_SERVER_ERROR.getStatusCode(), aRequestError(CREATE_PAYMENT_REFUND_CONNECTOR_ERROR));
+        }
+    }
+
+    private static BadRequestException invalid(String field, String reason) {
+        return new BadRequestException(aRequestError(field, BULK_REFUND_VALIDATION_ERROR, reason));
+    }
+
+    /**
+     * A bulk refund request counted against the account's limit on running requests until it is closed.
+     */
+    public static final class RunningRequest implements AutoCloseable {
+
+        private final Semaphore requests;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private RunningRequest(Semaphore requests) {
+            this.requests = requests;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                requests.release();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.pay.api.service;
 
 import org.apache.hc.core5.http.HttpStatus;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CancelChargeException;
 
@@ -12,18 +13,26 @@ public class CancelPaymentService {
 
     private final Client client;
     private final ConnectorUriGenerator connectorUriGenerator;
+    private final FinishedPaymentCache finishedPaymentCache;
 
     @Inject
-    public CancelPaymentService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public CancelPaymentService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator,
+                                FinishedPaymentCache finishedPaymentCache) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
+        this.finishedPaymentCache = finishedPaymentCache;
     }
 
     public Response cancel(Account account, String chargeId) {
-        Response connectorResponse = client
-                .target(connectorUriGenerator.cancelURI(account, chargeId))
-                .request()
-                .post(null);
+        Response connectorResponse;
+        try {
+            connectorResponse = client
+                    .target(connectorUriGenerator.cancelURI(account, chargeId))
+                    .request()
+                    .post(null);
+        } finally {
+            finishedPaymentCache.invalidate(account, chargeId);
+        }
 
         if (connectorResponse.getStatus() == HttpStatus.SC_NO_CONTENT) {
             connectorResponse.close();
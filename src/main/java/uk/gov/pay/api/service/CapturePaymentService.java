@@ -1,5 +1,6 @@
 package uk.gov.pay.api.service;
 
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 
 import jakarta.inject.Inject;
@@ -11,18 +12,25 @@ public class CapturePaymentService {
 
     private final Client client;
     private final ConnectorUriGenerator connectorUriGenerator;
+    private final FinishedPaymentCache finishedPaymentCache;
 
     @Inject
-    public CapturePaymentService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public CapturePaymentService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator,
+                                 FinishedPaymentCache finishedPaymentCache) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
+        this.finishedPaymentCache = finishedPaymentCache;
     }
 
     public Response capture(Account account, String chargeId) {
-        return client
-                .target(connectorUriGenerator.captureURI(account, chargeId))
-                .request()
-                .post(Entity.json("{}"));
+        try {
+            return client
+                    .target(connectorUriGenerator.captureURI(account, chargeId))
+                    .request()
+                    .post(Entity.json("{}"));
+        } finally {
+            finishedPaymentCache.invalidate(account, chargeId);
+        }
     }
 
 }
@@ -8,6 +8,7 @@ import jakarta.ws.rs.core.Response;
 import org.apache.hc.core5.http.HttpStatus;
 import uk.gov.pay.api.agreement.model.AgreementCreatedResponse;
 import uk.gov.pay.api.agreement.model.CreateAgreementRequest;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CancelAgreementException;
 import uk.gov.pay.api.exception.CreateAgreementException;
@@ -27,7 +28,7 @@ public class ConnectorService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public ConnectorService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public ConnectorService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
     }
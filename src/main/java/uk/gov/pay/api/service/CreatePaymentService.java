@@ -1,6 +1,7 @@
 package uk.gov.pay.api.service;
 
 import org.apache.hc.core5.http.HttpStatus;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CreateChargeException;
 import uk.gov.pay.api.model.Charge;
@@ -30,7 +31,7 @@ public class CreatePaymentService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public CreatePaymentService(Client client, PublicApiUriGenerator publicApiUriGenerator, ConnectorUriGenerator connectorUriGenerator) {
+    public CreatePaymentService(@ConnectorClient Client client, PublicApiUriGenerator publicApiUriGenerator, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.connectorUriGenerator = connectorUriGenerator;
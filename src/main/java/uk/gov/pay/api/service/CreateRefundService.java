@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.gson.GsonBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CreateRefundException;
@@ -29,15 +30,18 @@ public class CreateRefundService {
     private static final Logger logger = LoggerFactory.getLogger(CreateRefundService.class);
 
     private final GetPaymentService getPaymentService;
+    private final FinishedPaymentCache finishedPaymentCache;
     private final Client client;
     private final String connectorUrl;
     private final String baseUrl;
 
     @Inject
     public CreateRefundService(GetPaymentService getPaymentService,
-                               Client client,
+                               FinishedPaymentCache finishedPaymentCache,
+                               @ConnectorClient Client client,
                                PublicApiConfig configuration) {
         this.getPaymentService = getPaymentService;
+        this.finishedPaymentCache = finishedPaymentCache;
         this.client = client;
         this.baseUrl = configuration.getBaseUrl();
         this.connectorUrl = configuration.getConnectorUrl();
@@ -54,10 +58,16 @@ public class CreateRefundService {
                 "refund_amount_available", refundAmountAvailable);
         String connectorPayload = new GsonBuilder().create().toJson(payloadMap);
 
-        Response connectorResponse = client
-                .target(getConnectorUrl(format("/v1/api/accounts/%s/charges/%s/refunds", account.accountId(), paymentId)))
-                .request()
-                .post(json(connectorPayload));
+        Response connectorResponse;
+        try {
+            connectorResponse = client
+                    .target(getConnectorUrl(format("/v1/api/accounts/%s/charges/%s/refunds", account.accountId(), paymentId)))
+                    .request()
+                    .post(json(connectorPayload));
+        } finally {
+            // Even if the request failed, connector may have made the change
+            finishedPaymentCache.invalidate(account, paymentId);
+        }
 
         if (connectorResponse.getStatus() != ACCEPTED.getStatusCode()) {
             throw new CreateRefundException(connectorResponse);
@@ -23,6 +23,7 @@ public class DisputesSearchParams {
     private String fromSettledDate;
     private String toSettledDate;
     private String state;
+    private String cursor;
 
     private DisputesSearchParams(Builder builder) {
         this.fromDate = builder.fromDate;
@@ -32,6 +33,7 @@ public class DisputesSearchParams {
         this.fromSettledDate = builder.fromSettledDate;
         this.toSettledDate = builder.toSettledDate;
         this.state = builder.status;
+        this.cursor = builder.cursor;
     }
 
     public Map<String, String> getParamsAsMap() {
@@ -75,6 +77,10 @@ public class DisputesSearchParams {
         return state;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
     public static class Builder {
         private String fromDate;
         private String toDate;
@@ -83,6 +89,7 @@ public class DisputesSearchParams {
         private String fromSettledDate;
         private String toSettledDate;
         private String status;
+        private String cursor;
 
         public Builder() {
         }
@@ -125,5 +132,10 @@ public class DisputesSearchParams {
             this.status = status;
             return this;
         }
+
+        public Builder withCursor(String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
     }
 }
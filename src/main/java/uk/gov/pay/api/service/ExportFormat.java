@@ -0,0 +1,35 @@
+package uk.gov.pay.api.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The formats search results can be exported in: one JSON object per line, or CSV with a header row.
+ */
+public enum ExportFormat {
+
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String name;
+    private final String mediaType;
+
+    ExportFormat(String name, String mediaType) {
+        this.name = name;
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the format with the given name, NDJSON if no name is given, or empty if there is no such format
+     */
+    public static Optional<ExportFormat> fromName(String name) {
+        if (name == null) {
+            return Optional.of(NDJSON);
+        }
+        return Arrays.stream(values()).filter(format -> format.name.equals(name)).findFirst();
+    }
+}
@@ -0,0 +1,186 @@
+package uk.gov.pay.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.pay.api.model.RequestError;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes exported search results to the response one at a time, without holding on to any of them. The last line of
+ * an export says whether it is complete, so that a client can tell an export that failed part of the way through
+ * from one that had fewer results.
+ */
+abstract class ExportWriter implements Closeable {
+
+    /**
+     * A CSV column, with the value taken from the record as it would appear in a search result.
+     */
+    record Column(String header, JsonPointer pointer) {
+
+        static Column of(String header, String pointer) {
+            return new Column(header, JsonPointer.compile(pointer));
+        }
+    }
+
+    private int count;
+
+    final void write(Object record) throws IOException {
+        writeRecord(record);
+        count++;
+    }
+
+    /**
+     * Ends an export that has every result matching the search.
+     */
+    final void writeComplete() throws IOException {
+        writeEnd("complete", count, null);
+    }
+
+    /**
+     * Ends an export that stopped before every result matching the search was written.
+     */
+    final void writeFailed(RequestError error) throws IOException {
+        writeEnd("failed", count, error);
+    }
+
+    final int getCount() {
+        return count;
+    }
+
+    abstract void writeRecord(Object record) throws IOException;
+
+    abstract void writeEnd(String status, int count, RequestError error) throws IOException;
+
+    static ExportWriter of(ExportFormat format, ObjectMapper objectMapper, List<Column> columns, OutputStream outputStream)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(objectMapper, outputStream);
+            case CSV -> new CsvWriter(objectMapper, columns, outputStream);
+        };
+    }
+
+    private static class NdjsonWriter extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(outputStream);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRecord(Object record) throws IOException {
+            generator.writeObject(record);
+            generator.writeRaw('\n');
+        }
+
+        /**
+         * {"export": {"status": "complete", "count": 3}}, or with an error if it failed:
+         * {"export": {"status": "failed", "count": 2, "error": {"code": "P0498", "description": "Downstream system error"}}}
+         */
+        @Override
+        void writeEnd(String status, int count, RequestError error) throws IOException {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("export");
+            generator.writeStringField("status", status);
+            generator.writeNumberField("count", count);
+            if (error != null) {
+                generator.writeObjectField("error", error);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class CsvWriter extends ExportWriter {
+
+        private final ObjectMapper objectMapper;
+        private final List<Column> columns;
+        private final Writer writer;
+
+        CsvWriter(ObjectMapper objectMapper, List<Column> columns, OutputStream outputStream) throws IOException {
+            this.objectMapper = objectMapper;
+            this.columns = columns;
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, UTF_8));
+            for (int i = 0; i < columns.size(); i++) {
+                writeCell(i, columns.get(i).header());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRecord(Object record) throws IOException {
+            JsonNode node = objectMapper.valueToTree(record);
+            for (int i = 0; i < columns.size(); i++) {
+                JsonNode value = node.at(columns.get(i).pointer());
+                if (value.isMissingNode() || value.isNull()) {
+                    writeCell(i, "");
+                } else if (value.isTextual()) {
+                    writeCell(i, escapeFormula(value.textValue()));
+                } else {
+                    writeCell(i, value.asText());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * # export complete; count: 3, or with an error if it failed:
+         * # export failed; count: 2; error: P0498 Downstream system error
+         */
+        @Override
+        void writeEnd(String status, int count, RequestError error) throws IOException {
+            writer.write("# export " + status + "; count: " + count);
+            if (error != null) {
+                writer.write("; error: " + error.getCode() + " " + error.getDescription());
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(int column, String value) throws IOException {
+            if (column > 0) {
+                writer.write(',');
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+
+        /**
+         * Stops text such as a payment's reference or description being run as a formula when the export is opened
+         * in a spreadsheet.
+         */
+        private static String escapeFormula(String value) {
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                return "'" + value;
+            }
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
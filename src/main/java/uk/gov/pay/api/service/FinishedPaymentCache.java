@@ -0,0 +1,100 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.dropwizard.core.setup.Environment;
+import uk.gov.pay.api.app.config.FinishedPaymentCacheConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps payments that have finished in memory so that services polling for them do not cause a call to connector
+ * or ledger for every request. Payments that have not finished are never cached.
+ * <p>
+ * Successful payments are only kept briefly because their refund summary, settlement summary and disputes can
+ * still change. A payment is removed when this instance refunds, cancels or captures it, but not when another
+ * instance does, so how long payments are kept for is how out of date they can be.
+ * <p>
+ * A lookup that was already in progress when a payment was removed may have got it as it was before the change, so
+ * what it got is not kept if anything was removed while it was in progress.
+ */
+@Singleton
+public class FinishedPaymentCache {
+
+    private static final String SUCCESS = "success";
+
+    private final Cache<Key, PaymentWithAllLinks> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    public FinishedPaymentCache(FinishedPaymentCacheConfig config, Environment environment) {
+        if (!config.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+
+        Duration expireAfterWrite = config.getExpireAfterWrite().toJavaDuration();
+        Duration successfulPaymentExpireAfterWrite = config.getSuccessfulPaymentExpireAfterWrite().toJavaDuration();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(Expiry.creating((Key key, PaymentWithAllLinks payment) ->
+                        SUCCESS.equals(payment.getState().getStatus()) ? successfulPaymentExpireAfterWrite : expireAfterWrite))
+                .recordStats()
+                .build();
+
+        MetricRegistry metrics = environment.metrics();
+        metrics.<Gauge<Long>>gauge("finished_payment_cache.hits", () -> () -> cache.stats().hitCount());
+        metrics.<Gauge<Long>>gauge("finished_payment_cache.misses", () -> () -> cache.stats().missCount());
+        metrics.<Gauge<Long>>gauge("finished_payment_cache.size", () -> cache::estimatedSize);
+    }
+
+    /**
+     * Returns the payment if it is cached, otherwise gets it with lookup and caches it if it has finished.
+     */
+    public PaymentWithAllLinks get(Account account, String paymentId, Supplier<PaymentWithAllLinks> lookup) {
+        if (cache == null) {
+            return lookup.get();
+        }
+
+        Key key = new Key(account.accountId(), paymentId);
+        PaymentWithAllLinks payment = cache.getIfPresent(key);
+        if (payment != null) {
+            return payment;
+        }
+
+        long invalidationsBeforeLookup = invalidations.get();
+        payment = lookup.get();
+        PaymentState state = payment.getState();
+        if (state != null && state.isFinished() && invalidations.get() == invalidationsBeforeLookup) {
+            cache.put(key, payment);
+            // An invalidation between the check and the put has to be undone here, as it may have run before the put
+            if (invalidations.get() != invalidationsBeforeLookup) {
+                cache.invalidate(key);
+            }
+        }
+        return payment;
+    }
+
+    /**
+     * Call once the change to the payment has been made, so that lookups started after this see it.
+     */
+    public void invalidate(Account account, String paymentId) {
+        if (cache != null) {
+            invalidations.incrementAndGet();
+            cache.invalidate(new Key(account.accountId(), paymentId));
+        }
+    }
+
+    private record Key(String accountId, String paymentId) {
+    }
+}
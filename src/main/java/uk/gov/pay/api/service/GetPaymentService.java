@@ -1,25 +1,61 @@
 package uk.gov.pay.api.service;
 
+import com.codahale.metrics.Counter;
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.MDC;
+import uk.gov.pay.api.app.config.HedgedPaymentLookupConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.GetChargeException;
 import uk.gov.pay.api.model.Charge;
 import uk.gov.pay.api.model.links.PaymentWithAllLinks;
 
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Singleton
 public class GetPaymentService {
 
+    private static final int HEDGED_LEDGER_LOOKUP_THREADS = 16;
+
     private final PublicApiUriGenerator publicApiUriGenerator;
     private final ConnectorService connectorService;
     private final LedgerService ledgerService;
+    private final FinishedPaymentCache finishedPaymentCache;
+    private final Executor hedgedLedgerLookupExecutor;
+    private final Counter connectorAnswers;
+    private final Counter ledgerAnswers;
+    private final Counter hedgedLedgerLookups;
 
     @Inject
     public GetPaymentService(PublicApiUriGenerator publicApiUriGenerator,
-                             ConnectorService connectorService, LedgerService ledgerService) {
+                             ConnectorService connectorService, LedgerService ledgerService,
+                             FinishedPaymentCache finishedPaymentCache,
+                             HedgedPaymentLookupConfig hedgedPaymentLookupConfig, Environment environment) {
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.connectorService = connectorService;
         this.ledgerService = ledgerService;
+        this.finishedPaymentCache = finishedPaymentCache;
+        if (hedgedPaymentLookupConfig.isEnabled()) {
+            Executor executor = environment.lifecycle().executorService("hedged-ledger-lookup-%d")
+                    .minThreads(HEDGED_LEDGER_LOOKUP_THREADS)
+                    .maxThreads(HEDGED_LEDGER_LOOKUP_THREADS)
+                    .build();
+            this.hedgedLedgerLookupExecutor = CompletableFuture.delayedExecutor(
+                    hedgedPaymentLookupConfig.getLedgerDelay().toMilliseconds(), MILLISECONDS, executor);
+        } else {
+            this.hedgedLedgerLookupExecutor = null;
+        }
+        this.connectorAnswers = environment.metrics().counter("get_payment.connector_answers");
+        this.ledgerAnswers = environment.metrics().counter("get_payment.ledger_answers");
+        this.hedgedLedgerLookups = environment.metrics().counter("get_payment.hedged_ledger_lookups");
     }
 
     public PaymentWithAllLinks getConnectorCharge(Account account, String paymentId) {
@@ -34,14 +70,52 @@ public class GetPaymentService {
         return getPaymentWithAllLinks(charge);
     }
 
+    /**
+     * Gets the payment from connector or, if connector does not have it, from ledger. Connector's answer is always
+     * used if it has the payment.
+     * <p>
+     * If hedged lookups are enabled, ledger is asked as well if connector has not answered within the configured
+     * delay, so that getting a payment that only ledger has takes as long as the slower of the two rather than
+     * both one after the other.
+     */
     public PaymentWithAllLinks getPayment(Account account, String paymentId) {
+        if (hedgedLedgerLookupExecutor == null) {
+            try {
+                PaymentWithAllLinks payment = getConnectorCharge(account, paymentId);
+                connectorAnswers.inc();
+                return payment;
+            } catch (GetChargeException ex) {
+                PaymentWithAllLinks payment = getLedgerTransaction(account, paymentId);
+                ledgerAnswers.inc();
+                return payment;
+            }
+        }
+
+        LedgerLookup ledgerLookup = new LedgerLookup(account, paymentId);
+        hedgedLedgerLookupExecutor.execute(ledgerLookup::startHedged);
+
         try {
-            return getConnectorCharge(account, paymentId);
+            Charge charge = connectorService.getCharge(account, paymentId);
+            connectorAnswers.inc();
+            return getPaymentWithAllLinks(charge);
         } catch (GetChargeException ex) {
-            return getLedgerTransaction(account, paymentId);
+            Charge charge = ledgerLookup.join();
+            ledgerAnswers.inc();
+            return getPaymentWithAllLinks(charge);
+        } finally {
+            ledgerLookup.cancel();
         }
     }
 
+    /**
+     * As {@link #getPayment(Account, String)}, except that a payment that has finished may come from
+     * {@link FinishedPaymentCache} and so be slightly out of date. Not for use where the refund summary has to be
+     * current, such as when creating a refund.
+     */
+    public PaymentWithAllLinks getPaymentUsingCache(Account account, String paymentId) {
+        return finishedPaymentCache.get(account, paymentId, () -> getPayment(account, paymentId));
+    }
+
     private PaymentWithAllLinks getPaymentWithAllLinks(Charge chargeFromResponse) {
         URI paymentURI = publicApiUriGenerator.getPaymentURI(chargeFromResponse.getChargeId());
 
@@ -54,4 +128,65 @@ public class GetPaymentService {
                 publicApiUriGenerator.getPaymentCaptureURI(chargeFromResponse.getChargeId()),
                 publicApiUriGenerator.getPaymentAuthorisationURI());
     }
+
+    /**
+     * A request to ledger for a payment that is made at most once, either in the background after the hedge delay
+     * or by the request thread when connector does not have the payment, whichever comes first.
+     */
+    private class LedgerLookup {
+
+        private final Account account;
+        private final String paymentId;
+        private final Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<Charge> result = new CompletableFuture<>();
+
+        LedgerLookup(Account account, String paymentId) {
+            this.account = account;
+            this.paymentId = paymentId;
+        }
+
+        void startHedged() {
+            if (started.compareAndSet(false, true)) {
+                hedgedLedgerLookups.inc();
+                if (mdcContext != null) {
+                    MDC.setContextMap(mdcContext);
+                }
+                try {
+                    lookUp();
+                } finally {
+                    MDC.clear();
+                }
+            }
+        }
+
+        Charge join() {
+            if (started.compareAndSet(false, true)) {
+                lookUp();
+            }
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        /**
+         * Stops the lookup being started in the background if it has not been already.
+         */
+        void cancel() {
+            started.set(true);
+        }
+
+        private void lookUp() {
+            try {
+                result.complete(ledgerService.getPaymentTransaction(account, paymentId));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
 }
@@ -3,6 +3,7 @@ package uk.gov.pay.api.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.agreement.model.AgreementLedgerResponse;
+import uk.gov.pay.api.app.config.LedgerClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.GetAgreementException;
 import uk.gov.pay.api.exception.GetChargeException;
@@ -33,6 +34,7 @@ import jakarta.ws.rs.core.GenericType;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -55,7 +57,7 @@ public class LedgerService {
     private final LedgerUriGenerator ledgerUriGenerator;
 
     @Inject
-    public LedgerService(Client client, LedgerUriGenerator ledgerUriGenerator) {
+    public LedgerService(@LedgerClient Client client, LedgerUriGenerator ledgerUriGenerator) {
         this.client = client;
         this.ledgerUriGenerator = ledgerUriGenerator;
     }
@@ -134,6 +136,27 @@ public class LedgerService {
         throw new SearchRefundsException(response);
     }
 
+    /**
+     * As {@link #searchRefunds}, except that the body of ledger's response is returned unread, so that a page of
+     * refunds can be parsed one refund at a time. The caller must close it.
+     */
+    public InputStream searchRefundsAsStream(Account account, Map<String, String> paramsAsMap) {
+        paramsAsMap.put(PARAM_ACCOUNT_ID, account.accountId());
+        paramsAsMap.put(PARAM_TRANSACTION_TYPE, REFUND_TRANSACTION_TYPE);
+
+        Response response = client
+                .target(ledgerUriGenerator.transactionsURIWithParams(paramsAsMap))
+                .request()
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .get();
+
+        if (response.getStatus() == SC_OK) {
+            return response.readEntity(InputStream.class);
+        }
+
+        throw new SearchRefundsException(response);
+    }
+
     public SearchDisputesResponseFromLedger searchDisputes(Account account, Map<String, String> paramsAsMap) {
         paramsAsMap.put(PARAM_ACCOUNT_ID, account.accountId());
         paramsAsMap.put(PARAM_TRANSACTION_TYPE, DISPUTE_TRANSACTION_TYPE);
@@ -183,6 +206,28 @@ public class LedgerService {
         throw new SearchPaymentsException(response);
     }
 
+    /**
+     * As {@link #searchPayments}, except that the body of ledger's response is returned unread, so that a page of
+     * payments can be parsed one payment at a time. The caller must close it.
+     */
+    public InputStream searchPaymentsAsStream(Account account, Map<String, String> paramsAsMap) {
+        paramsAsMap.put(PARAM_ACCOUNT_ID, account.accountId());
+        paramsAsMap.put(PARAM_TRANSACTION_TYPE, PAYMENT_TRANSACTION_TYPE);
+        paramsAsMap.put(PARAM_EXACT_REFERENCE_MATCH, "true");
+
+        Response response = client
+                .target(ledgerUriGenerator.transactionsURIWithParams(paramsAsMap))
+                .request()
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .get();
+
+        if (response.getStatus() == SC_OK) {
+            return response.readEntity(InputStream.class);
+        }
+
+        throw new SearchPaymentsException(response);
+    }
+
     public AgreementLedgerResponse getAgreement(Account account, String agreementId) {
         Response response = client
                 .target(ledgerUriGenerator.agreementURI(account, agreementId))
@@ -0,0 +1,60 @@
+package uk.gov.pay.api.service;
+
+import jakarta.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.regex.Pattern;
+
+/**
+ * A link with {@code {name}} placeholders, such as {@code https://publicapi.url/v1/payments/{paymentId}/events},
+ * compiled once so that filling it in is string concatenation rather than a {@link UriBuilder} parse and encode.
+ * <p>
+ * External ids are made of letters and digits, so they are put into the link as they are. Anything else goes
+ * through {@link UriBuilder} as before so that it is encoded the same way.
+ */
+class LinkTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{[^}]+}");
+
+    private final String template;
+    private final String[] literals;
+
+    LinkTemplate(String baseUrl, String path) {
+        this.template = UriBuilder.fromUri(baseUrl).path(path).toTemplate();
+        this.literals = PLACEHOLDER.split(template, -1);
+    }
+
+    URI expand(String... values) {
+        if (values.length != literals.length - 1) {
+            throw new IllegalArgumentException(String.format("%s needs %d values but was given %d",
+                    template, literals.length - 1, values.length));
+        }
+        var href = new StringBuilder(template.length() + 32).append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            if (!isSafe(values[i])) {
+                return UriBuilder.fromUri(template).build((Object[]) values);
+            }
+            href.append(values[i]).append(literals[i + 1]);
+        }
+        return URI.create(href.toString());
+    }
+
+    private static boolean isSafe(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '~';
+            if (!safe) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
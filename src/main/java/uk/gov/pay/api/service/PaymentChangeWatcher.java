@@ -0,0 +1,220 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PaymentLongPollConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+import uk.gov.pay.api.resources.GetOnePaymentStrategy;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Lets requests wait for a payment's status to change without each of them polling for it or holding on to a
+ * thread while they wait.
+ * <p>
+ * However many requests are waiting for the same payment, this instance gets it once every poll interval and
+ * completes each waiting request whose status has changed. A request that is still waiting at its timeout gets
+ * the payment as it was last seen. Failing to get the payment does not end the wait, as the next poll may succeed.
+ * <p>
+ * The scheduler only starts polls and times out waits; the payment is got on a separate, bounded pool so that slow
+ * lookups cannot hold up timeouts. A poll is skipped if the previous one for the same payment has not finished.
+ */
+@Singleton
+public class PaymentChangeWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentChangeWatcher.class);
+    private static final int SCHEDULER_THREADS = 2;
+    private static final int POLLING_THREADS = 8;
+    private static final int POLL_QUEUE_SIZE = 1_000;
+
+    private final GetPaymentService getPaymentService;
+    private final ScheduledExecutorService scheduler;
+    private final Executor pollExecutor;
+    private final long pollIntervalMillis;
+    private final int maxWaiters;
+    private final ConcurrentMap<Key, Watch> watches = new ConcurrentHashMap<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Counter polls;
+    private final Counter skippedPolls;
+
+    @Inject
+    public PaymentChangeWatcher(GetPaymentService getPaymentService, PaymentLongPollConfig config, Environment environment) {
+        this(getPaymentService, config,
+                environment.lifecycle().scheduledExecutorService("payment-long-poll-%d")
+                        .threads(SCHEDULER_THREADS)
+                        .removeOnCancelPolicy(true)
+                        .build(),
+                environment.lifecycle().executorService("payment-long-poll-lookup-%d")
+                        .minThreads(POLLING_THREADS)
+                        .maxThreads(POLLING_THREADS)
+                        .workQueue(new ArrayBlockingQueue<>(POLL_QUEUE_SIZE))
+                        .build(),
+                environment.metrics());
+    }
+
+    PaymentChangeWatcher(GetPaymentService getPaymentService, PaymentLongPollConfig config,
+                         ScheduledExecutorService scheduler, Executor pollExecutor, MetricRegistry metrics) {
+        this.getPaymentService = getPaymentService;
+        this.scheduler = scheduler;
+        this.pollExecutor = pollExecutor;
+        this.pollIntervalMillis = config.getPollInterval().toMilliseconds();
+        this.maxWaiters = config.getMaxWaiters();
+        this.polls = metrics.counter("payment_long_poll.polls");
+        this.skippedPolls = metrics.counter("payment_long_poll.skipped_polls");
+        metrics.<Gauge<Integer>>gauge("payment_long_poll.waiters", () -> waiters::get);
+        metrics.<Gauge<Integer>>gauge("payment_long_poll.watched_payments", () -> watches::size);
+    }
+
+    /**
+     * Returns a future of the payment once its status is no longer fromStatus, or of the payment as last seen
+     * after timeout. The future is already complete if current does not have fromStatus or too many requests
+     * are waiting already.
+     *
+     * @param strategyName the X-Ledger strategy the request got current with, which polls get the payment with too
+     */
+    public CompletableFuture<PaymentWithAllLinks> waitForChange(Account account, String paymentId, String strategyName,
+                                                                String fromStatus, PaymentWithAllLinks current,
+                                                                Duration timeout) {
+        if (!fromStatus.equals(statusOf(current))) {
+            return CompletableFuture.completedFuture(current);
+        }
+        if (waiters.incrementAndGet() > maxWaiters) {
+            waiters.decrementAndGet();
+            return CompletableFuture.completedFuture(current);
+        }
+
+        Key key = new Key(account.accountId(), paymentId, strategyName);
+        Waiter waiter = new Waiter(fromStatus);
+        watches.compute(key, (k, watch) -> {
+            if (watch == null) {
+                watch = new Watch(paymentId,
+                        new GetOnePaymentStrategy(strategyName, account, paymentId, getPaymentService), current);
+                watch.task = scheduler.scheduleWithFixedDelay(() -> startPoll(k), pollIntervalMillis, pollIntervalMillis, MILLISECONDS);
+            }
+            watch.waiters.add(waiter);
+            return watch;
+        });
+
+        ScheduledFuture<?> timeoutTask = scheduler.schedule(() -> {
+            Watch watch = watches.get(key);
+            PaymentWithAllLinks latest = watch == null ? current : watch.latest;
+            if (remove(key, waiter)) {
+                waiter.future.complete(latest);
+            }
+        }, timeout.toMillis(), MILLISECONDS);
+        waiter.future.whenComplete((payment, e) -> timeoutTask.cancel(false));
+        return waiter.future;
+    }
+
+    private void startPoll(Key key) {
+        Watch watch = watches.get(key);
+        if (watch == null) {
+            return;
+        }
+        if (!watch.polling.compareAndSet(false, true)) {
+            skippedPolls.inc();
+            return;
+        }
+
+        try {
+            pollExecutor.execute(() -> {
+                try {
+                    poll(key, watch);
+                } finally {
+                    watch.polling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            watch.polling.set(false);
+            skippedPolls.inc();
+        }
+    }
+
+    private void poll(Key key, Watch watch) {
+        try {
+            polls.inc();
+            PaymentWithAllLinks payment = watch.strategy.validateAndExecute();
+            watch.latest = payment;
+            String status = statusOf(payment);
+            for (Waiter waiter : watch.waiters) {
+                if (!waiter.fromStatus.equals(status) && remove(key, waiter)) {
+                    waiter.future.complete(payment);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.info("Failed to get payment {} for requests waiting for it to change: {}", watch.paymentId, e.getMessage());
+        }
+    }
+
+    private boolean remove(Key key, Waiter waiter) {
+        AtomicBoolean removed = new AtomicBoolean();
+        watches.computeIfPresent(key, (k, watch) -> {
+            removed.set(watch.waiters.remove(waiter));
+            if (watch.waiters.isEmpty()) {
+                watch.task.cancel(false);
+                return null;
+            }
+            return watch;
+        });
+        if (removed.get()) {
+            waiters.decrementAndGet();
+        }
+        return removed.get();
+    }
+
+    private static String statusOf(PaymentWithAllLinks payment) {
+        PaymentState state = payment.getState();
+        return state == null ? null : state.getStatus();
+    }
+
+    private record Key(String accountId, String paymentId, String strategyName) {
+    }
+
+    private static class Waiter {
+
+        private final String fromStatus;
+        private final CompletableFuture<PaymentWithAllLinks> future = new CompletableFuture<>();
+
+        private Waiter(String fromStatus) {
+            this.fromStatus = Objects.requireNonNull(fromStatus);
+        }
+    }
+
+    private static class Watch {
+
+        private final String paymentId;
+        private final GetOnePaymentStrategy strategy;
+        private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean polling = new AtomicBoolean();
+        private volatile PaymentWithAllLinks latest;
+        private ScheduledFuture<?> task;
+
+        private Watch(String paymentId, GetOnePaymentStrategy strategy, PaymentWithAllLinks latest) {
+            this.paymentId = paymentId;
+            this.strategy = strategy;
+            this.latest = latest;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package uk.gov.pay.api.service;
+
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.MDC;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
+import uk.gov.pay.api.model.PaymentEventResponse;
+import uk.gov.pay.api.model.PaymentWithEmbeddedResources;
+import uk.gov.pay.api.model.RefundResponse;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+
+/**
+ * Gets the events and refunds of a payment for embedding in it, in the background so that they can be fetched at
+ * the same time as the payment.
+ */
+@Singleton
+public class PaymentEmbeddedResourcesService {
+
+    private static final int EMBEDDED_RESOURCE_LOOKUP_THREADS = 16;
+
+    public enum Embed {
+        EVENTS, REFUNDS
+    }
+
+    private final GetPaymentEventsService getPaymentEventsService;
+    private final GetPaymentRefundsService getPaymentRefundsService;
+    private final ExecutorService executor;
+
+    @Inject
+    public PaymentEmbeddedResourcesService(GetPaymentEventsService getPaymentEventsService,
+                                           GetPaymentRefundsService getPaymentRefundsService,
+                                           Environment environment) {
+        this(getPaymentEventsService, getPaymentRefundsService,
+                environment.lifecycle().executorService("payment-embedded-resources-%d")
+                        .minThreads(EMBEDDED_RESOURCE_LOOKUP_THREADS)
+                        .maxThreads(EMBEDDED_RESOURCE_LOOKUP_THREADS)
+                        .build());
+    }
+
+    PaymentEmbeddedResourcesService(GetPaymentEventsService getPaymentEventsService,
+                                    GetPaymentRefundsService getPaymentRefundsService,
+                                    ExecutorService executor) {
+        this.getPaymentEventsService = getPaymentEventsService;
+        this.getPaymentRefundsService = getPaymentRefundsService;
+        this.executor = executor;
+    }
+
+    /**
+     * Parses the comma-separated value of the embed query parameter, e.g. events,refunds.
+     */
+    public static Set<Embed> parseEmbed(String embed) {
+        Set<Embed> embeds = EnumSet.noneOf(Embed.class);
+        if (embed == null) {
+            return embeds;
+        }
+        for (String value : embed.split(",")) {
+            try {
+                embeds.add(Embed.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(aRequestError(GET_PAYMENT_VALIDATION_ERROR, "embed"));
+            }
+        }
+        return embeds;
+    }
+
+    /**
+     * Starts getting the events and refunds asked for. If getting either of them fails, the future fails with the
+     * same exception as the events or refunds resource would have, and the other lookup is cancelled.
+     * <p>
+     * Cancel the future if the payment turns out not to be there: lookups that have not started yet are dropped and
+     * ones that have are interrupted.
+     */
+    public CompletableFuture<EmbeddedResources> startGetting(Account account, String paymentId, Set<Embed> embeds) {
+        CompletableFuture<List<PaymentEventResponse>> events = embeds.contains(Embed.EVENTS)
+                ? supplyAsync(() -> getPaymentEventsService.getPaymentEvents(account, paymentId).getEvents())
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<List<RefundResponse>> refunds = embeds.contains(Embed.REFUNDS)
+                ? supplyAsync(() -> getPaymentRefundsService.getLedgerTransactionTransactions(account, paymentId)
+                        .getEmbedded().getRefunds())
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<EmbeddedResources> embeddedResources = events.thenCombine(refunds, EmbeddedResources::new);
+        embeddedResources.whenComplete((result, e) -> {
+            if (e != null) {
+                events.cancel(true);
+                refunds.cancel(true);
+            }
+        });
+        return embeddedResources;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> lookup) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        var result = new CompletableFuture<T>();
+        Future<?> task = executor.submit(() -> {
+            if (mdcContext != null) {
+                MDC.setContextMap(mdcContext);
+            }
+            try {
+                result.complete(lookup.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                MDC.clear();
+            }
+        });
+        // Cancelling a CompletableFuture does not stop the work behind it, so pass the cancellation on
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public record EmbeddedResources(List<PaymentEventResponse> events, List<RefundResponse> refunds) {
+
+        public PaymentWithEmbeddedResources embedIn(PaymentWithAllLinks payment) {
+            return new PaymentWithEmbeddedResources(payment, events, refunds);
+        }
+    }
+}
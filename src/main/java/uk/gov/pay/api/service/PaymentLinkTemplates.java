@@ -0,0 +1,21 @@
+package uk.gov.pay.api.service;
+
+/**
+ * The links we give for each payment, compiled once for a base URL.
+ */
+record PaymentLinkTemplates(String baseUrl,
+                            LinkTemplate payment,
+                            LinkTemplate events,
+                            LinkTemplate cancel,
+                            LinkTemplate refunds,
+                            LinkTemplate capture) {
+
+    static PaymentLinkTemplates forBaseUrl(String baseUrl) {
+        return new PaymentLinkTemplates(baseUrl,
+                new LinkTemplate(baseUrl, "/v1/payments/{paymentId}"),
+                new LinkTemplate(baseUrl, "/v1/payments/{paymentId}/events"),
+                new LinkTemplate(baseUrl, "/v1/payments/{paymentId}/cancel"),
+                new LinkTemplate(baseUrl, "/v1/payments/{paymentId}/refunds"),
+                new LinkTemplate(baseUrl, "/v1/payments/{paymentId}/capture"));
+    }
+}
@@ -36,6 +36,7 @@ public class PaymentSearchParams {
     private String fromSettledDate;
     private String toSettledDate;
     private String agreementId;
+    private String cursor;
 
     public PaymentSearchParams(Builder builder) {
         this.reference = builder.reference;
@@ -52,6 +53,7 @@ public class PaymentSearchParams {
         this.fromSettledDate = builder.fromSettledDate;
         this.toSettledDate = builder.toSettledDate;
         this.agreementId = builder.agreementId;
+        this.cursor = builder.cursor;
     }
 
     public Map<String, String> getParamsAsMap() {
@@ -126,6 +128,10 @@ public class PaymentSearchParams {
         return agreementId;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
     public static class Builder {
         private String reference;
         private String email;
@@ -141,6 +147,7 @@ public class PaymentSearchParams {
         private String fromSettledDate;
         private String toSettledDate;
         private String agreementId;
+        private String cursor;
 
         public Builder() {
         }
@@ -223,5 +230,10 @@ public class PaymentSearchParams {
             this.agreementId = agreementId;
             return this;
         }
+
+        public Builder withCursor(String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
     }
 }
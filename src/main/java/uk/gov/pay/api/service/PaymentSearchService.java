@@ -1,19 +1,30 @@
 package uk.gov.pay.api.service;
 
-import black.door.hate.HalRepresentation;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.PaymentValidationException;
 import uk.gov.pay.api.model.TransactionResponse;
+import uk.gov.pay.api.model.search.CursorPage;
+import uk.gov.pay.api.model.search.HalSearchResponse;
 import uk.gov.pay.api.model.search.PaginationDecorator;
+import uk.gov.pay.api.model.search.SearchCursor;
 import uk.gov.pay.api.model.search.card.PaymentForSearchResult;
 import uk.gov.pay.api.model.search.card.PaymentSearchResponse;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.stream.Collectors.toList;
 import static org.apache.hc.core5.http.HttpHeaders.CACHE_CONTROL;
 import static org.apache.hc.core5.http.HttpHeaders.PRAGMA;
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_PAYMENTS_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+import static uk.gov.pay.api.model.search.PaginationDecorator.CURSOR;
+import static uk.gov.pay.api.model.search.PaginationDecorator.afterCursor;
+import static uk.gov.pay.api.model.search.PaginationDecorator.displaySize;
 import static uk.gov.pay.api.validation.PaymentSearchValidator.validateSearchParameters;
 
 public class PaymentSearchService {
@@ -23,26 +34,79 @@ public class PaymentSearchService {
     private final PublicApiUriGenerator publicApiUriGenerator;
     private final PaginationDecorator paginationDecorator;
     private LedgerService ledgerService;
+    private final ObjectMapper objectMapper;
 
     @Inject
     public PaymentSearchService(PublicApiUriGenerator publicApiUriGenerator,
                                 PaginationDecorator paginationDecorator,
-                                LedgerService ledgerService) {
+                                LedgerService ledgerService,
+                                ObjectMapper objectMapper) {
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.paginationDecorator = paginationDecorator;
         this.ledgerService = ledgerService;
+        // Search results have always had their null fields written out, unlike the rest of the API
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.ALWAYS);
     }
 
     public Response searchLedgerPayments(Account account, PaymentSearchParams searchParams) {
         validateSearchParameters(searchParams);
 
+        if (searchParams.getCursor() != null) {
+            return searchLedgerPaymentsAfterCursor(account, searchParams);
+        }
+
         PaymentSearchResponse<TransactionResponse> paymentSearchResponse =
                 ledgerService.searchPayments(account, searchParams.getParamsAsMap());
-        return processLedgerResponse(paymentSearchResponse);
+        return processLedgerResponse(account, searchParams, paymentSearchResponse);
     }
 
-    private Response processLedgerResponse(PaymentSearchResponse<TransactionResponse> paymentSearchResponse) {
-        List<PaymentForSearchResult> chargeFromResponses = paymentSearchResponse.getPayments()
+    private Response processLedgerResponse(Account account, PaymentSearchParams searchParams,
+                                           PaymentSearchResponse<TransactionResponse> paymentSearchResponse) {
+        var halSearchResponse = new HalSearchResponse(objectMapper, toSearchResults(paymentSearchResponse.getPayments()));
+        paginationDecorator.decoratePagination(halSearchResponse, paymentSearchResponse, PAYMENTS_PATH);
+
+        // A cursor can only be worked out from the first page because ties in created date may span earlier pages
+        if (searchParams.getPageNumber() == null || "1".equals(searchParams.getPageNumber())) {
+            Map<String, String> params = searchParams.getParamsAsMap();
+            CursorPage.of(paymentSearchResponse.getPayments(), TransactionResponse::getCreatedDate,
+                            TransactionResponse::getTransactionId, null,
+                            displaySize(params), paymentSearchResponse.getLinks().getNextPage() != null)
+                    .next()
+                    .ifPresent(next -> halSearchResponse.addProperty("next_cursor",
+                            paginationDecorator.encodeCursor(next, account, PAYMENTS_PATH, params)));
+        }
+
+        return searchResponse(halSearchResponse);
+    }
+
+    private Response searchLedgerPaymentsAfterCursor(Account account, PaymentSearchParams searchParams) {
+        if (searchParams.getPageNumber() != null) {
+            throw invalidCursor();
+        }
+        Map<String, String> params = searchParams.getParamsAsMap();
+        SearchCursor cursor = paginationDecorator.decodeCursor(searchParams.getCursor(), account, PAYMENTS_PATH, params)
+                .orElseThrow(PaymentSearchService::invalidCursor);
+
+        PaymentSearchResponse<TransactionResponse> paymentSearchResponse =
+                ledgerService.searchPayments(account, afterCursor(params, cursor));
+        CursorPage<TransactionResponse> page = CursorPage.of(paymentSearchResponse.getPayments(),
+                TransactionResponse::getCreatedDate, TransactionResponse::getTransactionId,
+                cursor, displaySize(params),
+                paymentSearchResponse.getLinks().getNextPage() != null);
+        String nextCursor = page.next()
+                .map(next -> paginationDecorator.encodeCursor(next, account, PAYMENTS_PATH, params))
+                .orElse(null);
+
+        var halSearchResponse = new HalSearchResponse(objectMapper, toSearchResults(page.results()));
+        paginationDecorator.decorateCursorPagination(halSearchResponse, page.results().size(),
+                paginationDecorator.cursorLinks(PAYMENTS_PATH, params, searchParams.getCursor(), nextCursor),
+                nextCursor);
+
+        return searchResponse(halSearchResponse);
+    }
+
+    private List<PaymentForSearchResult> toSearchResults(List<TransactionResponse> payments) {
+        return payments
                 .stream()
                 .map(t -> PaymentForSearchResult.valueOf(
                         t,
@@ -52,18 +116,17 @@ public class PaymentSearchService {
                         publicApiUriGenerator.getPaymentRefundsURI(t.getTransactionId()),
                         publicApiUriGenerator.getPaymentCaptureURI(t.getTransactionId())))
                 .collect(toList());
+    }
 
-        HalRepresentation.HalRepresentationBuilder halRepresentation = HalRepresentation
-                .builder()
-                .addProperty("results", chargeFromResponses);
+    private static PaymentValidationException invalidCursor() {
+        return new PaymentValidationException(aRequestError(SEARCH_PAYMENTS_VALIDATION_ERROR, CURSOR));
+    }
 
+    private static Response searchResponse(HalSearchResponse halSearchResponse) {
         return Response.ok()
                 .header(PRAGMA, "no-cache")
                 .header(CACHE_CONTROL, "no-store")
-                .entity(paginationDecorator
-                        .decoratePagination(halRepresentation, paymentSearchResponse, PAYMENTS_PATH)
-                        .build()
-                        .toString())
+                .entity(halSearchResponse)
                 .build();
     }
 }
@@ -1,37 +1,38 @@
 package uk.gov.pay.api.service;
 
-import jakarta.ws.rs.core.UriBuilder;
 import java.net.URI;
 
 public class PaymentUriGenerator {
+
+    // Callers pass the same base URL every time, so the templates are compiled on first use and kept for it
+    private volatile PaymentLinkTemplates paymentLinks;
+
     public URI getPaymentURI(String baseUrl, String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}")
-                .build(chargeId);
+        return paymentLinks(baseUrl).payment().expand(chargeId);
     }
 
     public URI getPaymentEventsURI(String baseUrl, String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/events")
-                .build(chargeId);
+        return paymentLinks(baseUrl).events().expand(chargeId);
     }
 
     public URI getPaymentCancelURI(String baseUrl, String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/cancel")
-                .build(chargeId);
+        return paymentLinks(baseUrl).cancel().expand(chargeId);
     }
 
     public URI getPaymentRefundsURI(String baseUrl, String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/refunds")
-                .build(chargeId);
+        return paymentLinks(baseUrl).refunds().expand(chargeId);
     }
 
     public URI getPaymentCaptureURI(String baseUrl, String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/capture")
-                .build(chargeId);
+        return paymentLinks(baseUrl).capture().expand(chargeId);
     }
 
+    private PaymentLinkTemplates paymentLinks(String baseUrl) {
+        PaymentLinkTemplates links = paymentLinks;
+        if (links == null || !links.baseUrl().equals(baseUrl)) {
+            links = PaymentLinkTemplates.forBaseUrl(baseUrl);
+            paymentLinks = links;
+        }
+        return links;
+    }
 }
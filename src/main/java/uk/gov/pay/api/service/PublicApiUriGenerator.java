@@ -11,51 +11,45 @@ import java.nio.charset.StandardCharsets;
 public class PublicApiUriGenerator {
 
     private final String baseUrl;
+    private final PaymentLinkTemplates paymentLinks;
+    private final LinkTemplate refundLink;
+    private final URI paymentAuthorisationUri;
 
     @Inject
     public PublicApiUriGenerator(PublicApiConfig configuration) {
         this.baseUrl = configuration.getBaseUrl();
+        this.paymentLinks = PaymentLinkTemplates.forBaseUrl(baseUrl);
+        this.refundLink = new LinkTemplate(baseUrl, "/v1/payments/{paymentId}/refunds/{refunds}");
+        this.paymentAuthorisationUri = UriBuilder.fromUri(baseUrl)
+                .path("/v1/auth")
+                .build();
     }
-    
+
     public URI getPaymentURI(String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}")
-                .build(chargeId);
+        return paymentLinks.payment().expand(chargeId);
     }
     public URI getRefundsURI(String chargeId, String refundId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/refunds/{refunds}")
-                .build(chargeId, refundId);
+        return refundLink.expand(chargeId, refundId);
     }
 
     public URI getPaymentEventsURI(String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/events")
-                .build(chargeId);
+        return paymentLinks.events().expand(chargeId);
     }
 
     public URI getPaymentCancelURI(String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/cancel")
-                .build(chargeId);
+        return paymentLinks.cancel().expand(chargeId);
     }
 
     public URI getPaymentRefundsURI(String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/refunds")
-                .build(chargeId);
+        return paymentLinks.refunds().expand(chargeId);
     }
-    
+
     public URI getPaymentCaptureURI(String chargeId) {
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/payments/{paymentId}/capture")
-                .build(chargeId);
+        return paymentLinks.capture().expand(chargeId);
     }
-    
+
     public URI getPaymentAuthorisationURI(){
-        return UriBuilder.fromUri(baseUrl)
-                .path("/v1/auth")
-                .build();
+        return paymentAuthorisationUri;
     }
 
     public String convertHostToPublicAPI(String link) {
@@ -21,15 +21,22 @@ public class RefundsParams {
     private String displaySize;
     private String fromSettledDate;
     private String toSettledDate;
+    private String cursor;
 
     public RefundsParams(String fromDate, String toDate, String page,
                          String displaySize, String fromSettledDate, String toSettledDate) {
+        this(fromDate, toDate, page, displaySize, fromSettledDate, toSettledDate, null);
+    }
+
+    public RefundsParams(String fromDate, String toDate, String page, String displaySize,
+                         String fromSettledDate, String toSettledDate, String cursor) {
         this.fromDate = fromDate;
         this.toDate = toDate;
         this.page = page;
         this.displaySize = displaySize;
         this.fromSettledDate = fromSettledDate;
         this.toSettledDate = toSettledDate;
+        this.cursor = cursor;
     }
 
     public Map<String, String> getParamsAsMap() {
@@ -67,4 +74,8 @@ public class RefundsParams {
     public String getToSettledDate() {
         return toSettledDate;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
 }
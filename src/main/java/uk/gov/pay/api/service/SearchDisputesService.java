@@ -1,15 +1,26 @@
 package uk.gov.pay.api.service;
 
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.DisputesValidationException;
+import uk.gov.pay.api.model.ledger.DisputeTransactionFromLedger;
 import uk.gov.pay.api.model.ledger.SearchDisputesResponseFromLedger;
+import uk.gov.pay.api.model.search.CursorPage;
 import uk.gov.pay.api.model.search.PaginationDecorator;
+import uk.gov.pay.api.model.search.SearchCursor;
 import uk.gov.pay.api.model.search.dispute.DisputeForSearchResult;
 import uk.gov.pay.api.model.search.dispute.DisputesSearchResults;
 
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_DISPUTES_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+import static uk.gov.pay.api.model.search.PaginationDecorator.CURSOR;
+import static uk.gov.pay.api.model.search.PaginationDecorator.afterCursor;
+import static uk.gov.pay.api.model.search.PaginationDecorator.displaySize;
+
 public class SearchDisputesService {
     private static final String DISPUTES_PATH = "/v1/disputes";
     private final LedgerService ledgerService;
@@ -27,21 +38,66 @@ public class SearchDisputesService {
     }
 
     public DisputesSearchResults searchDisputes(Account account, DisputesSearchParams params) {
+        if (params.getCursor() != null) {
+            return searchDisputesAfterCursor(account, params);
+        }
+
         SearchDisputesResponseFromLedger disputesFromLedger = ledgerService.searchDisputes(account, params.getParamsAsMap());
-        return processLedgerResponse(disputesFromLedger);
+        return processLedgerResponse(account, params, disputesFromLedger);
+    }
+
+    private DisputesSearchResults processLedgerResponse(Account account, DisputesSearchParams params,
+                                                        SearchDisputesResponseFromLedger searchResponse) {
+        String nextCursor = null;
+        if (params.getPage() == null || "1".equals(params.getPage())) {
+            Map<String, String> paramsAsMap = params.getParamsAsMap();
+            nextCursor = CursorPage.of(searchResponse.getDisputes(), DisputeTransactionFromLedger::getCreatedDate,
+                            DisputeTransactionFromLedger::getTransactionId, null,
+                            displaySize(paramsAsMap), searchResponse.getLinks().getNextPage() != null)
+                    .next()
+                    .map(next -> paginationDecorator.encodeCursor(next, account, DISPUTES_PATH, paramsAsMap))
+                    .orElse(null);
+        }
+
+        reWriteSearchLinks(searchResponse);
+
+        return new DisputesSearchResults(searchResponse.getTotal(), searchResponse.getCount(), searchResponse.getPage(),
+                toSearchResults(searchResponse.getDisputes()), nextCursor,
+                paginationDecorator.transformLinksToPublicApiUri(searchResponse.getLinks(), DISPUTES_PATH));
     }
 
-    private DisputesSearchResults processLedgerResponse(SearchDisputesResponseFromLedger searchResponse) {
-        List<DisputeForSearchResult> results = searchResponse.getDisputes()
+    private DisputesSearchResults searchDisputesAfterCursor(Account account, DisputesSearchParams params) {
+        if (params.getPage() != null) {
+            throw invalidCursor();
+        }
+        Map<String, String> paramsAsMap = params.getParamsAsMap();
+        SearchCursor cursor = paginationDecorator.decodeCursor(params.getCursor(), account, DISPUTES_PATH, paramsAsMap)
+                .orElseThrow(SearchDisputesService::invalidCursor);
+
+        SearchDisputesResponseFromLedger searchResponse = ledgerService.searchDisputes(account, afterCursor(paramsAsMap, cursor));
+        CursorPage<DisputeTransactionFromLedger> page = CursorPage.of(searchResponse.getDisputes(),
+                DisputeTransactionFromLedger::getCreatedDate, DisputeTransactionFromLedger::getTransactionId,
+                cursor, displaySize(paramsAsMap),
+                searchResponse.getLinks().getNextPage() != null);
+        String nextCursor = page.next()
+                .map(next -> paginationDecorator.encodeCursor(next, account, DISPUTES_PATH, paramsAsMap))
+                .orElse(null);
+
+        return new DisputesSearchResults(null, page.results().size(), 1,
+                toSearchResults(page.results()), nextCursor,
+                paginationDecorator.cursorLinks(DISPUTES_PATH, paramsAsMap, params.getCursor(), nextCursor));
+    }
+
+    private List<DisputeForSearchResult> toSearchResults(List<DisputeTransactionFromLedger> disputes) {
+        return disputes
                 .stream()
                 .map(dispute -> DisputeForSearchResult.valueOf(dispute,
                         publicApiUriGenerator.getPaymentURI(dispute.getParentTransactionId())))
                         .collect(Collectors.toList());
+    }
 
-        reWriteSearchLinks(searchResponse);
-
-        return new DisputesSearchResults(searchResponse.getTotal(), searchResponse.getCount(), searchResponse.getPage(),
-                results, paginationDecorator.transformLinksToPublicApiUri(searchResponse.getLinks(), DISPUTES_PATH));
+    private static DisputesValidationException invalidCursor() {
+        return new DisputesValidationException(aRequestError(SEARCH_DISPUTES_VALIDATION_ERROR, CURSOR));
     }
 
     private void reWriteSearchLinks(SearchDisputesResponseFromLedger searchResponse) {
@@ -0,0 +1,222 @@
+package uk.gov.pay.api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.RequestError;
+import uk.gov.pay.api.model.TransactionResponse;
+import uk.gov.pay.api.model.ledger.RefundTransactionFromLedger;
+import uk.gov.pay.api.model.search.card.PaymentForSearchResult;
+import uk.gov.pay.api.model.search.card.RefundForSearchRefundsResult;
+import uk.gov.pay.api.service.ExportWriter.Column;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_PAYMENTS_CONNECTOR_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_REFUNDS_CONNECTOR_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+import static uk.gov.pay.api.validation.PaymentSearchValidator.validateSearchParameters;
+import static uk.gov.pay.api.validation.RefundSearchValidator.validateSearchParameters;
+
+/**
+ * Exports every payment or refund matching a search, rather than a page of them.
+ * <p>
+ * Ledger is asked for the results a page at a time, and each page is parsed and written to the response one
+ * result at a time, so an export holds no more than one result in memory however many there are. The first page
+ * is asked for before anything is written, so that errors from ledger about the search can still be returned as
+ * errors. If a later page fails, the export ends with a line saying it failed, after the results already written;
+ * otherwise it ends with a line saying it is complete. See {@link ExportWriter}.
+ * <p>
+ * Unless the search has a to_date, results created after the export starts are left out, so that they do not push
+ * results already exported on to the next page and cause them to be exported twice.
+ */
+public class SearchExportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchExportService.class);
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    private static final ObjectMapper LEDGER_OBJECT_MAPPER = Jackson.newObjectMapper();
+    private static final DateTimeFormatter TO_DATE_FORMAT = DateTimeFormatter.ISO_INSTANT;
+    private static final String PAGE = "page";
+    private static final String DISPLAY_SIZE = "display_size";
+    private static final String TO_DATE = "to_date";
+
+    private static final List<Column> PAYMENT_COLUMNS = List.of(
+            Column.of("payment_id", "/payment_id"),
+            Column.of("created_date", "/created_date"),
+            Column.of("reference", "/reference"),
+            Column.of("description", "/description"),
+            Column.of("amount", "/amount"),
+            Column.of("state", "/state/status"),
+            Column.of("payment_provider", "/payment_provider"),
+            Column.of("provider_id", "/provider_id"),
+            Column.of("card_brand", "/card_details/card_brand"),
+            Column.of("last_digits_card_number", "/card_details/last_digits_card_number"),
+            Column.of("corporate_card_surcharge", "/corporate_card_surcharge"),
+            Column.of("total_amount", "/total_amount"),
+            Column.of("fee", "/fee"),
+            Column.of("net_amount", "/net_amount"),
+            Column.of("refund_status", "/refund_summary/status"),
+            Column.of("amount_refunded", "/refund_summary/amount_submitted"),
+            Column.of("captured_date", "/settlement_summary/captured_date"),
+            Column.of("settled_date", "/settlement_summary/settled_date"));
+
+    private static final List<Column> REFUND_COLUMNS = List.of(
+            Column.of("refund_id", "/refund_id"),
+            Column.of("payment_id", "/payment_id"),
+            Column.of("created_date", "/created_date"),
+            Column.of("amount", "/amount"),
+            Column.of("status", "/status"),
+            Column.of("settled_date", "/settlement_summary/settled_date"));
+
+    private final LedgerService ledgerService;
+    private final PublicApiUriGenerator publicApiUriGenerator;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int pageSize;
+
+    @Inject
+    public SearchExportService(LedgerService ledgerService, PublicApiUriGenerator publicApiUriGenerator,
+                               ObjectMapper objectMapper) {
+        this(ledgerService, publicApiUriGenerator, objectMapper, Clock.systemUTC(), EXPORT_PAGE_SIZE);
+    }
+
+    SearchExportService(LedgerService ledgerService, PublicApiUriGenerator publicApiUriGenerator,
+                        ObjectMapper objectMapper, Clock clock, int pageSize) {
+        this.ledgerService = ledgerService;
+        this.publicApiUriGenerator = publicApiUriGenerator;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.pageSize = pageSize;
+    }
+
+    public StreamingOutput exportPayments(Account account, PaymentSearchParams searchParams, ExportFormat format) {
+        validateSearchParameters(searchParams);
+        Map<String, String> params = exportParams(searchParams.getParamsAsMap());
+        IntFunction<InputStream> pages = page -> ledgerService.searchPaymentsAsStream(account, pageParams(params, page));
+        InputStream firstPage = pages.apply(1);
+
+        return outputStream -> export(firstPage, pages, TransactionResponse.class, this::toPaymentForSearchResult,
+                format, PAYMENT_COLUMNS, SEARCH_PAYMENTS_CONNECTOR_ERROR, outputStream);
+    }
+
+    public StreamingOutput exportRefunds(Account account, RefundsParams refundsParams, ExportFormat format) {
+        validateSearchParameters(refundsParams);
+        Map<String, String> params = exportParams(refundsParams.getParamsAsMap());
+        IntFunction<InputStream> pages = page -> ledgerService.searchRefundsAsStream(account, pageParams(params, page));
+        InputStream firstPage = pages.apply(1);
+
+        return outputStream -> export(firstPage, pages, RefundTransactionFromLedger.class, this::toRefundForSearchResult,
+                format, REFUND_COLUMNS, SEARCH_REFUNDS_CONNECTOR_ERROR, outputStream);
+    }
+
+    private Map<String, String> exportParams(Map<String, String> searchParams) {
+        searchParams.remove(PAGE);
+        searchParams.remove(DISPLAY_SIZE);
+        if (searchParams.get(TO_DATE) == null) {
+            searchParams.put(TO_DATE, TO_DATE_FORMAT.format(clock.instant().truncatedTo(ChronoUnit.SECONDS)));
+        }
+        return searchParams;
+    }
+
+    private Map<String, String> pageParams(Map<String, String> exportParams, int page) {
+        Map<String, String> params = new LinkedHashMap<>(exportParams);
+        params.put(PAGE, String.valueOf(page));
+        params.put(DISPLAY_SIZE, String.valueOf(pageSize));
+        return params;
+    }
+
+    private <T> void export(InputStream firstPage, IntFunction<InputStream> pages, Class<T> type,
+                            Function<T, Object> toRecord, ExportFormat format, List<Column> columns,
+                            RequestError.Code errorCode, OutputStream outputStream) throws IOException {
+        try (firstPage; ExportWriter writer = ExportWriter.of(format, objectMapper, columns, outputStream)) {
+            try {
+                InputStream page = firstPage;
+                for (int pageNumber = 1; ; pageNumber++) {
+                    int results;
+                    try (InputStream body = page) {
+                        results = readResults(body, type, result -> writer.write(toRecord.apply(result)));
+                    }
+                    if (results < pageSize) {
+                        writer.writeComplete();
+                        return;
+                    }
+                    page = pages.apply(pageNumber + 1);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Export failed after {} results: {}", writer.getCount(), e.getMessage());
+                writer.writeFailed(aRequestError(errorCode));
+            }
+        }
+    }
+
+    /**
+     * Reads the results in a page of ledger's search response one at a time, skipping everything else. A response
+     * that stops part of the way through fails rather than being read as a shorter page.
+     *
+     * @return the number of results in the page
+     */
+    static <T> int readResults(InputStream body, Class<T> type, ResultConsumer<T> consumer) throws IOException {
+        int results = 0;
+        try (JsonParser parser = LEDGER_OBJECT_MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected ledger search response to be a JSON object");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(parser.readValueAs(type));
+                        results++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new IOException("Ledger search response ended before it was complete");
+            }
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    interface ResultConsumer<T> {
+        void accept(T result) throws IOException;
+    }
+
+    private Object toPaymentForSearchResult(TransactionResponse transaction) {
+        return PaymentForSearchResult.valueOf(
+                transaction,
+                publicApiUriGenerator.getPaymentURI(transaction.getTransactionId()),
+                publicApiUriGenerator.getPaymentEventsURI(transaction.getTransactionId()),
+                publicApiUriGenerator.getPaymentCancelURI(transaction.getTransactionId()),
+                publicApiUriGenerator.getPaymentRefundsURI(transaction.getTransactionId()),
+                publicApiUriGenerator.getPaymentCaptureURI(transaction.getTransactionId()));
+    }
+
+    private Object toRefundForSearchResult(RefundTransactionFromLedger refund) {
+        return RefundForSearchRefundsResult.valueOf(
+                refund,
+                publicApiUriGenerator.getPaymentURI(refund.getParentTransactionId()),
+                publicApiUriGenerator.getRefundsURI(refund.getParentTransactionId(), refund.getTransactionId()));
+    }
+}
@@ -1,15 +1,26 @@
 package uk.gov.pay.api.service;
 
 import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.RefundsValidationException;
+import uk.gov.pay.api.model.ledger.RefundTransactionFromLedger;
 import uk.gov.pay.api.model.ledger.SearchRefundsResponseFromLedger;
+import uk.gov.pay.api.model.search.CursorPage;
 import uk.gov.pay.api.model.search.PaginationDecorator;
+import uk.gov.pay.api.model.search.SearchCursor;
 import uk.gov.pay.api.model.search.card.RefundForSearchRefundsResult;
 import uk.gov.pay.api.model.search.card.SearchRefundsResults;
 
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static uk.gov.pay.api.model.RequestError.Code.SEARCH_REFUNDS_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+import static uk.gov.pay.api.model.search.PaginationDecorator.CURSOR;
+import static uk.gov.pay.api.model.search.PaginationDecorator.afterCursor;
+import static uk.gov.pay.api.model.search.PaginationDecorator.displaySize;
+
 public class SearchRefundsService {
 
     private static final String REFUNDS_PATH = "/v1/refunds";
@@ -28,13 +39,67 @@ public class SearchRefundsService {
     }
 
     public SearchRefundsResults searchLedgerRefunds(Account account, RefundsParams params) {
+        if (params.getCursor() != null) {
+            return searchLedgerRefundsAfterCursor(account, params);
+        }
+
         SearchRefundsResponseFromLedger refunds
                 = ledgerService.searchRefunds(account, params.getParamsAsMap());
-        return processLedgerResponse(refunds);
+        return processLedgerResponse(account, params, refunds);
+    }
+
+    private SearchRefundsResults processLedgerResponse(Account account, RefundsParams params,
+                                                       SearchRefundsResponseFromLedger searchResponse) {
+        String nextCursor = null;
+        if (params.getPage() == null || "1".equals(params.getPage())) {
+            Map<String, String> paramsAsMap = params.getParamsAsMap();
+            nextCursor = CursorPage.of(searchResponse.getRefunds(), RefundTransactionFromLedger::getCreatedDate,
+                            RefundTransactionFromLedger::getTransactionId, null,
+                            displaySize(paramsAsMap), searchResponse.getLinks().getNextPage() != null)
+                    .next()
+                    .map(next -> paginationDecorator.encodeCursor(next, account, REFUNDS_PATH, paramsAsMap))
+                    .orElse(null);
+        }
+
+        return new SearchRefundsResults(
+                searchResponse.getTotal(),
+                searchResponse.getCount(),
+                searchResponse.getPage(),
+                toSearchResults(searchResponse.getRefunds()),
+                nextCursor,
+                paginationDecorator.transformLinksToPublicApiUri(searchResponse.getLinks(), REFUNDS_PATH)
+        );
+    }
+
+    private SearchRefundsResults searchLedgerRefundsAfterCursor(Account account, RefundsParams params) {
+        if (params.getPage() != null) {
+            throw invalidCursor();
+        }
+        Map<String, String> paramsAsMap = params.getParamsAsMap();
+        SearchCursor cursor = paginationDecorator.decodeCursor(params.getCursor(), account, REFUNDS_PATH, paramsAsMap)
+                .orElseThrow(SearchRefundsService::invalidCursor);
+
+        SearchRefundsResponseFromLedger searchResponse = ledgerService.searchRefunds(account, afterCursor(paramsAsMap, cursor));
+        CursorPage<RefundTransactionFromLedger> page = CursorPage.of(searchResponse.getRefunds(),
+                RefundTransactionFromLedger::getCreatedDate, RefundTransactionFromLedger::getTransactionId,
+                cursor, displaySize(paramsAsMap),
+                searchResponse.getLinks().getNextPage() != null);
+        String nextCursor = page.next()
+                .map(next -> paginationDecorator.encodeCursor(next, account, REFUNDS_PATH, paramsAsMap))
+                .orElse(null);
+
+        return new SearchRefundsResults(
+                null,
+                page.results().size(),
+                1,
+                toSearchResults(page.results()),
+                nextCursor,
+                paginationDecorator.cursorLinks(REFUNDS_PATH, paramsAsMap, params.getCursor(), nextCursor)
+        );
     }
 
-    private SearchRefundsResults processLedgerResponse(SearchRefundsResponseFromLedger searchResponse) {
-        List<RefundForSearchRefundsResult> results = searchResponse.getRefunds()
+    private List<RefundForSearchRefundsResult> toSearchResults(List<RefundTransactionFromLedger> refunds) {
+        return refunds
                 .stream()
                 .map(refund -> RefundForSearchRefundsResult.valueOf(
                         refund,
@@ -43,13 +108,9 @@ public class SearchRefundsService {
                                 refund.getTransactionId()))
                 )
                 .collect(Collectors.toList());
+    }
 
-        return new SearchRefundsResults(
-                searchResponse.getTotal(),
-                searchResponse.getCount(),
-                searchResponse.getPage(),
-                results,
-                paginationDecorator.transformLinksToPublicApiUri(searchResponse.getLinks(), REFUNDS_PATH)
-        );
+    private static RefundsValidationException invalidCursor() {
+        return new RefundsValidationException(aRequestError(SEARCH_REFUNDS_VALIDATION_ERROR, CURSOR));
     }
 }
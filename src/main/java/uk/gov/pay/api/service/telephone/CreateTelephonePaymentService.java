@@ -3,6 +3,7 @@ package uk.gov.pay.api.service.telephone;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hc.core5.http.HttpStatus;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CreateChargeException;
 import uk.gov.pay.api.model.ChargeFromResponse;
@@ -24,7 +25,7 @@ public class CreateTelephonePaymentService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public CreateTelephonePaymentService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public CreateTelephonePaymentService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
     }
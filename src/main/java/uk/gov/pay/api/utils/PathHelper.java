@@ -4,9 +4,20 @@ import org.apache.commons.lang3.StringUtils;
 
 public class PathHelper {
 
+    public static final String BATCH_GET_PAYMENTS = "batch_get_payments";
+    public static final String BULK_REFUNDS = "bulk_refunds";
+
     public static String getPathType(String pathValue, String method) {
         String path = StringUtils.removeEnd(pathValue, "/");
 
+        if (path.endsWith("/payments/batch_get")) {
+            return BATCH_GET_PAYMENTS;
+        }
+
+        if (path.endsWith("/refunds/bulk")) {
+            return BULK_REFUNDS;
+        }
+
         if (path.endsWith("/capture")) {
             return "capture_payment";
         }
@@ -0,0 +1,22 @@
+package uk.gov.pay.api.validation;
+
+import java.util.regex.Pattern;
+
+/**
+ * Checks an ID taken from a request body, such as a payment ID, before it is put in a path to connector or ledger.
+ * Unlike an ID from a path parameter, it could contain {@code /} or {@code ..} and so reach another account's
+ * resources.
+ */
+public class ExternalIdValidator {
+
+    public static final int MAX_LENGTH = 50;
+
+    private static final Pattern EXTERNAL_ID = Pattern.compile("[A-Za-z0-9]{1," + MAX_LENGTH + "}");
+
+    private ExternalIdValidator() {
+    }
+
+    public static boolean isValid(String value) {
+        return value != null && EXTERNAL_ID.matcher(value).matches();
+    }
+}
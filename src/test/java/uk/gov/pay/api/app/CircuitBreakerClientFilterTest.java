@@ -0,0 +1,126 @@
+package uk.gov.pay.api.app;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.core.Response;
+import org.glassfish.jersey.client.spi.PostInvocationInterceptor.ExceptionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.api.app.config.CircuitBreakerConfiguration;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerClientFilterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private CircuitBreakerClientFilter circuitBreakerClientFilter;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerConfiguration configuration = new CircuitBreakerConfiguration();
+        configuration.setSlidingWindowSize(4);
+        configuration.setMinimumNumberOfCalls(4);
+        configuration.setSlowCallDurationThreshold(Duration.seconds(1));
+        circuitBreakerClientFilter = new CircuitBreakerClientFilter("connector", configuration, metricRegistry, nanoTime::get);
+    }
+
+    @Test
+    void shouldStopCallingService_whenHalfOfCallsHaveErrorResponses() {
+        respondWith(500, 200, 502, 200);
+
+        ClientRequestContext requestContext = aRequestContext();
+        circuitBreakerClientFilter.filter(requestContext);
+
+        verify(requestContext).abortWith(argThat(response -> response.getStatus() == 503));
+        assertThat(metricRegistry.getGauges().get("circuit_breaker.connector.state").getValue(), is(2));
+        assertThat(metricRegistry.counter("circuit_breaker.connector.transitions.open").getCount(), is(1L));
+        assertThat(metricRegistry.counter("circuit_breaker.connector.rejected_calls").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldKeepCallingService_whenResponsesAreClientErrors() {
+        respondWith(404, 404, 422, 404);
+
+        ClientRequestContext requestContext = aRequestContext();
+        circuitBreakerClientFilter.filter(requestContext);
+
+        verify(requestContext, never()).abortWith(any(Response.class));
+        assertThat(metricRegistry.getGauges().get("circuit_breaker.connector.state").getValue(), is(0));
+    }
+
+    @Test
+    void shouldStopCallingService_whenRequestsFailWithoutResponse() {
+        ExceptionContext exceptionContext = mock(ExceptionContext.class);
+        when(exceptionContext.getThrowables()).thenReturn(
+                new ArrayDeque<>(List.of(new ProcessingException(new SocketTimeoutException("Read timed out")))));
+
+        for (int i = 0; i < 4; i++) {
+            ClientRequestContext requestContext = aRequestContext();
+            circuitBreakerClientFilter.filter(requestContext);
+            circuitBreakerClientFilter.onException(requestContext, exceptionContext);
+        }
+
+        ClientRequestContext requestContext = aRequestContext();
+        circuitBreakerClientFilter.filter(requestContext);
+
+        verify(requestContext).abortWith(argThat(response -> response.getStatus() == 503));
+    }
+
+    @Test
+    void shouldStopCallingService_whenMostCallsAreSlow() {
+        for (int i = 0; i < 4; i++) {
+            ClientRequestContext requestContext = aRequestContext();
+            circuitBreakerClientFilter.filter(requestContext);
+            nanoTime.addAndGet(java.time.Duration.ofSeconds(2).toNanos());
+            circuitBreakerClientFilter.afterRequest(requestContext, aResponseContext(200));
+        }
+
+        ClientRequestContext requestContext = aRequestContext();
+        circuitBreakerClientFilter.filter(requestContext);
+
+        verify(requestContext).abortWith(argThat(response -> response.getStatus() == 503));
+    }
+
+    private void respondWith(int... statuses) {
+        for (int status : statuses) {
+            ClientRequestContext requestContext = aRequestContext();
+            circuitBreakerClientFilter.filter(requestContext);
+            circuitBreakerClientFilter.afterRequest(requestContext, aResponseContext(status));
+        }
+    }
+
+    private static ClientRequestContext aRequestContext() {
+        Map<String, Object> properties = new HashMap<>();
+        ClientRequestContext requestContext = mock(ClientRequestContext.class);
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(requestContext).setProperty(anyString(), any());
+        when(requestContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        return requestContext;
+    }
+
+    private static ClientResponseContext aResponseContext(int status) {
+        ClientResponseContext responseContext = mock(ClientResponseContext.class);
+        when(responseContext.getStatus()).thenReturn(status);
+        return responseContext;
+    }
+}
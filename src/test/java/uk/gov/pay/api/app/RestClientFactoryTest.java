@@ -1,44 +1,65 @@
 package uk.gov.pay.api.app;
 
+import io.dropwizard.core.setup.Environment;
 import org.junit.jupiter.api.Test;
 import uk.gov.pay.api.app.config.RestClientConfig;
 
-import javax.net.ssl.SSLContext;
 import jakarta.ws.rs.client.Client;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
-import static org.hamcrest.core.IsNot.not;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 public class RestClientFactoryTest {
 
+    private static final String CONNECTION_MANAGER_METRICS = "org.apache.hc.client5.http.io.HttpClientConnectionManager.";
+
     @Test
     public void jerseyClient_shouldUseSSLWhenSecureInternalCommunicationIsOn() {
         //given
-        RestClientConfig clientConfiguration = mock(RestClientConfig.class);
-        when(clientConfiguration.isDisabledSecureConnection()).thenReturn(false);
+        RestClientConfig clientConfiguration = new RestClientConfig(false);
 
         //when
-        Client client = RestClientFactory.buildClient(clientConfiguration);
+        Client client = TestRestClientFactory.buildClient(clientConfiguration);
 
         //then
-        SSLContext sslContext = client.getSslContext();
-        assertThat(sslContext.getProtocol(), is("TLSv1.2"));
-
+        assertThat(client, is(notNullValue()));
+        assertThat(clientConfiguration.getTlsConfiguration().getProtocol(), is("TLSv1.2"));
     }
 
     @Test
     public void jerseyClient_shouldNotUseSSLWhenSecureInternalCommunicationIsOff() {
         //given
-        RestClientConfig clientConfiguration = mock(RestClientConfig.class);
-        when(clientConfiguration.isDisabledSecureConnection()).thenReturn(true);
+        RestClientConfig clientConfiguration = new RestClientConfig(true);
+
+        //when
+        Client client = TestRestClientFactory.buildClient(clientConfiguration);
+
+        //then
+        assertThat(client, is(notNullValue()));
+        assertThat(clientConfiguration.getTlsConfiguration(), is(nullValue()));
+    }
+
+    @Test
+    public void jerseyClient_shouldHaveSeparatelyInstrumentedPoolForEachService() {
+        //given
+        Environment environment = new Environment("test");
+        RestClientConfig connectorClientConfig = new RestClientConfig(true);
+        connectorClientConfig.setMaxConnections(8);
+        RestClientConfig ledgerClientConfig = new RestClientConfig(true);
+        ledgerClientConfig.setMaxConnections(4);
 
         //when
-        Client client = RestClientFactory.buildClient(clientConfiguration);
+        RestClientFactory.buildClient("connector", connectorClientConfig, environment);
+        RestClientFactory.buildClient("ledger", ledgerClientConfig, environment);
 
         //then
-        assertThat(client.getSslContext().getProtocol(), is(not("TLSv1.2")));
+        var gauges = environment.metrics().getGauges();
+        assertThat(gauges, hasKey(CONNECTION_MANAGER_METRICS + "connector.leased-connections"));
+        assertThat(gauges, hasKey(CONNECTION_MANAGER_METRICS + "ledger.leased-connections"));
+        assertThat(gauges.get(CONNECTION_MANAGER_METRICS + "connector.max-connections").getValue(), is(8));
+        assertThat(gauges.get(CONNECTION_MANAGER_METRICS + "ledger.max-connections").getValue(), is(4));
     }
 }
@@ -0,0 +1,22 @@
+package uk.gov.pay.api.app;
+
+import io.dropwizard.core.setup.Environment;
+import uk.gov.pay.api.app.config.RestClientConfig;
+
+import jakarta.ws.rs.client.Client;
+
+public class TestRestClientFactory {
+
+    private static final String CLIENT_NAME = "publicapi";
+
+    /**
+     * A client built as {@link RestClientFactory} builds them for the application. Each one gets an environment of
+     * its own, so that tests can build as many as they like without their metrics clashing.
+     */
+    public static Client buildClient(RestClientConfig clientConfig) {
+        return RestClientFactory.buildClient(CLIENT_NAME, clientConfig, new Environment(CLIENT_NAME));
+    }
+
+    private TestRestClientFactory() {
+    }
+}
@@ -5,11 +5,16 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import com.google.common.collect.ImmutableMap;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.util.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -17,6 +22,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.model.publicauth.AuthResponse;
 
 import jakarta.ws.rs.ServiceUnavailableException;
@@ -25,9 +31,19 @@ import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
@@ -35,8 +51,11 @@ import static jakarta.ws.rs.core.Response.Status.OK;
 import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.api.model.TokenPaymentType.CARD;
@@ -48,6 +67,7 @@ public class AccountAuthenticatorTest {
 
     private AccountAuthenticator accountAuthenticator;
     private ObjectMapper objectMapper = new ObjectMapper();
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     private final String bearerToken = "aaa";
     private final String accountId = "accountId";
@@ -67,6 +87,9 @@ public class AccountAuthenticatorTest {
     @Mock
     private PublicApiConfig mockConfiguration;
 
+    @Mock
+    private Environment mockEnvironment;
+
     @Mock
     private Appender<ILoggingEvent> mockAppender;
 
@@ -80,7 +103,9 @@ public class AccountAuthenticatorTest {
         logger.addAppender(mockAppender);
         
         when(mockConfiguration.getPublicAuthUrl()).thenReturn("/v1/api/auth");
-        accountAuthenticator = new AccountAuthenticator(publicAuthMock, mockConfiguration);
+        when(mockConfiguration.getAuthenticationNegativeCachePolicy()).thenReturn(CaffeineSpec.parse("maximumSize=10,expireAfterWrite=1m"));
+        when(mockEnvironment.metrics()).thenReturn(metricRegistry);
+        accountAuthenticator = new AccountAuthenticator(publicAuthMock, mockConfiguration, mockEnvironment);
         when(publicAuthMock.target("/v1/api/auth")).thenReturn(mockTarget);
         when(mockTarget.request()).thenReturn(mockRequest);
         when(mockRequest.header(AUTHORIZATION, "Bearer " + bearerToken)).thenReturn(mockRequest);
@@ -144,4 +169,156 @@ public class AccountAuthenticatorTest {
         when(mockResponse.getStatus()).thenReturn(NOT_FOUND.getStatusCode());
         assertThrows(ServiceUnavailableException.class, () -> accountAuthenticator.authenticate(bearerToken));
     }
+
+    @Test
+    public void shouldNotCallPublicAuthAgain_forRevokedToken() {
+        Map<String, String> responseEntity = ImmutableMap.of(
+                "error_identifier", AUTH_TOKEN_REVOKED.toString(),
+                "token_link", "a-token-link"
+        );
+        when(mockResponse.getStatus()).thenReturn(UNAUTHORIZED.getStatusCode());
+        when(mockResponse.readEntity(JsonNode.class)).thenReturn(objectMapper.valueToTree(responseEntity));
+
+        assertThat(accountAuthenticator.authenticate(bearerToken).isPresent(), is(false));
+        assertThat(accountAuthenticator.authenticate(bearerToken).isPresent(), is(false));
+
+        verify(mockRequest).get();
+        assertThat(metricRegistry.counter("auth.negative_cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.counter("auth.negative_cache.misses").getCount(), is(1L));
+
+        verify(mockAppender, times(2)).doAppend(loggingEventArgumentCaptor.capture());
+        List<LoggingEvent> logEvents = loggingEventArgumentCaptor.getAllValues();
+        assertThat(logEvents.get(1).getFormattedMessage(), is("Attempt to authenticate using revoked API key with token_link a-token-link"));
+    }
+
+    @Test
+    public void shouldNotCallPublicAuthAgain_forInvalidToken() {
+        Map<String, String> responseEntity = ImmutableMap.of(
+                "error_identifier", AUTH_TOKEN_INVALID.toString()
+        );
+        when(mockResponse.getStatus()).thenReturn(UNAUTHORIZED.getStatusCode());
+        when(mockResponse.readEntity(JsonNode.class)).thenReturn(objectMapper.valueToTree(responseEntity));
+
+        assertThat(accountAuthenticator.authenticate(bearerToken).isPresent(), is(false));
+        assertThat(accountAuthenticator.authenticate(bearerToken).isPresent(), is(false));
+
+        verify(mockRequest).get();
+        assertThat(metricRegistry.counter("auth.negative_cache.hits").getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldCallPublicAuthEveryTime_forValidToken() {
+        AuthResponse authResponse = new AuthResponse(accountId, "a-token-link", CARD);
+        when(mockResponse.getStatus()).thenReturn(OK.getStatusCode());
+        when(mockResponse.readEntity(AuthResponse.class)).thenReturn(authResponse);
+
+        accountAuthenticator.authenticate(bearerToken);
+        accountAuthenticator.authenticate(bearerToken);
+
+        verify(mockRequest, times(2)).get();
+        assertThat(metricRegistry.counter("auth.negative_cache.hits").getCount(), is(0L));
+        assertThat(metricRegistry.counter("auth.negative_cache.misses").getCount(), is(2L));
+    }
+
+    @Test
+    public void shouldCallPublicAuthAgain_afterUnknownResponse() {
+        when(mockResponse.getStatus()).thenReturn(NOT_FOUND.getStatusCode());
+
+        assertThrows(ServiceUnavailableException.class, () -> accountAuthenticator.authenticate(bearerToken));
+        assertThrows(ServiceUnavailableException.class, () -> accountAuthenticator.authenticate(bearerToken));
+
+        verify(mockRequest, times(2)).get();
+    }
+
+    @Test
+    @Timeout(10)
+    public void shouldShareOneCallToPublicAuth_betweenConcurrentRequestsForTheSameToken() throws Exception {
+        CountDownLatch publicAuthResponse = new CountDownLatch(1);
+        AuthResponse authResponse = new AuthResponse(accountId, "a-token-link", CARD);
+        when(mockResponse.getStatus()).thenAnswer(invocation -> {
+            publicAuthResponse.await();
+            return OK.getStatusCode();
+        });
+        when(mockResponse.readEntity(AuthResponse.class)).thenReturn(authResponse);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Optional<Account>>> results = IntStream.range(0, 5)
+                    .mapToObj(i -> executorService.submit(() -> accountAuthenticator.authenticate(bearerToken)))
+                    .collect(Collectors.toList());
+
+            while (metricRegistry.counter("auth.coalesced_requests").getCount() < 4) {
+                Thread.sleep(10);
+            }
+            publicAuthResponse.countDown();
+
+            for (Future<Optional<Account>> result : results) {
+                assertThat(result.get().get().accountId(), is(accountId));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        verify(mockRequest).get();
+    }
+
+    @Test
+    @Timeout(10)
+    public void shouldFailEachWaitingRequestWithItsOwnException_whenSharedCallToPublicAuthFails() throws Exception {
+        CountDownLatch publicAuthResponse = new CountDownLatch(1);
+        when(mockResponse.getStatus()).thenAnswer(invocation -> {
+            publicAuthResponse.await();
+            return NOT_FOUND.getStatusCode();
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Optional<Account>>> results = IntStream.range(0, 3)
+                    .mapToObj(i -> executorService.submit(() -> accountAuthenticator.authenticate(bearerToken)))
+                    .collect(Collectors.toList());
+
+            while (metricRegistry.counter("auth.coalesced_requests").getCount() < 2) {
+                Thread.sleep(10);
+            }
+            publicAuthResponse.countDown();
+
+            Set<Throwable> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Optional<Account>> result : results) {
+                ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+                assertThat(failure.getCause(), instanceOf(ServiceUnavailableException.class));
+                failures.add(failure.getCause());
+            }
+            assertThat(failures, hasSize(3));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void shouldStopWaitingForAnotherRequestsCallToPublicAuth_afterPublicAuthClientTimeouts() throws Exception {
+        RestClientConfig publicAuthClientConfig = new RestClientConfig();
+        publicAuthClientConfig.setTimeout(Duration.milliseconds(100));
+        publicAuthClientConfig.setConnectionTimeout(Duration.milliseconds(50));
+        publicAuthClientConfig.setConnectionRequestTimeout(Duration.milliseconds(50));
+        when(mockConfiguration.getPublicAuthClientConfig()).thenReturn(publicAuthClientConfig);
+        accountAuthenticator = new AccountAuthenticator(publicAuthMock, mockConfiguration, mockEnvironment);
+
+        CountDownLatch publicAuthResponse = new CountDownLatch(1);
+        when(mockResponse.getStatus()).thenAnswer(invocation -> {
+            publicAuthResponse.await();
+            return NOT_FOUND.getStatusCode();
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            executorService.submit(() -> accountAuthenticator.authenticate(bearerToken));
+            verify(mockRequest, timeout(5000)).get();
+
+            assertThrows(ServiceUnavailableException.class, () -> accountAuthenticator.authenticate(bearerToken));
+        } finally {
+            publicAuthResponse.countDown();
+            executorService.shutdownNow();
+        }
+    }
 }
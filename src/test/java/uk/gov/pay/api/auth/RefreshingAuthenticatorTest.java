@@ -0,0 +1,111 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.auth.Authenticator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshingAuthenticatorTest {
+
+    private static final String BEARER_TOKEN = "aaa";
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+
+    @Mock
+    private Authenticator<String, Account> mockAuthenticator;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private RefreshingAuthenticator refreshingAuthenticator;
+
+    @BeforeEach
+    void setUp() {
+        refreshingAuthenticator = new RefreshingAuthenticator(mockAuthenticator,
+                CaffeineSpec.parse("refreshAfterWrite=1m,expireAfterWrite=5m"), Runnable::run, nanoTime::get, metricRegistry);
+    }
+
+    @Test
+    void shouldAuthenticateOnceWhileCached() throws Exception {
+        when(mockAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(ACCOUNT));
+
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(ACCOUNT)));
+        advance(Duration.ofSeconds(59));
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(ACCOUNT)));
+
+        verify(mockAuthenticator).authenticate(BEARER_TOKEN);
+        assertThat(metricRegistry.getGauges().get("auth.cache.hits").getValue(), is(1L));
+        assertThat(metricRegistry.getGauges().get("auth.cache.misses").getValue(), is(1L));
+    }
+
+    @Test
+    void shouldServeCachedAccountWhileRefreshing() throws Exception {
+        Account updatedAccount = new Account("1", CARD, "another-token-link");
+        when(mockAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(ACCOUNT), Optional.of(updatedAccount));
+
+        refreshingAuthenticator.authenticate(BEARER_TOKEN);
+        advance(Duration.ofMinutes(2));
+
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(ACCOUNT)));
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(updatedAccount)));
+        verify(mockAuthenticator, times(2)).authenticate(BEARER_TOKEN);
+    }
+
+    @Test
+    void shouldServeCachedAccountUntilExpiry_whenPublicAuthIsUnavailable() throws Exception {
+        when(mockAuthenticator.authenticate(BEARER_TOKEN))
+                .thenReturn(Optional.of(ACCOUNT))
+                .thenThrow(new ServiceUnavailableException());
+
+        refreshingAuthenticator.authenticate(BEARER_TOKEN);
+        advance(Duration.ofMinutes(2));
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(ACCOUNT)));
+        advance(Duration.ofMinutes(2));
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(ACCOUNT)));
+        assertThat(metricRegistry.getGauges().get("auth.cache.load_failures").getValue(), is(2L));
+
+        advance(Duration.ofMinutes(2));
+        assertThrows(ServiceUnavailableException.class, () -> refreshingAuthenticator.authenticate(BEARER_TOKEN));
+    }
+
+    @Test
+    void shouldStopAcceptingKey_whenRefreshFindsItRevoked() throws Exception {
+        when(mockAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(ACCOUNT), Optional.empty());
+
+        refreshingAuthenticator.authenticate(BEARER_TOKEN);
+        advance(Duration.ofMinutes(2));
+        refreshingAuthenticator.authenticate(BEARER_TOKEN);
+
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldNotCacheFailedAuthentication() throws Exception {
+        when(mockAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.empty());
+
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.empty()));
+        assertThat(refreshingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.empty()));
+
+        verify(mockAuthenticator, times(2)).authenticate(BEARER_TOKEN);
+    }
+
+    private void advance(Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.pay.api.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.api.utils.ApiKeyGenerator.apiKeyValueOf;
+
+class ApiKeyHmacVerifierTest {
+
+    private static final String SECRET_KEY = "mysupersecret";
+
+    private final ApiKeyHmacVerifier apiKeyHmacVerifier = new ApiKeyHmacVerifier(SECRET_KEY);
+
+    @Test
+    void shouldAcceptApiKeyEndingWithHmacOfToken() {
+        assertThat(apiKeyHmacVerifier.isValid(apiKeyValueOf("asdfghdasd", SECRET_KEY)), is(true));
+    }
+
+    @Test
+    void shouldAcceptApiKeyWithNonAsciiToken() {
+        assertThat(apiKeyHmacVerifier.isValid(apiKeyValueOf("tökén-ünïcödé", SECRET_KEY)), is(true));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithHmacCreatedWithAnotherSecret() {
+        assertThat(apiKeyHmacVerifier.isValid(apiKeyValueOf("asdfghdasd", "anothersecret")), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithOneCharacterOfHmacChanged() {
+        String apiKey = apiKeyValueOf("asdfghdasd", SECRET_KEY);
+        char last = apiKey.charAt(apiKey.length() - 1);
+        String tamperedApiKey = apiKey.substring(0, apiKey.length() - 1) + (last == '0' ? '1' : '0');
+
+        assertThat(apiKeyHmacVerifier.isValid(tamperedApiKey), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithUpperCaseHmac() {
+        String token = "asdfghdasd";
+        String apiKey = apiKeyValueOf(token, SECRET_KEY);
+
+        assertThat(apiKeyHmacVerifier.isValid(token + apiKey.substring(token.length()).toUpperCase()), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithNonAsciiCharactersInHmac() {
+        String apiKey = apiKeyValueOf("asdfghdasd", SECRET_KEY);
+
+        assertThat(apiKeyHmacVerifier.isValid(apiKey.substring(0, apiKey.length() - 1) + "é"), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithNoToken() {
+        String apiKey = apiKeyValueOf("asdfghdasd", SECRET_KEY);
+
+        assertThat(apiKeyHmacVerifier.isValid(apiKey.substring("asdfghdasd".length())), is(false));
+    }
+
+    @Test
+    void shouldRejectShortApiKey() {
+        assertThat(apiKeyHmacVerifier.isValid("asdfghdasd"), is(false));
+    }
+
+    @Test
+    void shouldVerifyApiKeysOnManyThreadsAtOnce() throws Exception {
+        List<Callable<Boolean>> checks = IntStream.range(0, 1000)
+                .mapToObj(i -> (Callable<Boolean>) () -> apiKeyHmacVerifier.isValid(apiKeyValueOf("token-" + i, SECRET_KEY))
+                        && !apiKeyHmacVerifier.isValid(apiKeyValueOf("token-" + i, "anothersecret")))
+                .collect(Collectors.toList());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Boolean> result : executorService.invokeAll(checks)) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package uk.gov.pay.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ETagFilterTest {
+
+    private static final Map<String, String> PAYMENT = Map.of("payment_id", "hu20sqlact5260q2nanm0q8u93", "status", "success");
+
+    @Mock
+    private ContainerRequestContext mockRequestContext;
+    @Mock
+    private ContainerResponseContext mockResponseContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ETagFilter eTagFilter = new ETagFilter(objectMapper);
+    private final MultivaluedMap<String, Object> responseHeaders = new MultivaluedHashMap<>();
+
+    @Test
+    void shouldAddETagAndReplaceEntityWithSerialisedBytes() throws Exception {
+        givenResponseEntity(PAYMENT);
+
+        eTagFilter.filter(mockRequestContext, mockResponseContext);
+
+        ArgumentCaptor<Object> entity = ArgumentCaptor.forClass(Object.class);
+        verify(mockResponseContext).setEntity(entity.capture());
+        assertThat(new String((byte[]) entity.getValue(), StandardCharsets.UTF_8), is(objectMapper.writeValueAsString(PAYMENT)));
+        assertThat(responseHeaders.getFirst("ETag"), is(not(nullValue())));
+    }
+
+    @Test
+    void shouldGiveSameETagForSameRepresentation() throws Exception {
+        assertThat(eTagFor(PAYMENT), is(eTagFor(Map.of("payment_id", "hu20sqlact5260q2nanm0q8u93", "status", "success"))));
+        assertThat(eTagFor(PAYMENT), is(not(eTagFor(Map.of("payment_id", "hu20sqlact5260q2nanm0q8u93", "status", "failed")))));
+    }
+
+    @Test
+    void shouldReturnNotModified_whenIfNoneMatchHasETag() throws Exception {
+        String eTag = eTagFor(PAYMENT);
+        givenResponseEntity(PAYMENT);
+        when(mockRequestContext.getHeaderString("If-None-Match")).thenReturn("\"another-etag\", " + eTag);
+
+        eTagFilter.filter(mockRequestContext, mockResponseContext);
+
+        verify(mockResponseContext).setStatus(304);
+        verify(mockResponseContext).setEntity(null);
+        assertThat(responseHeaders.getFirst("ETag"), is(eTag));
+    }
+
+    @Test
+    void shouldNotAddETagToErrorResponse() throws Exception {
+        when(mockRequestContext.getMethod()).thenReturn("GET");
+        when(mockResponseContext.getStatus()).thenReturn(404);
+
+        eTagFilter.filter(mockRequestContext, mockResponseContext);
+
+        verify(mockResponseContext, never()).setEntity(any());
+        verify(mockResponseContext, never()).getHeaders();
+    }
+
+    @Test
+    void shouldMatchIfNoneMatchUsingWeakComparison() {
+        assertThat(ETagFilter.matches("W/\"abc\"", "\"abc\""), is(true));
+        assertThat(ETagFilter.matches("*", "\"abc\""), is(true));
+        assertThat(ETagFilter.matches("\"abcd\"", "\"abc\""), is(false));
+        assertThat(ETagFilter.matches(null, "\"abc\""), is(false));
+    }
+
+    private String eTagFor(Object entity) throws Exception {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        when(mockRequestContext.getMethod()).thenReturn("GET");
+        when(responseContext.getStatus()).thenReturn(200);
+        when(responseContext.hasEntity()).thenReturn(true);
+        when(responseContext.getEntity()).thenReturn(entity);
+        when(responseContext.getHeaders()).thenReturn(headers);
+
+        eTagFilter.filter(mockRequestContext, responseContext);
+
+        return (String) headers.getFirst("ETag");
+    }
+
+    private void givenResponseEntity(Object entity) {
+        when(mockRequestContext.getMethod()).thenReturn("GET");
+        when(mockResponseContext.getStatus()).thenReturn(200);
+        when(mockResponseContext.hasEntity()).thenReturn(true);
+        when(mockResponseContext.getEntity()).thenReturn(entity);
+        when(mockResponseContext.getHeaders()).thenReturn(responseHeaders);
+    }
+}
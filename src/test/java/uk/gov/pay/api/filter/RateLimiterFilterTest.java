@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.api.auth.Account;
@@ -81,6 +83,21 @@ public class RateLimiterFilterTest {
         assertEquals("{\"code\":\"P0900\",\"description\":\"Too many requests\"}", response.getEntity());
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"/v1/payments/batch_get", "/v1/refunds/bulk"})
+    public void shouldNotCheckRateLimit_onRequestsTheResourceChecks(String path) throws Exception {
+        Account account = new Account(ACCOUNT_ID, TokenPaymentType.CARD, "some-token-link");
+        SecurityContext mockSecurityContext = mock(SecurityContext.class);
+        when(mockSecurityContext.getUserPrincipal()).thenReturn(account);
+        when(mockContainerRequestContext.getSecurityContext()).thenReturn(mockSecurityContext);
+        when(mockContainerRequestContext.getMethod()).thenReturn("POST");
+        when(mockUriInfo.getPath()).thenReturn(path);
+
+        rateLimiterFilter.filter(mockContainerRequestContext);
+
+        verify(rateLimiter, never()).checkRateOf(anyString(), any());
+    }
+
     @Test
     public void shouldNotCheckRateLimit_on_healthcheck() throws Exception {
         when(mockUriInfo.getPath()).thenReturn(("healthcheck"));
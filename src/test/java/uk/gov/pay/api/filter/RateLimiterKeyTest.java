@@ -33,21 +33,25 @@ public class RateLimiterKeyTest {
 
     static Stream<Arguments> rateLimitParams() {
         return Stream.of(
-                arguments("/v1/payments", "POST", "POST-create_payment", "POST-create_payment-account_id"),
-                arguments("/v1/payments/paymentId/capture", "POST", "POST-capture_payment", "POST-capture_payment-account_id"),
-                arguments("/v1/payments/paymentId/cancel", "POST", "POST", "POST-account_id"),
-                arguments("/v1/payments", "GET", "GET", "GET-account_id")
+                arguments("/v1/payments", "POST", "POST-create_payment", "POST-create_payment-account_id", false),
+                arguments("/v1/payments/paymentId/capture", "POST", "POST-capture_payment", "POST-capture_payment-account_id", false),
+                arguments("/v1/payments/paymentId/cancel", "POST", "POST", "POST-account_id", false),
+                arguments("/v1/payments/batch_get", "POST", "POST-batch_get_payments", "GET-account_id", true),
+                arguments("/v1/refunds/bulk", "POST", "POST-bulk_refunds", "POST-account_id", true),
+                arguments("/v1/payments", "GET", "GET", "GET-account_id", false)
         );
     }
 
     @ParameterizedTest
     @MethodSource("rateLimitParams")
-    public void returnsRateLimiterKey(String path, String method, String expectedKeyType, String expectedKey) {
+    public void returnsRateLimiterKey(String path, String method, String expectedKeyType, String expectedKey,
+                                        boolean expectedCheckedByResource) {
         when(uriInfo.getPath()).thenReturn(path);
         when(containerRequestContext.getMethod()).thenReturn(method);
 
         var rateLimiterKey = RateLimiterKey.from(containerRequestContext, "account_id");
         assertThat(rateLimiterKey.getKey(), is(expectedKey));
         assertThat(rateLimiterKey.getKeyType(), is(expectedKeyType));
+        assertThat(rateLimiterKey.isCheckedByResource(), is(expectedCheckedByResource));
     }
 }
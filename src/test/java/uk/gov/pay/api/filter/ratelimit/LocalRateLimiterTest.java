@@ -6,9 +6,13 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -52,8 +56,12 @@ public class LocalRateLimiterTest {
     @Mock
     private RateLimiterConfig rateLimiterConfig;
 
+    @Mock
+    private Environment environment;
+
     @BeforeEach
     public void setup() {
+        when(environment.metrics()).thenReturn(new MetricRegistry());
         Logger root = (Logger) LoggerFactory.getLogger(LocalRateLimiter.class);
         root.setLevel(Level.INFO);
         root.addAppender(mockAppender);
@@ -64,10 +72,11 @@ public class LocalRateLimiterTest {
         when(rateLimiterConfig.getNoOfReqPerNode()).thenReturn(2);
         when(rateLimiterConfig.getNoOfReqForPostPerNode()).thenReturn(2);
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(RateLimitAlgorithm.FIXED_WINDOW);
         
         String key = "key1";
         var rateLimiterKey = createRateLimiterKey(key, "key-type", POST);
-        localRateLimiter = new LocalRateLimiter(rateLimiterConfig);
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, environment);
 
         localRateLimiter.checkRateOf(accountId, rateLimiterKey);
         localRateLimiter.checkRateOf(accountId, rateLimiterKey);
@@ -78,10 +87,11 @@ public class LocalRateLimiterTest {
         when(rateLimiterConfig.getNoOfReqPerNode()).thenReturn(1);
         when(rateLimiterConfig.getNoOfReqForPostPerNode()).thenReturn(1);
         when(rateLimiterConfig.getPerMillis()).thenReturn(300);
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(RateLimitAlgorithm.FIXED_WINDOW);
         
         String key = "key2";
         var rateLimiterKey = createRateLimiterKey(key, "key-type", POST);
-        localRateLimiter = new LocalRateLimiter(rateLimiterConfig);
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, environment);
 
         localRateLimiter.checkRateOf(accountId, rateLimiterKey);
         assertThrows(RateLimitException.class, () -> {
@@ -98,10 +108,11 @@ public class LocalRateLimiterTest {
         when(rateLimiterConfig.getNoOfReqPerNode()).thenReturn(3);
         when(rateLimiterConfig.getNoOfReqForPostPerNode()).thenReturn(3);
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(RateLimitAlgorithm.FIXED_WINDOW);
         
         String key = "key3";
         var rateLimiterKey = createRateLimiterKey(key, "key-type", POST);
-        localRateLimiter = new LocalRateLimiter(rateLimiterConfig);
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, environment);
 
         ExecutorService executor = Executors.newFixedThreadPool(3);
 
@@ -142,6 +153,53 @@ public class LocalRateLimiterTest {
         assertThat(successfulTasks.size(), is(3));
     }
 
+    @ParameterizedTest
+    @EnumSource(value = RateLimitAlgorithm.class, names = {"SLIDING_WINDOW", "GCRA"})
+    public void rateLimiterSetTo_2CallsPerMinute_shouldFailOnThirdCallWithSameKey(RateLimitAlgorithm algorithm) throws Exception {
+        when(rateLimiterConfig.getNoOfReqPerNode()).thenReturn(2);
+        when(rateLimiterConfig.getNoOfReqForPostPerNode()).thenReturn(2);
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(algorithm);
+
+        var rateLimiterKey = createRateLimiterKey("key4", "key-type", POST);
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, environment);
+
+        localRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        localRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThrows(RateLimitException.class, () -> localRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RateLimitAlgorithm.class)
+    public void rateLimiterSetTo_5CallsPerMinute_shouldCountCallWithCostAsThatManyCalls(RateLimitAlgorithm algorithm) throws Exception {
+        when(rateLimiterConfig.getNoOfReqPerNode()).thenReturn(5);
+        when(rateLimiterConfig.getNoOfReqForPostPerNode()).thenReturn(5);
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(algorithm);
+
+        var rateLimiterKey = createRateLimiterKey("key5", "key-type", POST);
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, environment);
+
+        localRateLimiter.checkRateOf(accountId, rateLimiterKey, 4);
+        localRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThrows(RateLimitException.class, () -> localRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RateLimitAlgorithm.class)
+    public void rateLimiterSetTo_5CallsPerMinute_shouldCountCallCostingMoreThanLimitAsWholeLimit(RateLimitAlgorithm algorithm) throws Exception {
+        when(rateLimiterConfig.getNoOfReqPerNode()).thenReturn(5);
+        when(rateLimiterConfig.getNoOfReqForPostPerNode()).thenReturn(5);
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(algorithm);
+
+        var rateLimiterKey = createRateLimiterKey("key6", "key-type", POST);
+        localRateLimiter = new LocalRateLimiter(rateLimiterConfig, environment);
+
+        localRateLimiter.checkRateOf(accountId, rateLimiterKey, 100);
+        assertThrows(RateLimitException.class, () -> localRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
     public static RateLimiterKey createRateLimiterKey(String key, String type, String method) throws Exception {
         Class<RateLimiterKey> clazz = RateLimiterKey.class;
         Constructor<RateLimiterKey> constructor = clazz.getDeclaredConstructor(String.class, String.class, String.class);
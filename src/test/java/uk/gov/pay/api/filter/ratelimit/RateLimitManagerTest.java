@@ -60,6 +60,15 @@ public class RateLimitManagerTest {
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "2"), is(2));
     }
 
+    @Test
+    public void returnsNumberOfAllowedGetRequestsForBatchGetOfPayments() throws Exception {
+        var rateLimiterKey = createRateLimiterKey("path", "POST-batch_get_payments", "POST");
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
+
+        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "2"), is(1));
+    }
+
     @Test
     public void returnsNumberOfAllowedRequestsForGetForAccount2() throws Exception {
         var rateLimiterKey = createRateLimiterKey("path", "key-type", "GET");
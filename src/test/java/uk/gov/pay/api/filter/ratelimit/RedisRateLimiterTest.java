@@ -5,11 +5,15 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import io.dropwizard.core.setup.Environment;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +27,8 @@ import uk.gov.pay.api.filter.RateLimiterKey;
 import uk.gov.pay.api.managed.RedisClientManager;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -37,8 +43,9 @@ import static org.mockito.Mockito.when;
 class RedisRateLimiterTest {
 
     private static final String accountId = "account-id";
-    private static final Long perSecondTimeToLiveInSeconds = 1L;
-    private static final Long perMinuteTimeToLiveInSeconds = 60L;
+    private static final String SCRIPT_SHA = "script-sha";
+    private static final String perSecondTimeToLiveInMillis = "1000";
+    private static final String perMinuteTimeToLiveInMillis = "60000";
 
     @Mock
     private RedisClientManager redisClientManager;
@@ -47,7 +54,7 @@ class RedisRateLimiterTest {
     private StatefulRedisConnection statefulRedisConnection;
 
     @Mock
-    private RedisCommands redisCommands;
+    private RedisAsyncCommands redisCommands;
 
     @Mock
     private RateLimiterKey rateLimiterKey;
@@ -74,10 +81,12 @@ class RedisRateLimiterTest {
     @BeforeEach
     void setup() {
         timer = new Timer();
-        when(statefulRedisConnection.sync()).thenReturn(redisCommands);
+        when(statefulRedisConnection.async()).thenReturn(redisCommands);
         when(redisClientManager.getRedisConnection()).thenReturn(statefulRedisConnection);
         when(environment.metrics()).thenReturn(metricsRegistry);
         when(metricsRegistry.timer(any())).thenReturn(timer);
+        when(metricsRegistry.counter(any())).thenReturn(new Counter());
+        when(redisCommands.scriptLoad(anyString())).thenReturn(redisFuture(SCRIPT_SHA));
 
         Logger root = (Logger) LoggerFactory.getLogger(RedisRateLimiter.class);
         root.setLevel(Level.INFO);
@@ -89,12 +98,12 @@ class RedisRateLimiterTest {
         when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
         when(rateLimiterKey.getKey()).thenReturn("Key1");
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L);
-        when(redisCommands.expire(anyString(), eq(perSecondTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis)))
+                .thenReturn(redisFuture(1L));
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        verify(redisCommands).expire(anyString(), eq(perSecondTimeToLiveInSeconds));
+        verify(redisCommands).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis));
     }
 
     @Test
@@ -102,14 +111,14 @@ class RedisRateLimiterTest {
         when(rateLimiterConfig.getNoOfReq()).thenReturn(2);
         when(rateLimiterKey.getKey()).thenReturn("Key2");
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L);
-        when(redisCommands.expire(anyString(), eq(perSecondTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis)))
+                .thenReturn(redisFuture(1L), redisFuture(2L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        verify(redisCommands, times(2)).expire(anyString(), eq(perSecondTimeToLiveInSeconds));
+        verify(redisCommands, times(2)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis));
     }
 
     @Test
@@ -118,17 +127,17 @@ class RedisRateLimiterTest {
         when(rateLimiterKey.getKey()).thenReturn("Key3");
         when(rateLimiterKey.getKeyType()).thenReturn("POST");
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L, 3L);
-        when(redisCommands.expire(anyString(), eq(perSecondTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis)))
+                .thenReturn(redisFuture(1L), redisFuture(2L), redisFuture(3L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
 
         assertThrows(RateLimitException.class, () -> {
             redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-            verify(redisCommands, times(3)).expire(anyString(), eq(perSecondTimeToLiveInSeconds));
+            verify(redisCommands, times(3)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis));
             verify(mockAppender, times(1)).doAppend(loggingEventArgumentCaptor.capture());
             List<LoggingEvent> loggingEvents = loggingEventArgumentCaptor.getAllValues();
             assertEquals("RedisRateLimiter - Rate limit exceeded for account [account-id] and method [POST] - count: 3, rate allowed: 2", loggingEvents.get(0).getFormattedMessage());
@@ -143,15 +152,15 @@ class RedisRateLimiterTest {
         when(rateLimiterKey.getMethod()).thenReturn("POST");
         when(rateLimiterKey.getKeyType()).thenReturn("POST-capture-account1");
 
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L, 3L, 4L);
-        when(redisCommands.expire(anyString(), eq(perMinuteTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis)))
+                .thenReturn(redisFuture(1L), redisFuture(2L), redisFuture(3L), redisFuture(4L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        verify(redisCommands, times(3)).expire(anyString(), eq(perMinuteTimeToLiveInSeconds));
+        verify(redisCommands, times(3)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis));
 
         assertThrows(RateLimitException.class,
                 () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey),
@@ -166,16 +175,200 @@ class RedisRateLimiterTest {
         when(rateLimiterKey.getMethod()).thenReturn("GET");
         when(rateLimiterKey.getKeyType()).thenReturn("GET-account1");
 
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L);
-        when(redisCommands.expire(anyString(), eq(perMinuteTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis)))
+                .thenReturn(redisFuture(1L), redisFuture(2L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
 
         assertThrows(RateLimitException.class, () -> {
             redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-            verify(redisCommands, times(3)).expire(anyString(), eq(perMinuteTimeToLiveInSeconds));
+            verify(redisCommands, times(3)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis));
         }, "Excepted to throw exception when rate limit exceeds");
     }
+
+    @Test
+    void shouldReloadScriptAndRetry_whenRedisHasLostTheScript() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
+        when(rateLimiterKey.getKey()).thenReturn("Key4");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis)))
+                .thenReturn(failedRedisFuture(new RedisNoScriptException("NOSCRIPT No matching script")), redisFuture(1L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+
+        verify(redisCommands, times(2)).scriptLoad(anyString());
+        verify(redisCommands, times(2)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis));
+    }
+
+    @Test
+    void slidingWindow_shouldWeightPreviousWindowAndFailWhenEstimatedCountExceedsLimit() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(2);
+        when(rateLimiterKey.getKey()).thenReturn("Key5");
+        when(rateLimiterKey.getKeyType()).thenReturn("GET");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.SLIDING_WINDOW);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq("2000"), anyString(), eq("1000")))
+                .thenReturn(redisFuture(2L), redisFuture(3L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @Test
+    void gcra_shouldPassEmissionIntervalAndLimitToScriptAndFailWhenCountExceedsLimit() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(2);
+        when(rateLimiterKey.getKey()).thenReturn("Key6");
+        when(rateLimiterKey.getKeyType()).thenReturn("GET");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.GCRA);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), eq(new String[]{"Key6-gcra"}), anyString(), eq("500000"), eq("2")))
+                .thenReturn(redisFuture(1L), redisFuture(2L), redisFuture(3L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @Test
+    void shouldThrowRedisException_whenRedisDoesNotRespondInTime() {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
+        when(rateLimiterKey.getKey()).thenReturn("Key7");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis)))
+                .thenReturn(new TestRedisFuture<Long>());
+
+        assertThrows(RedisException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @Test
+    void shouldThrowRedisExceptionWithoutCallingRedis_whenTooManyCallsAreInFlight() {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
+        when(rateLimiterKey.getKey()).thenReturn("Key8");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis)))
+                .thenReturn(new TestRedisFuture<Long>());
+
+        assertThrows(RedisException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+        assertThrows(RedisException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+
+        verify(redisCommands, times(1)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis));
+    }
+
+    @Test
+    void elevatedAccount_shouldServeRequestsFromLeaseWithoutCallingRedisUntilLeaseIsUsedUp() throws Exception {
+        when(rateLimiterConfig.getElevatedAccounts()).thenReturn(List.of(accountId));
+        when(rateLimiterConfig.getNoOfReqForElevatedAccounts()).thenReturn(100);
+        when(rateLimiterKey.getKey()).thenReturn("Key9");
+        when(rateLimiterKey.getMethod()).thenReturn("GET");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW, 3);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("3"), eq("100")))
+                .thenReturn(redisFuture(3L), redisFuture(3L));
+
+        for (int i = 0; i < 4; i++) {
+            redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        }
+
+        verify(redisCommands, times(2)).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("3"), eq("100"));
+    }
+
+    @Test
+    void elevatedAccount_shouldFail_whenRedisHasNoRequestsLeftToLease() throws Exception {
+        when(rateLimiterConfig.getElevatedAccounts()).thenReturn(List.of(accountId));
+        when(rateLimiterConfig.getNoOfReqForElevatedAccounts()).thenReturn(100);
+        when(rateLimiterKey.getKey()).thenReturn("Key10");
+        when(rateLimiterKey.getKeyType()).thenReturn("GET");
+        when(rateLimiterKey.getMethod()).thenReturn("GET");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW, 3);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("3"), eq("100")))
+                .thenReturn(redisFuture(0L));
+
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @Test
+    void shouldPassCostToScriptAndFailWhenCountExceedsLimit() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(10);
+        when(rateLimiterKey.getKey()).thenReturn("Key11");
+        when(rateLimiterKey.getKeyType()).thenReturn("POST-batch_get_payments");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("6")))
+                .thenReturn(redisFuture(6L), redisFuture(12L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey, 6);
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey, 6));
+    }
+
+    @Test
+    void elevatedAccount_shouldLeaseEnoughForCostAndKeepTheRest() throws Exception {
+        when(rateLimiterConfig.getElevatedAccounts()).thenReturn(List.of(accountId));
+        when(rateLimiterConfig.getNoOfReqForElevatedAccounts()).thenReturn(100);
+        when(rateLimiterKey.getKey()).thenReturn("Key12");
+        when(rateLimiterKey.getMethod()).thenReturn("GET");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        redisRateLimiter = createRedisRateLimiter(RateLimitAlgorithm.FIXED_WINDOW, 3);
+
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("5"), eq("100")))
+                .thenReturn(redisFuture(5L));
+        when(redisCommands.evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("3"), eq("100")))
+                .thenReturn(redisFuture(3L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey, 5);
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+
+        verify(redisCommands).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("5"), eq("100"));
+        verify(redisCommands).evalsha(eq(SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("3"), eq("100"));
+    }
+
+    private RedisRateLimiter createRedisRateLimiter(RateLimitAlgorithm algorithm) {
+        return createRedisRateLimiter(algorithm, 1);
+    }
+
+    private RedisRateLimiter createRedisRateLimiter(RateLimitAlgorithm algorithm, int leaseSize) {
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(algorithm);
+        when(rateLimiterConfig.getRedisTimeoutInMillis()).thenReturn(50);
+        when(rateLimiterConfig.getMaxRedisCallsInFlight()).thenReturn(1);
+        when(rateLimiterConfig.getLeaseSizeForElevatedAccounts()).thenReturn(leaseSize);
+        return new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+    }
+
+    private static <T> RedisFuture<T> redisFuture(T value) {
+        TestRedisFuture<T> future = new TestRedisFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    private static <T> RedisFuture<T> failedRedisFuture(Throwable throwable) {
+        TestRedisFuture<T> future = new TestRedisFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    private static class TestRedisFuture<T> extends CompletableFuture<T> implements RedisFuture<T> {
+
+        @Override
+        public String getError() {
+            return null;
+        }
+
+        @Override
+        public boolean await(long timeout, TimeUnit unit) {
+            return isDone();
+        }
+    }
 }
@@ -14,6 +14,7 @@ import uk.gov.pay.api.model.PaymentState;
 import uk.gov.pay.api.model.RefundSummary;
 import uk.gov.pay.api.model.ThreeDSecure;
 import uk.gov.pay.api.model.Wallet;
+import uk.gov.pay.api.model.ledger.TransactionState;
 import uk.gov.pay.api.utils.ChargeEventBuilder;
 import uk.gov.pay.api.utils.PublicAuthMockClientJUnit5;
 import uk.gov.pay.api.utils.mocks.ChargeResponseFromConnector;
@@ -35,10 +36,13 @@ import java.util.function.Consumer;
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
+import static jakarta.ws.rs.core.HttpHeaders.ETAG;
+import static jakarta.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
 import static org.apache.hc.core5.http.HttpHeaders.CACHE_CONTROL;
 import static org.apache.hc.core5.http.HttpHeaders.PRAGMA;
 import static org.apache.hc.core5.http.HttpStatus.SC_NOT_ACCEPTABLE;
 import static org.apache.hc.core5.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.hc.core5.http.HttpStatus.SC_NOT_MODIFIED;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
@@ -52,6 +56,7 @@ import static uk.gov.pay.api.model.CreateCardPaymentRequest.RETURN_URL_FIELD_NAM
 import static uk.gov.pay.api.model.TokenPaymentType.CARD;
 import static uk.gov.pay.api.utils.Urls.paymentLocationFor;
 import static uk.gov.pay.api.utils.mocks.ChargeResponseFromConnector.ChargeResponseFromConnectorBuilder.aCreateOrGetChargeResponseFromConnector;
+import static uk.gov.pay.api.utils.mocks.RefundTransactionFromLedgerFixture.RefundTransactionFromLedgerBuilder.aRefundTransactionFromLedgerFixture;
 import static uk.gov.pay.api.utils.mocks.TransactionEventFixture.TransactionEventFixtureBuilder.aTransactionEventFixture;
 import static uk.gov.pay.api.utils.mocks.TransactionFromLedgerFixture.TransactionFromLedgerBuilder.aTransactionFromLedgerFixture;
 import static uk.gov.service.payments.commons.model.CommonDateTimeFormatters.ISO_INSTANT_MILLISECOND_PRECISION;
@@ -186,6 +191,91 @@ public class PaymentsResourceGetIT extends PaymentResourceITestBase {
         response.body("metadata", is(nullValue()));
     }
 
+    @Test
+    void getPayment_returnsNotModified_whenPaymentHasNotChangedSinceETag() {
+        connectorMockClient.respondWithChargeFound(CHARGE_TOKEN_ID, GATEWAY_ACCOUNT_ID, getConnectorCharge().build());
+
+        String eTag = getPaymentResponse(CHARGE_ID)
+                .statusCode(200)
+                .header(ETAG, is(notNullValue()))
+                .extract().header(ETAG);
+
+        given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + API_KEY)
+                .header(IF_NONE_MATCH, eTag)
+                .get(PAYMENTS_PATH + CHARGE_ID)
+                .then()
+                .statusCode(SC_NOT_MODIFIED)
+                .header(ETAG, is(eTag))
+                .body(is(""));
+    }
+
+    @Test
+    void getPayment_returnsPaymentStraightAway_whenWaitingForChangeFromStatusItNoLongerHas() {
+        connectorMockClient.respondWithChargeFound(CHARGE_TOKEN_ID, GATEWAY_ACCOUNT_ID, getConnectorCharge().build());
+
+        given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + API_KEY)
+                .queryParam("wait_for_change_from", "created")
+                .get(PAYMENTS_PATH + CHARGE_ID)
+                .then()
+                .statusCode(200)
+                .body("state.status", is("captured"));
+    }
+
+    @Test
+    void getPayment_returnsBadRequest_whenLongPollTimeoutIsInvalid() {
+        connectorMockClient.respondWithChargeFound(CHARGE_TOKEN_ID, GATEWAY_ACCOUNT_ID, getConnectorCharge().build());
+
+        given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + API_KEY)
+                .queryParam("wait_for_change_from", "captured")
+                .queryParam("timeout", "soon")
+                .get(PAYMENTS_PATH + CHARGE_ID)
+                .then()
+                .statusCode(400)
+                .body("code", is("P0201"))
+                .body("description", is("Invalid parameters: timeout. See Public API documentation for the correct data formats"));
+    }
+
+    @Test
+    void getPayment_embedsEventsAndRefunds_whenAskedFor() {
+        connectorMockClient.respondWithChargeFound(CHARGE_TOKEN_ID, GATEWAY_ACCOUNT_ID, getConnectorCharge().build());
+        connectorMockClient.respondWithChargeEventsFound(GATEWAY_ACCOUNT_ID, CHARGE_ID, EVENTS);
+        ledgerMockClient.respondWithGetAllRefunds(CHARGE_ID, aRefundTransactionFromLedgerFixture()
+                .withAmount(100L)
+                .withCreatedDate(CREATED_DATE)
+                .withTransactionId("100")
+                .withState(new TransactionState("success", true))
+                .build());
+
+        given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + API_KEY)
+                .queryParam("embed", "events,refunds")
+                .get(PAYMENTS_PATH + CHARGE_ID)
+                .then()
+                .statusCode(200)
+                .body("payment_id", is(CHARGE_ID))
+                .body("_links.self.href", is(paymentLocationFor(CHARGE_ID)))
+                .body("_embedded.events", hasSize(1))
+                .body("_embedded.events[0].state.status", is(CREATED.getStatus()))
+                .body("_embedded.refunds", hasSize(1))
+                .body("_embedded.refunds[0].refund_id", is("100"))
+                .body("_embedded.refunds[0].amount", is(100));
+    }
+
+    @Test
+    void getPayment_returnsBadRequest_whenEmbeddingUnknownResource() {
+        given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + API_KEY)
+                .queryParam("embed", "events,disputes")
+                .get(PAYMENTS_PATH + CHARGE_ID)
+                .then()
+                .statusCode(400)
+                .body("code", is("P0201"))
+                .body("description", is("Invalid parameters: embed. See Public API documentation for the correct data formats"));
+    }
+
     @Test
     void getPaymentThroughLedger_ReturnsPayment() {
         ledgerMockClient.respondWithTransaction(CHARGE_ID, getLedgerTransaction().build());
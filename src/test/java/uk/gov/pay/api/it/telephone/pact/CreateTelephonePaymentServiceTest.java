@@ -8,7 +8,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -46,7 +46,7 @@ public class CreateTelephonePaymentServiceTest {
         when(configuration.getConnectorUrl()).thenReturn(connectorRule.getUrl()); // We will actually send real requests here, which will be intercepted by pact        
 
         ConnectorUriGenerator connectorUriGenerator = new ConnectorUriGenerator(configuration);
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
 
         createTelephonePaymentService = new CreateTelephonePaymentService(client, connectorUriGenerator);
     }
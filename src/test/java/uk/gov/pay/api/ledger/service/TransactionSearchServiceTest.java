@@ -7,7 +7,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -55,7 +55,7 @@ public class TransactionSearchServiceTest {
 
         PaymentUriGenerator paymentUriGenerator = new PaymentUriGenerator();
         LedgerUriGenerator ledgerUriGenerator = new LedgerUriGenerator(mockPublicApiConfiguration);
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
 
         transactionSearchService = new TransactionSearchService(client, mockPublicApiConfiguration, ledgerUriGenerator,
                 paymentUriGenerator);
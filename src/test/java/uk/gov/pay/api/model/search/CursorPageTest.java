@@ -0,0 +1,124 @@
+package uk.gov.pay.api.model.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CursorPageTest {
+
+    private static final String T1 = "2026-03-01T10:00:00.003Z";
+    private static final String T2 = "2026-03-01T10:00:00.002Z";
+    private static final String T3 = "2026-03-01T10:00:00.001Z";
+
+    private static final Function<String, String> CREATED_DATE = result -> result.substring(0, result.indexOf('/'));
+    private static final Function<String, String> TRANSACTION_ID = result -> result.substring(result.indexOf('/') + 1);
+
+    @Test
+    void shouldGiveCursorAfterLastResult_whenLedgerHasMore() {
+        var page = CursorPage.of(List.of(T1 + "/a", T2 + "/b", T3 + "/c"), CREATED_DATE, TRANSACTION_ID, null, 3, true);
+
+        assertThat(page.results(), is(List.of(T1 + "/a", T2 + "/b", T3 + "/c")));
+        assertThat(page.skipped(), is(0));
+        assertThat(page.next(), is(Optional.of(new SearchCursor(millis(T3), 1, List.of("c")))));
+    }
+
+    @Test
+    void shouldGiveNoCursor_whenThereAreNoMoreResults() {
+        var page = CursorPage.of(List.of(T1 + "/a", T2 + "/b"), CREATED_DATE, TRANSACTION_ID, null, 3, false);
+
+        assertThat(page.next(), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldCountEveryResultInLastMillisecond() {
+        var page = CursorPage.of(List.of(T1 + "/a", T2 + "/b", T2 + "/c"), CREATED_DATE, TRANSACTION_ID, null, 3, true);
+
+        assertThat(page.next(), is(Optional.of(new SearchCursor(millis(T2), 2, List.of("b", "c")))));
+    }
+
+    @Test
+    void shouldSkipResultsAlreadySeenFromCursorMillisecond() {
+        var cursor = new SearchCursor(millis(T1), 2, List.of("a", "b"));
+
+        var page = CursorPage.of(List.of(T1 + "/a", T1 + "/b", T1 + "/c", T2 + "/d", T3 + "/e"),
+                CREATED_DATE, TRANSACTION_ID, cursor, 2, true);
+
+        assertThat(page.results(), is(List.of(T1 + "/c", T2 + "/d")));
+        assertThat(page.skipped(), is(2));
+        assertThat(page.next(), is(Optional.of(new SearchCursor(millis(T2), 1, List.of("d")))));
+    }
+
+    @Test
+    void shouldSkipResultsAlreadySeenById_whenLedgerOrdersResultsFromSameMillisecondDifferently() {
+        var cursor = new SearchCursor(millis(T1), 2, List.of("a", "b"));
+
+        var page = CursorPage.of(List.of(T1 + "/c", T1 + "/b", T1 + "/a", T2 + "/d", T3 + "/e"),
+                CREATED_DATE, TRANSACTION_ID, cursor, 2, true);
+
+        assertThat(page.results(), is(List.of(T1 + "/c", T2 + "/d")));
+        assertThat(page.skipped(), is(2));
+    }
+
+    @Test
+    void shouldSkipFirstResultsFromCursorMillisecond_whenCursorHasNoIds() {
+        var cursor = new SearchCursor(millis(T1), 2);
+
+        var page = CursorPage.of(List.of(T1 + "/a", T1 + "/b", T1 + "/c", T2 + "/d", T3 + "/e"),
+                CREATED_DATE, TRANSACTION_ID, cursor, 2, true);
+
+        assertThat(page.results(), is(List.of(T1 + "/c", T2 + "/d")));
+        assertThat(page.skipped(), is(2));
+    }
+
+    @Test
+    void shouldOnlyCountResultsSeen_whenTooManyWereCreatedInLastMillisecond() {
+        List<String> ledgerResults = IntStream.rangeClosed(0, SearchCursor.MAX_SEEN_IDS)
+                .mapToObj(i -> T1 + "/" + i).toList();
+
+        var page = CursorPage.of(ledgerResults, CREATED_DATE, TRANSACTION_ID, null, ledgerResults.size(), true);
+
+        assertThat(page.next(), is(Optional.of(new SearchCursor(millis(T1), SearchCursor.MAX_SEEN_IDS + 1))));
+    }
+
+    @Test
+    void shouldCarryOnCountingResultsSeen_whenPageEndsInCursorMillisecond() {
+        var cursor = new SearchCursor(millis(T1), 1, List.of("a"));
+
+        var page = CursorPage.of(List.of(T1 + "/a", T1 + "/b", T1 + "/c"), CREATED_DATE, TRANSACTION_ID, cursor, 2, true);
+
+        assertThat(page.results(), is(List.of(T1 + "/b", T1 + "/c")));
+        assertThat(page.next(), is(Optional.of(new SearchCursor(millis(T1), 3, List.of("a", "b", "c")))));
+    }
+
+    @Test
+    void shouldOnlySkipResultsFromCursorMillisecond() {
+        var cursor = new SearchCursor(millis(T1), 2);
+
+        var page = CursorPage.of(List.of(T1 + "/a", T2 + "/b", T3 + "/c"), CREATED_DATE, TRANSACTION_ID, cursor, 2, false);
+
+        assertThat(page.results(), is(List.of(T2 + "/b", T3 + "/c")));
+        assertThat(page.skipped(), is(1));
+        assertThat(page.next(), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldGiveCursor_whenResultsAreLeftOverFromExtraAskedForToCoverSkippedOnes() {
+        var cursor = new SearchCursor(millis(T1), 1);
+
+        var page = CursorPage.of(List.of(T2 + "/a", T3 + "/b"), CREATED_DATE, TRANSACTION_ID, cursor, 1, false);
+
+        assertThat(page.results(), is(List.of(T2 + "/a")));
+        assertThat(page.next(), is(Optional.of(new SearchCursor(millis(T2), 1, List.of("a")))));
+    }
+
+    private static long millis(String createdDate) {
+        return Instant.parse(createdDate).toEpochMilli();
+    }
+}
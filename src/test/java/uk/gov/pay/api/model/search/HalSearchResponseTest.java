@@ -0,0 +1,61 @@
+package uk.gov.pay.api.model.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class HalSearchResponseTest {
+
+    private final ObjectMapper objectMapper = Jackson.newObjectMapper();
+
+    @Test
+    void shouldWriteLinksThenResultsThenProperties() throws IOException {
+        var response = new HalSearchResponse(objectMapper, List.of(Map.of("payment_id", "abc"), Map.of("payment_id", "def")))
+                .addProperty("count", 2)
+                .addProperty("total", 12)
+                .addLink("self", URI.create("https://publicapi.url/v1/payments?page=2"))
+                .addLink("first_page", URI.create("https://publicapi.url/v1/payments?page=1"));
+
+        var output = new ByteArrayOutputStream();
+        response.write(output);
+        JsonNode json = objectMapper.readTree(output.toByteArray());
+
+        assertThat(json.properties().stream().map(Map.Entry::getKey).toList(),
+                contains("_links", "results", "count", "total"));
+        assertThat(json.at("/_links/self/href").asText(), is("https://publicapi.url/v1/payments?page=2"));
+        assertThat(json.at("/_links/first_page/href").asText(), is("https://publicapi.url/v1/payments?page=1"));
+        assertThat(json.at("/results/1/payment_id").asText(), is("def"));
+        assertThat(json.get("count").asInt(), is(2));
+        assertThat(json.get("total").asInt(), is(12));
+    }
+
+    @Test
+    void shouldWriteSameJsonAsToString() throws IOException {
+        var response = new HalSearchResponse(objectMapper, List.of())
+                .addProperty("count", 0)
+                .addLink("self", URI.create("https://publicapi.url/v1/payments"));
+
+        var output = new ByteArrayOutputStream();
+        response.write(output);
+
+        assertThat(output.toString(), is(response.toString()));
+    }
+
+    @Test
+    void shouldLeaveOutLinks_whenThereAreNone() throws IOException {
+        var response = new HalSearchResponse(objectMapper, List.of()).addProperty("count", 0);
+
+        assertThat(objectMapper.readTree(response.toString()).has("_links"), is(false));
+    }
+}
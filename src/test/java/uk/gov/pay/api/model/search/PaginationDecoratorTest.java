@@ -0,0 +1,191 @@
+package uk.gov.pay.api.model.search;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.links.SearchNavigationLinks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+class PaginationDecoratorTest {
+
+    private static final String PAYMENTS_PATH = "/v1/payments";
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+    private static final SearchCursor CURSOR = new SearchCursor(1772359200003L, 2);
+
+    private final PaginationDecorator paginationDecorator = paginationDecoratorWithSecret("qwer9yuhgf");
+
+    @Test
+    void shouldDecodeCursorForSameSearch() {
+        String cursor = paginationDecorator.encodeCursor(CURSOR, ACCOUNT, PAYMENTS_PATH, params("success", "1", "20"));
+
+        assertThat(paginationDecorator.decodeCursor(cursor, ACCOUNT, PAYMENTS_PATH, params("success", null, "50")),
+                is(Optional.of(CURSOR)));
+    }
+
+    @Test
+    void shouldDecodeCursorWithIdsOfResultsSeen() {
+        var cursorWithIds = new SearchCursor(1772359200003L, 2, List.of("hu20sqlact5260q2nanm0q8u93", "kj3sqlact5260q2nanm0q8u12"));
+        String cursor = paginationDecorator.encodeCursor(cursorWithIds, ACCOUNT, PAYMENTS_PATH, params("success", null, null));
+
+        assertThat(paginationDecorator.decodeCursor(cursor, ACCOUNT, PAYMENTS_PATH, params("success", null, null)),
+                is(Optional.of(cursorWithIds)));
+    }
+
+    @Test
+    void shouldRejectCursorWhoseIdsDoNotMatchNumberSeen() {
+        assertThat(SearchCursor.fromPayload("1772359200003:2:hu20sqlact5260q2nanm0q8u93"), is(Optional.empty()));
+        assertThat(SearchCursor.fromPayload("1772359200003:1:"), is(Optional.empty()));
+        assertThat(SearchCursor.fromPayload("1772359200003:2"), is(Optional.of(CURSOR)));
+    }
+
+    @Test
+    void shouldRejectCursorForAnotherAccount() {
+        String cursor = paginationDecorator.encodeCursor(CURSOR, ACCOUNT, PAYMENTS_PATH, params("success", null, null));
+
+        assertThat(paginationDecorator.decodeCursor(cursor, new Account("2", CARD, "a-token-link"), PAYMENTS_PATH,
+                params("success", null, null)), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldRejectCursorForAnotherSearch() {
+        String cursor = paginationDecorator.encodeCursor(CURSOR, ACCOUNT, PAYMENTS_PATH, params("success", null, null));
+
+        assertThat(paginationDecorator.decodeCursor(cursor, ACCOUNT, PAYMENTS_PATH, params("failed", null, null)),
+                is(Optional.empty()));
+        assertThat(paginationDecorator.decodeCursor(cursor, ACCOUNT, "/v1/refunds", params("success", null, null)),
+                is(Optional.empty()));
+    }
+
+    @Test
+    void shouldRejectCursorSignedWithAnotherSecret() {
+        String cursor = paginationDecoratorWithSecret("anothersecret")
+                .encodeCursor(CURSOR, ACCOUNT, PAYMENTS_PATH, params("success", null, null));
+
+        assertThat(paginationDecorator.decodeCursor(cursor, ACCOUNT, PAYMENTS_PATH, params("success", null, null)),
+                is(Optional.empty()));
+    }
+
+    @Test
+    void shouldRejectCursorThatIsNotACursor() {
+        assertThat(paginationDecorator.decodeCursor("", ACCOUNT, PAYMENTS_PATH, params(null, null, null)),
+                is(Optional.empty()));
+        assertThat(paginationDecorator.decodeCursor("not.a!cursor", ACCOUNT, PAYMENTS_PATH, params(null, null, null)),
+                is(Optional.empty()));
+    }
+
+    @Test
+    void shouldSearchLedgerForResultsCreatedBeforeEndOfCursorMillisecond() {
+        Map<String, String> ledgerParams = PaginationDecorator.afterCursor(params("success", null, "20"), CURSOR);
+
+        assertThat(ledgerParams.get("to_date"), is("2026-03-01T10:00:00.004Z"));
+        assertThat(ledgerParams.get("page"), is("1"));
+        assertThat(ledgerParams.get("display_size"), is("22"));
+        assertThat(ledgerParams.get("state"), is("success"));
+    }
+
+    @Test
+    void shouldNotAskLedgerForMoreThanMaximumDisplaySize() {
+        Map<String, String> ledgerParams = PaginationDecorator.afterCursor(params(null, null, null), CURSOR);
+
+        assertThat(ledgerParams.get("display_size"), is("500"));
+    }
+
+    @Test
+    void shouldTreatBlankDisplaySizeAsNotGiven() {
+        assertThat(PaginationDecorator.displaySize(params(null, null, "")), is(500));
+        assertThat(PaginationDecorator.displaySize(params(null, null, " ")), is(500));
+        assertThat(PaginationDecorator.afterCursor(params(null, null, ""), CURSOR).get("display_size"), is("500"));
+    }
+
+    @Test
+    void shouldLinkToNextPageWithNextCursor() {
+        var links = paginationDecorator.cursorLinks(PAYMENTS_PATH, params("success", null, "20"), "this-cursor", "next-cursor");
+
+        assertThat(links.getSelf().getHref(),
+                is("https://publicapi.url/v1/payments?state=success&display_size=20&cursor=this-cursor"));
+        assertThat(links.getFirstPage().getHref(), is("https://publicapi.url/v1/payments?state=success&display_size=20"));
+        assertThat(links.getNextPage().getHref(),
+                is("https://publicapi.url/v1/payments?state=success&display_size=20&cursor=next-cursor"));
+        assertThat(links.getLastPage(), is(nullValue()));
+        assertThat(links.getPrevPage(), is(nullValue()));
+    }
+
+    @Test
+    void shouldNotLinkToNextPage_whenThereIsNoNextCursor() {
+        var links = paginationDecorator.cursorLinks(PAYMENTS_PATH, params(null, null, null), "this-cursor", null);
+
+        assertThat(links.getNextPage(), is(nullValue()));
+    }
+
+    @Test
+    void shouldKeepLedgerQueryInOrderWithoutLedgerOnlyParameters() {
+        String href = PaginationDecorator.publicHref("https://publicapi.url/v1/payments",
+                "https://ledger.url/v1/transaction?account_id=1&reference=a-reference&transaction_type=PAYMENT" +
+                        "&state=success&status_version=1&gateway_account_id=1&page=2&display_size=20");
+
+        assertThat(href, is("https://publicapi.url/v1/payments?reference=a-reference&state=success&page=2&display_size=20"));
+    }
+
+    @Test
+    void shouldEncodeCharactersLedgerLeftUnencoded_butNotOnesAlreadyEncoded() {
+        String href = PaginationDecorator.publicHref("https://publicapi.url/v1/payments",
+                "https://ledger.url/v1/transaction?from_date=2016-01-01T23:59:59Z&to_date=2016-01-02T00%3A00%3A00Z" +
+                        "&email=j.doe@example.org&reference=50%&description=caf\u00e9+cr\u00e8me");
+
+        assertThat(href, is("https://publicapi.url/v1/payments?from_date=2016-01-01T23%3A59%3A59Z" +
+                "&to_date=2016-01-02T00%3A00%3A00Z&email=j.doe%40example.org&reference=50%25&description=caf%C3%A9+cr%C3%A8me"));
+    }
+
+    @Test
+    void shouldGiveSearchUrlWithoutQuery_whenLedgerLinkHasOnlyLedgerOnlyParameters() {
+        assertThat(PaginationDecorator.publicHref("https://publicapi.url/v1/refunds",
+                "https://ledger.url/v1/transaction?account_id=1&transaction_type=REFUND"), is("https://publicapi.url/v1/refunds"));
+        assertThat(PaginationDecorator.publicHref("https://publicapi.url/v1/refunds", "https://ledger.url/v1/transaction"),
+                is("https://publicapi.url/v1/refunds"));
+    }
+
+    @Test
+    void shouldRewriteEveryLedgerLinkOntoPublicSearchPath() {
+        var links = paginationDecorator.transformLinksToPublicApiUri(new SearchNavigationLinks()
+                .withSelfLink("https://ledger.url/v1/transaction?account_id=1&page=2")
+                .withFirstLink("https://ledger.url/v1/transaction?account_id=1&page=1")
+                .withNextLink("https://ledger.url/v1/transaction?account_id=1&page=3"), "/v1/disputes");
+
+        assertThat(links.getSelf().getHref(), is("https://publicapi.url/v1/disputes?page=2"));
+        assertThat(links.getFirstPage().getHref(), is("https://publicapi.url/v1/disputes?page=1"));
+        assertThat(links.getNextPage().getHref(), is("https://publicapi.url/v1/disputes?page=3"));
+        assertThat(links.getLastPage().getHref(), is(nullValue()));
+        assertThat(links.getPrevPage().getHref(), is(nullValue()));
+    }
+
+    private static Map<String, String> params(String state, String page, String displaySize) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("state", state);
+        params.put("page", page);
+        params.put("display_size", displaySize);
+        return params;
+    }
+
+    private static PaginationDecorator paginationDecoratorWithSecret(String apiKeyHmacSecret) {
+        return new PaginationDecorator(new PublicApiConfig() {
+            @Override
+            public String getBaseUrl() {
+                return "https://publicapi.url/";
+            }
+
+            @Override
+            public String getApiKeyHmacSecret() {
+                return apiKeyHmacSecret;
+            }
+        });
+    }
+}
@@ -5,9 +5,11 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import io.dropwizard.auth.AuthDynamicFeature;
 import io.dropwizard.auth.AuthValueFactoryProvider;
 import io.dropwizard.auth.oauth.OAuthCredentialAuthFilter;
+import io.dropwizard.core.setup.Environment;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
 import org.glassfish.jersey.internal.inject.AbstractBinder;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PaymentLongPollConfig;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.auth.AccountAuthenticator;
@@ -27,6 +30,8 @@ import uk.gov.pay.api.service.CapturePaymentService;
 import uk.gov.pay.api.service.CreatePaymentService;
 import uk.gov.pay.api.service.GetPaymentEventsService;
 import uk.gov.pay.api.service.GetPaymentService;
+import uk.gov.pay.api.service.PaymentChangeWatcher;
+import uk.gov.pay.api.service.PaymentEmbeddedResourcesService;
 import uk.gov.pay.api.service.PaymentSearchService;
 import uk.gov.pay.api.service.PublicApiUriGenerator;
 
@@ -67,13 +72,15 @@ class SearchPaymentsResourceTest {
     private final CapturePaymentService mockCapturePaymentService = mock(CapturePaymentService.class);
     private final CancelPaymentService mockCancelPaymentService = mock(CancelPaymentService.class);
     private final GetPaymentEventsService mockGetPaymentEventsService = mock(GetPaymentEventsService.class);
+    private final PaymentChangeWatcher mockPaymentChangeWatcher = mock(PaymentChangeWatcher.class);
+    private final PaymentEmbeddedResourcesService mockPaymentEmbeddedResourcesService = mock(PaymentEmbeddedResourcesService.class);
     
     private final ResourceExtension paymentsResource = ResourceExtension.builder()
             .setRegisterDefaultExceptionMappers(false)
             .addProvider(SearchChargesExceptionMapper.class)
             .addProvider(new AuthDynamicFeature(
                     new OAuthCredentialAuthFilter.Builder<Account>()
-                            .setAuthenticator(new AccountAuthenticator(mockClient, mock(PublicApiConfig.class)))
+                            .setAuthenticator(new AccountAuthenticator(mockClient, aConfiguration(), new Environment("test")))
                             .setPrefix("Bearer")
                             .buildAuthFilter()))
             .addProvider(new AuthValueFactoryProvider.Binder<>(Account.class))
@@ -91,7 +98,10 @@ class SearchPaymentsResourceTest {
                     mockGetPaymentService,
                     mockCapturePaymentService,
                     mockCancelPaymentService,
-                    mockGetPaymentEventsService
+                    mockGetPaymentEventsService,
+                    mockPaymentChangeWatcher,
+                    new PaymentLongPollConfig(),
+                    mockPaymentEmbeddedResourcesService
             ))
             .build();
     
@@ -128,4 +138,10 @@ class SearchPaymentsResourceTest {
             assertThat(logStatement.getFirst().getFormattedMessage(), is(expectedLogMessage));
         }
     }
+
+    private static PublicApiConfig aConfiguration() {
+        PublicApiConfig configuration = mock(PublicApiConfig.class);
+        when(configuration.getAuthenticationNegativeCachePolicy()).thenReturn(CaffeineSpec.parse("expireAfterWrite=0s"));
+        return configuration;
+    }
 }
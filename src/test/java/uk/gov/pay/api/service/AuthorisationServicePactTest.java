@@ -8,7 +8,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.exception.AuthorisationRequestException;
@@ -42,7 +42,7 @@ public class AuthorisationServicePactTest {
     public void setup() {
         when(mockConfiguration.getConnectorUrl()).thenReturn(connectorRule.getUrl());
         ConnectorUriGenerator uriGenerator = new ConnectorUriGenerator(mockConfiguration);
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
         authorisationService = new AuthorisationService(client, uriGenerator);
         mapper = new AuthorisationRequestExceptionMapper();
     }
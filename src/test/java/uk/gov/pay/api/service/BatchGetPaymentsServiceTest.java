@@ -0,0 +1,168 @@
+package uk.gov.pay.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
+import uk.gov.pay.api.exception.GetChargeException;
+import uk.gov.pay.api.model.BatchGetPaymentsRequest;
+import uk.gov.pay.api.model.BatchGetPaymentsResponse;
+import uk.gov.pay.api.model.BatchGetPaymentsResponse.Result;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.ws.rs.core.Response;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class BatchGetPaymentsServiceTest {
+
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+
+    @Mock
+    private GetPaymentService mockGetPaymentService;
+    @Mock
+    private Response mockResponse;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private BatchGetPaymentsService batchGetPaymentsService;
+
+    @BeforeEach
+    void setUp() {
+        batchGetPaymentsService = new BatchGetPaymentsService(mockGetPaymentService, executor, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldGetPaymentsInTheOrderAskedFor() {
+        PaymentWithAllLinks first = mock(PaymentWithAllLinks.class);
+        PaymentWithAllLinks second = mock(PaymentWithAllLinks.class);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "payment1")).thenReturn(first);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "payment2")).thenReturn(second);
+
+        BatchGetPaymentsResponse response = batchGetPaymentsService.getPayments(ACCOUNT,
+                new BatchGetPaymentsRequest(List.of("payment2", "payment1")));
+
+        assertThat(response.getResults(), is(List.of(Result.of("payment2", second), Result.of("payment1", first))));
+    }
+
+    @Test
+    void shouldGetRepeatedPaymentOnce() {
+        PaymentWithAllLinks payment = mock(PaymentWithAllLinks.class);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "payment1")).thenReturn(payment);
+
+        BatchGetPaymentsResponse response = batchGetPaymentsService.getPayments(ACCOUNT,
+                new BatchGetPaymentsRequest(List.of("payment1", "payment1")));
+
+        assertThat(response.getResults(), is(List.of(Result.of("payment1", payment), Result.of("payment1", payment))));
+        verify(mockGetPaymentService).getPaymentUsingCache(ACCOUNT, "payment1");
+    }
+
+    @Test
+    void shouldReturnErrorForEachPaymentThatCannotBeGot() {
+        PaymentWithAllLinks payment = mock(PaymentWithAllLinks.class);
+        when(mockResponse.getStatus()).thenReturn(404);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "payment1")).thenReturn(payment);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "notapayment"))
+                .thenThrow(new GetChargeException(mockResponse));
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "payment2"))
+                .thenThrow(new IllegalStateException("connector is down"));
+
+        List<Result> results = batchGetPaymentsService.getPayments(ACCOUNT,
+                new BatchGetPaymentsRequest(List.of("payment1", "notapayment", "payment2"))).getResults();
+
+        assertThat(results.get(0), is(Result.of("payment1", payment)));
+        assertThat(results.get(1).payment(), is(nullValue()));
+        assertThat(results.get(1).error().getCode(), is("P0200"));
+        assertThat(results.get(2).payment(), is(nullValue()));
+        assertThat(results.get(2).error().getCode(), is("P0298"));
+    }
+
+    @Test
+    void shouldGetNoMoreThanAFewPaymentsAtOnceForOneBatch() {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        when(mockGetPaymentService.getPaymentUsingCache(eq(ACCOUNT), anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return mock(PaymentWithAllLinks.class);
+        });
+        var paymentIds = IntStream.rangeClosed(1, 20).mapToObj(i -> "payment" + i).toList();
+        List<Result> results = batchGetPaymentsService.getPayments(ACCOUNT, new BatchGetPaymentsRequest(paymentIds)).getResults();
+
+        assertThat(results.stream().allMatch(result -> result.error() == null), is(true));
+        assertThat(maxInFlight.get(), is(lessThanOrEqualTo(BatchGetPaymentsService.MAX_LOOKUPS_IN_FLIGHT_PER_BATCH)));
+    }
+
+    @Test
+    void shouldReturnErrorForPaymentsNotGotBeforeBatchTimesOut() throws Exception {
+        var releaseLookup = new CountDownLatch(1);
+        PaymentWithAllLinks payment = mock(PaymentWithAllLinks.class);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "payment1")).thenReturn(payment);
+        when(mockGetPaymentService.getPaymentUsingCache(ACCOUNT, "slowpayment")).thenAnswer(invocation -> {
+            releaseLookup.await();
+            return mock(PaymentWithAllLinks.class);
+        });
+        var service = new BatchGetPaymentsService(mockGetPaymentService, executor, Duration.ofMillis(200));
+
+        try {
+            List<Result> results = service.getPayments(ACCOUNT,
+                    new BatchGetPaymentsRequest(List.of("payment1", "slowpayment"))).getResults();
+
+            assertThat(results.get(0), is(Result.of("payment1", payment)));
+            assertThat(results.get(1).payment(), is(nullValue()));
+            assertThat(results.get(1).error().getCode(), is("P0298"));
+        } finally {
+            releaseLookup.countDown();
+        }
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        List<String> tooManyPaymentIds = IntStream.rangeClosed(1, 101).mapToObj(i -> "payment" + i).toList();
+
+        assertThrows(BadRequestException.class, () -> batchGetPaymentsService.getPayments(ACCOUNT, null));
+        assertThrows(BadRequestException.class, () -> batchGetPaymentsService.getPayments(ACCOUNT,
+                new BatchGetPaymentsRequest(Collections.emptyList())));
+        assertThrows(BadRequestException.class, () -> batchGetPaymentsService.getPayments(ACCOUNT,
+                new BatchGetPaymentsRequest(tooManyPaymentIds)));
+        verifyNoInteractions(mockGetPaymentService);
+    }
+
+    @Test
+    void shouldRejectPaymentIdThatCouldReachAnotherAccount() {
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> batchGetPaymentsService.getPayments(ACCOUNT,
+                new BatchGetPaymentsRequest(List.of("payment1", "x/../../../2/charges/payment2"))));
+
+        assertThat(exception.getRequestError().getField(), is("payment_ids[1]"));
+        verifyNoInteractions(mockGetPaymentService);
+    }
+}
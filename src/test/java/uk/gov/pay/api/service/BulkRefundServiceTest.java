@@ -0,0 +1,211 @@
+package uk.gov.pay.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.BulkRefundConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
+import uk.gov.pay.api.exception.CreateRefundException;
+import uk.gov.pay.api.model.BulkRefundRequest;
+import uk.gov.pay.api.model.BulkRefundRequest.Refund;
+import uk.gov.pay.api.model.BulkRefundResponse.Result;
+import uk.gov.pay.api.model.CreatePaymentRefundRequest;
+import uk.gov.pay.api.model.RefundResponse;
+import uk.gov.pay.api.service.BulkRefundService.RunningRequest;
+
+import io.dropwizard.util.Duration;
+import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class BulkRefundServiceTest {
+
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+
+    @Mock
+    private CreateRefundService mockCreateRefundService;
+    @Mock
+    private Response mockResponse;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private BulkRefundService bulkRefundService;
+
+    @BeforeEach
+    void setUp() {
+        bulkRefundService = new BulkRefundService(mockCreateRefundService, new BulkRefundConfig(10, 2), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedRequest() {
+        List<Refund> tooManyRefunds = IntStream.rangeClosed(1, 11).mapToObj(i -> new Refund("payment-" + i, 100, null)).toList();
+
+        assertThrows(BadRequestException.class, () -> bulkRefundService.validate(null));
+        assertThrows(BadRequestException.class, () -> bulkRefundService.validate(new BulkRefundRequest(List.of())));
+        assertThrows(BadRequestException.class, () -> bulkRefundService.validate(new BulkRefundRequest(tooManyRefunds)));
+    }
+
+    @Test
+    void shouldRejectRequestNamingFirstInvalidRefund() {
+        BulkRefundRequest request = new BulkRefundRequest(List.of(
+                new Refund("hu20sqlact5260q2nanm0q8u93", 100, null),
+                new Refund("kj3sqlact5260q2nanm0q8u12", 0, null),
+                new Refund(null, 100, null)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> bulkRefundService.validate(request));
+
+        assertThat(exception.getRequestError().getCode(), is("P0605"));
+        assertThat(exception.getRequestError().getField(), is("refunds[1].amount"));
+    }
+
+    @Test
+    void shouldRejectPaymentIdThatCouldReachAnotherAccount() {
+        BulkRefundRequest request = new BulkRefundRequest(List.of(
+                new Refund("hu20sqlact5260q2nanm0q8u93", 100, null),
+                new Refund("x/../../../2/charges/kj3sqlact5260q2nanm0q8u12", 100, null)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> bulkRefundService.validate(request));
+
+        assertThat(exception.getRequestError().getCode(), is("P0605"));
+        assertThat(exception.getRequestError().getField(), is("refunds[1].payment_id"));
+        verifyNoInteractions(mockCreateRefundService);
+    }
+
+    @Test
+    void shouldRejectRefundingTheSamePaymentTwice() {
+        BulkRefundRequest request = new BulkRefundRequest(List.of(
+                new Refund("hu20sqlact5260q2nanm0q8u93", 100, null),
+                new Refund("kj3sqlact5260q2nanm0q8u12", 100, null),
+                new Refund("hu20sqlact5260q2nanm0q8u93", 50, null)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> bulkRefundService.validate(request));
+
+        assertThat(exception.getRequestError().getCode(), is("P0605"));
+        assertThat(exception.getRequestError().getField(), is("refunds[2].payment_id"));
+        verifyNoInteractions(mockCreateRefundService);
+    }
+
+    @Test
+    void shouldReturnResultsInTheOrderAskedFor() throws Exception {
+        RefundResponse firstRefund = mock(RefundResponse.class);
+        RefundResponse secondRefund = mock(RefundResponse.class);
+        when(mockCreateRefundService.createRefund(eq(ACCOUNT), eq("payment-1"), any(CreatePaymentRefundRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return firstRefund;
+        });
+        when(mockCreateRefundService.createRefund(eq(ACCOUNT), eq("payment-2"), any(CreatePaymentRefundRequest.class))).thenReturn(secondRefund);
+
+        List<Result> results = new ArrayList<>();
+        bulkRefundService.createRefunds(ACCOUNT, new BulkRefundRequest(List.of(
+                new Refund("payment-1", 100, 500),
+                new Refund("payment-2", 200, null))), results::add);
+
+        assertThat(results, contains(Result.of("payment-1", firstRefund), Result.of("payment-2", secondRefund)));
+    }
+
+    @Test
+    void shouldReturnErrorForEachRefundThatCannotBeCreated() throws Exception {
+        when(mockResponse.getStatus()).thenReturn(404);
+        when(mockCreateRefundService.createRefund(eq(ACCOUNT), eq("not-a-payment"), any(CreatePaymentRefundRequest.class)))
+                .thenThrow(new CreateRefundException(mockResponse));
+        when(mockCreateRefundService.createRefund(eq(ACCOUNT), eq("payment-1"), any(CreatePaymentRefundRequest.class)))
+                .thenThrow(new IllegalStateException("connector is down"));
+
+        List<Result> results = new ArrayList<>();
+        bulkRefundService.createRefunds(ACCOUNT, new BulkRefundRequest(List.of(
+                new Refund("not-a-payment", 100, null),
+                new Refund("payment-1", 100, null))), results::add);
+
+        assertThat(results.get(0).status(), is(404));
+        assertThat(results.get(0).error().getCode(), is("P0600"));
+        assertThat(results.get(1).status(), is(500));
+        assertThat(results.get(1).error().getCode(), is("P0698"));
+    }
+
+    @Test
+    void shouldNotCreateMoreRefundsAtOnceForAnAccountThanAllowed() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        RefundResponse refund = mock(RefundResponse.class);
+        when(mockCreateRefundService.createRefund(eq(ACCOUNT), any(String.class), any(CreatePaymentRefundRequest.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return refund;
+        });
+
+        List<Refund> refunds = IntStream.rangeClosed(1, 10).mapToObj(i -> new Refund("payment-" + i, 100, null)).toList();
+        List<Result> results = new ArrayList<>();
+        bulkRefundService.createRefunds(ACCOUNT, new BulkRefundRequest(refunds), results::add);
+
+        assertThat(results.size(), is(10));
+        assertThat(maxRunning.get(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    void shouldNotStartMoreRequestsAtOnceForAnAccountThanAllowed() {
+        var service = new BulkRefundService(mockCreateRefundService,
+                new BulkRefundConfig(10, 1, 2, Duration.seconds(30)), executor);
+
+        Optional<RunningRequest> first = service.tryStart(ACCOUNT);
+        assertThat(first.isPresent(), is(true));
+        assertThat(service.tryStart(ACCOUNT).isPresent(), is(false));
+        assertThat(service.tryStart(new Account("2", CARD, "another-token-link")).isPresent(), is(true));
+
+        first.get().close();
+        first.get().close();
+        assertThat(service.tryStart(ACCOUNT).isPresent(), is(true));
+        assertThat(service.tryStart(ACCOUNT).isPresent(), is(false));
+    }
+
+    @Test
+    void shouldNotCreateRefundsThatCannotStartInTime() throws Exception {
+        var service = new BulkRefundService(mockCreateRefundService,
+                new BulkRefundConfig(10, 2, 1, Duration.milliseconds(100)), executor);
+        RefundResponse refund = mock(RefundResponse.class);
+        when(mockCreateRefundService.createRefund(eq(ACCOUNT), eq("slow-payment"), any(CreatePaymentRefundRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return refund;
+        });
+
+        List<Result> results = new ArrayList<>();
+        service.createRefunds(ACCOUNT, new BulkRefundRequest(List.of(
+                new Refund("slow-payment", 100, null),
+                new Refund("payment-1", 100, null),
+                new Refund("payment-2", 100, null))), results::add);
+
+        assertThat(results.get(0), is(Result.of("slow-payment", refund)));
+        assertThat(results.get(1).status(), is(429));
+        assertThat(results.get(1).error().getCode(), is("P0900"));
+        assertThat(results.get(2).status(), is(429));
+        verify(mockCreateRefundService, never()).createRefund(eq(ACCOUNT), eq("payment-1"), any(CreatePaymentRefundRequest.class));
+    }
+}
@@ -1,13 +1,15 @@
 package uk.gov.pay.api.service;
 
 import au.com.dius.pact.consumer.junit.PactVerification;
+import io.dropwizard.core.setup.Environment;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
+import uk.gov.pay.api.app.config.FinishedPaymentCacheConfig;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -39,8 +41,9 @@ public class CancelPaymentServicePactTest {
     public void setUp() {
         when(mockConfiguration.getConnectorUrl()).thenReturn(connectorRule.getUrl());
         ConnectorUriGenerator connectorUriGenerator = new ConnectorUriGenerator(mockConfiguration);
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
-        cancelPaymentService = new CancelPaymentService(client, connectorUriGenerator);
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
+        cancelPaymentService = new CancelPaymentService(client, connectorUriGenerator,
+                new FinishedPaymentCache(new FinishedPaymentCacheConfig(), new Environment("test")));
     }
 
     @Test
@@ -1,14 +1,16 @@
 package uk.gov.pay.api.service;
 
 import au.com.dius.pact.consumer.junit.PactVerification;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.jayway.jsonassert.JsonAssert;
+import io.dropwizard.jackson.Jackson;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -51,12 +53,13 @@ public class CardPaymentSearchServicePactTest {
 
         when(configuration.getBaseUrl()).thenReturn("http://publicapi.test.localhost/");
 
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
         LedgerUriGenerator ledgerUriGenerator = new LedgerUriGenerator(configuration);
         paymentSearchService = new PaymentSearchService(
                 new PublicApiUriGenerator(configuration),
                 new PaginationDecorator(configuration),
-                new LedgerService(client, ledgerUriGenerator));
+                new LedgerService(client, ledgerUriGenerator),
+                Jackson.newObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL));
     }
 
     @Test
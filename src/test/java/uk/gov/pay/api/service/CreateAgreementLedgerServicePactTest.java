@@ -9,7 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.api.agreement.model.AgreementCreatedResponse;
 import uk.gov.pay.api.agreement.model.CreateAgreementRequest;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -44,7 +44,7 @@ public class CreateAgreementLedgerServicePactTest {
     public void setup() {
         when(configuration.getConnectorUrl()).thenReturn(connectorRule.getUrl());
 
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
 
         ConnectorUriGenerator connectorUriGenerator = new ConnectorUriGenerator(configuration);
         connectorService = new ConnectorService(client, connectorUriGenerator);
@@ -1,13 +1,15 @@
 package uk.gov.pay.api.service;
 
 import au.com.dius.pact.consumer.junit.PactVerification;
+import io.dropwizard.core.setup.Environment;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
+import uk.gov.pay.api.app.config.FinishedPaymentCacheConfig;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -46,9 +48,10 @@ public class CreateRefundServicePactTest {
         when(configuration.getConnectorUrl()).thenReturn(connectorRule.getUrl()); // We will actually send real requests here, which will be intercepted by pact
         when(configuration.getBaseUrl()).thenReturn("http://publicapi.test.localhost/");
 
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
         
-        createRefundService = new CreateRefundService(getPaymentService, client, configuration);
+        createRefundService = new CreateRefundService(getPaymentService,
+                new FinishedPaymentCache(new FinishedPaymentCacheConfig(), new Environment("test")), client, configuration);
         account = new Account("123456", TokenPaymentType.CARD, "a-token-link");
     }
 
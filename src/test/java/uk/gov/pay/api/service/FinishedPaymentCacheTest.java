@@ -0,0 +1,116 @@
+package uk.gov.pay.api.service;
+
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.api.app.config.FinishedPaymentCacheConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+class FinishedPaymentCacheTest {
+
+    private static final String PAYMENT_ID = "hu20sqlact5260q2nanm0q8u93";
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+
+    private final FinishedPaymentCache finishedPaymentCache = new FinishedPaymentCache(
+            new FinishedPaymentCacheConfig(true, Duration.minutes(10), Duration.minutes(1)), new Environment("test"));
+
+    @Test
+    void shouldLookUpFinishedPaymentOnce() {
+        CountingLookup lookup = new CountingLookup(aPayment(new PaymentState("failed", true)));
+
+        PaymentWithAllLinks first = finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+        PaymentWithAllLinks second = finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(lookup.count.get(), is(1));
+    }
+
+    @Test
+    void shouldNotCachePaymentThatHasNotFinished() {
+        CountingLookup lookup = new CountingLookup(aPayment(new PaymentState("submitted", false)));
+
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+
+        assertThat(lookup.count.get(), is(2));
+    }
+
+    @Test
+    void shouldNotReturnPaymentCachedForAnotherAccount() {
+        CountingLookup lookup = new CountingLookup(aPayment(new PaymentState("success", true)));
+
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+        finishedPaymentCache.get(new Account("2", CARD, "another-token-link"), PAYMENT_ID, lookup);
+
+        assertThat(lookup.count.get(), is(2));
+    }
+
+    @Test
+    void shouldLookUpPaymentAgain_whenInvalidated() {
+        CountingLookup lookup = new CountingLookup(aPayment(new PaymentState("success", true)));
+
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+        finishedPaymentCache.invalidate(ACCOUNT, PAYMENT_ID);
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+
+        assertThat(lookup.count.get(), is(2));
+    }
+
+    @Test
+    void shouldNotCachePaymentLookedUpWhileItWasInvalidated() {
+        CountingLookup lookup = new CountingLookup(aPayment(new PaymentState("success", true)));
+
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, () -> {
+            PaymentWithAllLinks paymentBeforeRefund = lookup.get();
+            finishedPaymentCache.invalidate(ACCOUNT, PAYMENT_ID);
+            return paymentBeforeRefund;
+        });
+        finishedPaymentCache.get(ACCOUNT, PAYMENT_ID, lookup);
+
+        assertThat(lookup.count.get(), is(2));
+    }
+
+    @Test
+    void shouldAlwaysLookUpPayment_whenDisabled() {
+        FinishedPaymentCache disabledCache = new FinishedPaymentCache(new FinishedPaymentCacheConfig(), new Environment("test"));
+        CountingLookup lookup = new CountingLookup(aPayment(new PaymentState("failed", true)));
+
+        disabledCache.get(ACCOUNT, PAYMENT_ID, lookup);
+        disabledCache.get(ACCOUNT, PAYMENT_ID, lookup);
+
+        assertThat(lookup.count.get(), is(2));
+    }
+
+    private static PaymentWithAllLinks aPayment(PaymentState state) {
+        return new PaymentWithAllLinks.PaymentWithAllLinksBuilder()
+                .withChargeId(PAYMENT_ID)
+                .withState(state)
+                .build();
+    }
+
+    private static class CountingLookup implements Supplier<PaymentWithAllLinks> {
+
+        private final PaymentWithAllLinks payment;
+        private final AtomicInteger count = new AtomicInteger();
+
+        CountingLookup(PaymentWithAllLinks payment) {
+            this.payment = payment;
+        }
+
+        @Override
+        public PaymentWithAllLinks get() {
+            count.incrementAndGet();
+            return payment;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package uk.gov.pay.api.service;
 
 import au.com.dius.pact.consumer.junit.PactVerification;
 import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import io.dropwizard.core.setup.Environment;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -9,7 +10,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
+import uk.gov.pay.api.app.config.FinishedPaymentCacheConfig;
+import uk.gov.pay.api.app.config.HedgedPaymentLookupConfig;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -67,10 +70,13 @@ public class GetPaymentServiceLedgerPactTest {
         PublicApiUriGenerator publicApiUriGenerator = new PublicApiUriGenerator(mockConfiguration);
         ConnectorUriGenerator connectorUriGenerator = new ConnectorUriGenerator(mockConfiguration);
         LedgerUriGenerator ledgerUriGenerator = new LedgerUriGenerator(mockConfiguration);
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
         getPaymentService = new GetPaymentService(publicApiUriGenerator,
                 new ConnectorService(client, connectorUriGenerator),
-                new LedgerService(client, ledgerUriGenerator));
+                new LedgerService(client, ledgerUriGenerator),
+                new FinishedPaymentCache(new FinishedPaymentCacheConfig(), new Environment("test")),
+                new HedgedPaymentLookupConfig(),
+                new Environment("test"));
     }
 
     @Test
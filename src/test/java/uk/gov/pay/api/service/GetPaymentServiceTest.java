@@ -0,0 +1,165 @@
+package uk.gov.pay.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.FinishedPaymentCacheConfig;
+import uk.gov.pay.api.app.config.HedgedPaymentLookupConfig;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.GetChargeException;
+import uk.gov.pay.api.model.Charge;
+import uk.gov.pay.api.model.ChargeFromResponse;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class GetPaymentServiceTest {
+
+    private static final String PAYMENT_ID = "hu20sqlact5260q2nanm0q8u93";
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+
+    @Mock
+    private ConnectorService mockConnectorService;
+
+    @Mock
+    private LedgerService mockLedgerService;
+
+    @Mock
+    private PublicApiConfig mockConfiguration;
+
+    @Mock
+    private Response mockNotFoundResponse;
+
+    private final Environment environment = new Environment("test");
+    private PublicApiUriGenerator publicApiUriGenerator;
+    private Charge connectorCharge;
+    private Charge ledgerCharge;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(mockConfiguration.getBaseUrl()).thenReturn("http://publicapi.test.localhost/");
+        publicApiUriGenerator = new PublicApiUriGenerator(mockConfiguration);
+        connectorCharge = aCharge("From connector");
+        ledgerCharge = aCharge("From ledger");
+    }
+
+    @Test
+    void shouldGetPaymentFromLedger_whenConnectorDoesNotHaveIt() {
+        GetPaymentService getPaymentService = aGetPaymentService(new HedgedPaymentLookupConfig());
+        when(mockNotFoundResponse.getStatus()).thenReturn(404);
+        when(mockConnectorService.getCharge(ACCOUNT, PAYMENT_ID)).thenThrow(new GetChargeException(mockNotFoundResponse));
+        when(mockLedgerService.getPaymentTransaction(ACCOUNT, PAYMENT_ID)).thenReturn(ledgerCharge);
+
+        PaymentWithAllLinks payment = getPaymentService.getPayment(ACCOUNT, PAYMENT_ID);
+
+        assertThat(payment.getDescription(), is("From ledger"));
+        assertThat(environment.metrics().counter("get_payment.ledger_answers").getCount(), is(1L));
+        assertThat(environment.metrics().counter("get_payment.connector_answers").getCount(), is(0L));
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldAskLedgerWhileWaitingForConnector_whenHedgingEnabled() {
+        GetPaymentService getPaymentService = aGetPaymentService(new HedgedPaymentLookupConfig(true, Duration.milliseconds(0)));
+        CountDownLatch ledgerAsked = new CountDownLatch(1);
+        when(mockNotFoundResponse.getStatus()).thenReturn(404);
+        when(mockConnectorService.getCharge(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            ledgerAsked.await();
+            throw new GetChargeException(mockNotFoundResponse);
+        });
+        when(mockLedgerService.getPaymentTransaction(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            ledgerAsked.countDown();
+            return ledgerCharge;
+        });
+
+        PaymentWithAllLinks payment = getPaymentService.getPayment(ACCOUNT, PAYMENT_ID);
+
+        assertThat(payment.getDescription(), is("From ledger"));
+        verify(mockLedgerService).getPaymentTransaction(ACCOUNT, PAYMENT_ID);
+        assertThat(environment.metrics().counter("get_payment.hedged_ledger_lookups").getCount(), is(1L));
+        assertThat(environment.metrics().counter("get_payment.ledger_answers").getCount(), is(1L));
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldPreferConnector_whenLedgerAnswersFirst() {
+        GetPaymentService getPaymentService = aGetPaymentService(new HedgedPaymentLookupConfig(true, Duration.milliseconds(0)));
+        CountDownLatch ledgerAnswered = new CountDownLatch(1);
+        when(mockConnectorService.getCharge(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            ledgerAnswered.await();
+            return connectorCharge;
+        });
+        when(mockLedgerService.getPaymentTransaction(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            ledgerAnswered.countDown();
+            return ledgerCharge;
+        });
+
+        PaymentWithAllLinks payment = getPaymentService.getPayment(ACCOUNT, PAYMENT_ID);
+
+        assertThat(payment.getDescription(), is("From connector"));
+        assertThat(environment.metrics().counter("get_payment.connector_answers").getCount(), is(1L));
+        assertThat(environment.metrics().counter("get_payment.ledger_answers").getCount(), is(0L));
+    }
+
+    @Test
+    void shouldAskLedgerStraightAway_whenConnectorDoesNotHavePaymentBeforeHedgeDelay() {
+        GetPaymentService getPaymentService = aGetPaymentService(new HedgedPaymentLookupConfig(true, Duration.minutes(1)));
+        when(mockNotFoundResponse.getStatus()).thenReturn(404);
+        when(mockConnectorService.getCharge(ACCOUNT, PAYMENT_ID)).thenThrow(new GetChargeException(mockNotFoundResponse));
+        when(mockLedgerService.getPaymentTransaction(ACCOUNT, PAYMENT_ID)).thenReturn(ledgerCharge);
+
+        PaymentWithAllLinks payment = getPaymentService.getPayment(ACCOUNT, PAYMENT_ID);
+
+        assertThat(payment.getDescription(), is("From ledger"));
+        assertThat(environment.metrics().counter("get_payment.hedged_ledger_lookups").getCount(), is(0L));
+    }
+
+    @Test
+    void shouldThrowLedgerException_whenNeitherHasPayment() {
+        GetPaymentService getPaymentService = aGetPaymentService(new HedgedPaymentLookupConfig(true, Duration.minutes(1)));
+        when(mockNotFoundResponse.getStatus()).thenReturn(404);
+        GetChargeException ledgerException = new GetChargeException(mockNotFoundResponse);
+        when(mockConnectorService.getCharge(ACCOUNT, PAYMENT_ID)).thenThrow(new GetChargeException(mockNotFoundResponse));
+        when(mockLedgerService.getPaymentTransaction(ACCOUNT, PAYMENT_ID)).thenThrow(ledgerException);
+
+        GetChargeException thrown = assertThrows(GetChargeException.class, () -> getPaymentService.getPayment(ACCOUNT, PAYMENT_ID));
+
+        assertThat(thrown, is(ledgerException));
+    }
+
+    private GetPaymentService aGetPaymentService(HedgedPaymentLookupConfig hedgedPaymentLookupConfig) {
+        return new GetPaymentService(publicApiUriGenerator, mockConnectorService, mockLedgerService,
+                new FinishedPaymentCache(new FinishedPaymentCacheConfig(), environment), hedgedPaymentLookupConfig, environment);
+    }
+
+    private static Charge aCharge(String description) throws IOException {
+        // language=JSON
+        return Charge.from(new ObjectMapper().readValue("{\n" +
+                "  \"charge_id\": \"" + PAYMENT_ID + "\",\n" +
+                "  \"amount\": 500,\n" +
+                "  \"description\": \"" + description + "\",\n" +
+                "  \"language\": \"en\",\n" +
+                "  \"state\": {\n" +
+                "    \"status\": \"success\",\n" +
+                "    \"finished\": true\n" +
+                "  }\n" +
+                "}", ChargeFromResponse.class));
+    }
+}
@@ -0,0 +1,48 @@
+package uk.gov.pay.api.service;
+
+import jakarta.ws.rs.core.UriBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LinkTemplateTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"https://publicapi.url/", "https://publicapi.url", "http://publicapi.test:9100/api/"})
+    void shouldGiveSameLinkAsUriBuilder(String baseUrl) {
+        var template = new LinkTemplate(baseUrl, "/v1/payments/{paymentId}/events");
+
+        assertThat(template.expand("ch_ab2341da231434l"),
+                is(UriBuilder.fromUri(baseUrl).path("/v1/payments/{paymentId}/events").build("ch_ab2341da231434l")));
+    }
+
+    @Test
+    void shouldFillInEveryPlaceholderInOrder() {
+        var template = new LinkTemplate("https://publicapi.url/", "/v1/payments/{paymentId}/refunds/{refundId}");
+
+        assertThat(template.expand("a-payment", "a-refund"),
+                is(URI.create("https://publicapi.url/v1/payments/a-payment/refunds/a-refund")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"an id", "a/b", "50%", "ünïcode", "../refunds"})
+    void shouldEncodeIdsThatAreNotLettersAndDigitsAsUriBuilderDoes(String paymentId) {
+        var template = new LinkTemplate("https://publicapi.url/", "/v1/payments/{paymentId}");
+
+        assertThat(template.expand(paymentId),
+                is(UriBuilder.fromUri("https://publicapi.url/").path("/v1/payments/{paymentId}").build(paymentId)));
+    }
+
+    @Test
+    void shouldRejectWrongNumberOfValues() {
+        var template = new LinkTemplate("https://publicapi.url/", "/v1/payments/{paymentId}");
+
+        assertThrows(IllegalArgumentException.class, () -> template.expand("a-payment", "a-refund"));
+    }
+}
@@ -0,0 +1,161 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.PaymentLongPollConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentChangeWatcherTest {
+
+    private static final String PAYMENT_ID = "hu20sqlact5260q2nanm0q8u93";
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+    private static final PaymentWithAllLinks SUBMITTED = aPayment(new PaymentState("submitted", false));
+    private static final PaymentWithAllLinks SUCCESS = aPayment(new PaymentState("success", true));
+
+    @Mock
+    private GetPaymentService mockGetPaymentService;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ExecutorService pollExecutor = Executors.newFixedThreadPool(2);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldReturnPaymentStraightAway_whenStatusHasAlreadyChanged() {
+        PaymentChangeWatcher watcher = aWatcher(new PaymentLongPollConfig());
+
+        CompletableFuture<PaymentWithAllLinks> result = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUCCESS, Duration.ofSeconds(30));
+
+        assertThat(result.getNow(null), is(sameInstance(SUCCESS)));
+        verifyNoInteractions(mockGetPaymentService);
+    }
+
+    @Test
+    void shouldGetPaymentOnceForAllWaiters_whenStatusChanges() throws Exception {
+        when(mockGetPaymentService.getPayment(ACCOUNT, PAYMENT_ID)).thenReturn(SUCCESS);
+        PaymentChangeWatcher watcher = aWatcher(aConfig(200, 100));
+
+        CompletableFuture<PaymentWithAllLinks> first = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUBMITTED, Duration.ofSeconds(30));
+        CompletableFuture<PaymentWithAllLinks> second = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUBMITTED, Duration.ofSeconds(30));
+        assertThat(metricRegistry.getGauges().get("payment_long_poll.waiters").getValue(), is(2));
+        assertThat(metricRegistry.getGauges().get("payment_long_poll.watched_payments").getValue(), is(1));
+
+        assertThat(first.get(5, SECONDS), is(sameInstance(SUCCESS)));
+        assertThat(second.get(5, SECONDS), is(sameInstance(SUCCESS)));
+        verify(mockGetPaymentService).getPayment(ACCOUNT, PAYMENT_ID);
+        assertThat(metricRegistry.getGauges().get("payment_long_poll.waiters").getValue(), is(0));
+        assertThat(metricRegistry.getGauges().get("payment_long_poll.watched_payments").getValue(), is(0));
+    }
+
+    @Test
+    void shouldReturnPaymentAsLastSeen_whenTimeoutPasses() throws Exception {
+        PaymentWithAllLinks stillSubmitted = aPayment(new PaymentState("submitted", false));
+        when(mockGetPaymentService.getPayment(ACCOUNT, PAYMENT_ID)).thenReturn(stillSubmitted);
+        PaymentChangeWatcher watcher = aWatcher(aConfig(10, 100));
+
+        CompletableFuture<PaymentWithAllLinks> result = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUBMITTED, Duration.ofMillis(500));
+
+        assertThat(result.get(5, SECONDS), is(sameInstance(stillSubmitted)));
+        assertThat(metricRegistry.getGauges().get("payment_long_poll.watched_payments").getValue(), is(0));
+    }
+
+    @Test
+    void shouldKeepWaiting_whenGettingPaymentFails() throws Exception {
+        when(mockGetPaymentService.getPayment(ACCOUNT, PAYMENT_ID))
+                .thenThrow(new RuntimeException("connector unavailable"))
+                .thenReturn(SUCCESS);
+        PaymentChangeWatcher watcher = aWatcher(aConfig(10, 100));
+
+        CompletableFuture<PaymentWithAllLinks> result = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUBMITTED, Duration.ofSeconds(30));
+
+        assertThat(result.get(5, SECONDS), is(sameInstance(SUCCESS)));
+    }
+
+    @Test
+    void shouldGetPaymentWithCallersStrategy() throws Exception {
+        when(mockGetPaymentService.getLedgerTransaction(ACCOUNT, PAYMENT_ID)).thenReturn(SUCCESS);
+        PaymentChangeWatcher watcher = aWatcher(aConfig(10, 100));
+
+        CompletableFuture<PaymentWithAllLinks> result = watcher.waitForChange(ACCOUNT, PAYMENT_ID, "ledger-only", "submitted", SUBMITTED, Duration.ofSeconds(30));
+
+        assertThat(result.get(5, SECONDS), is(sameInstance(SUCCESS)));
+        verify(mockGetPaymentService, never()).getPayment(ACCOUNT, PAYMENT_ID);
+    }
+
+    @Test
+    void shouldTimeOutWaiters_whileGettingPaymentIsSlow() throws Exception {
+        var lookupStarted = new CountDownLatch(1);
+        var releaseLookup = new CountDownLatch(1);
+        when(mockGetPaymentService.getPayment(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return SUCCESS;
+        });
+        PaymentChangeWatcher watcher = aWatcher(aConfig(10, 100));
+
+        try {
+            CompletableFuture<PaymentWithAllLinks> result = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUBMITTED, Duration.ofMillis(500));
+
+            assertThat(lookupStarted.await(5, SECONDS), is(true));
+            assertThat(result.get(5, SECONDS), is(sameInstance(SUBMITTED)));
+            verify(mockGetPaymentService).getPayment(ACCOUNT, PAYMENT_ID);
+        } finally {
+            releaseLookup.countDown();
+        }
+    }
+
+    @Test
+    void shouldReturnPaymentStraightAway_whenTooManyRequestsAreWaiting() {
+        PaymentChangeWatcher watcher = aWatcher(aConfig(1000, 0));
+
+        CompletableFuture<PaymentWithAllLinks> result = watcher.waitForChange(ACCOUNT, PAYMENT_ID, null, "submitted", SUBMITTED, Duration.ofSeconds(30));
+
+        assertThat(result.getNow(null), is(sameInstance(SUBMITTED)));
+        assertThat(metricRegistry.getGauges().get("payment_long_poll.waiters").getValue(), is(0));
+    }
+
+    private PaymentChangeWatcher aWatcher(PaymentLongPollConfig config) {
+        return new PaymentChangeWatcher(mockGetPaymentService, config, scheduler, pollExecutor, metricRegistry);
+    }
+
+    private static PaymentLongPollConfig aConfig(long pollIntervalMillis, int maxWaiters) {
+        return new PaymentLongPollConfig(io.dropwizard.util.Duration.seconds(30),
+                io.dropwizard.util.Duration.milliseconds(pollIntervalMillis), maxWaiters);
+    }
+
+    private static PaymentWithAllLinks aPayment(PaymentState state) {
+        return new PaymentWithAllLinks.PaymentWithAllLinksBuilder()
+                .withChargeId(PAYMENT_ID)
+                .withState(state)
+                .build();
+    }
+}
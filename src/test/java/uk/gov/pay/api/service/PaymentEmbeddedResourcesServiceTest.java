@@ -0,0 +1,164 @@
+package uk.gov.pay.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.BadRequestException;
+import uk.gov.pay.api.model.PaymentEventResponse;
+import uk.gov.pay.api.model.PaymentEventsResponse;
+import uk.gov.pay.api.model.RefundResponse;
+import uk.gov.pay.api.model.RefundsResponse;
+import uk.gov.pay.api.service.PaymentEmbeddedResourcesService.Embed;
+import uk.gov.pay.api.service.PaymentEmbeddedResourcesService.EmbeddedResources;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEmbeddedResourcesServiceTest {
+
+    private static final String PAYMENT_ID = "hu20sqlact5260q2nanm0q8u93";
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+
+    @Mock
+    private GetPaymentEventsService mockGetPaymentEventsService;
+    @Mock
+    private GetPaymentRefundsService mockGetPaymentRefundsService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private PaymentEmbeddedResourcesService paymentEmbeddedResourcesService;
+
+    @BeforeEach
+    void setUp() {
+        paymentEmbeddedResourcesService = new PaymentEmbeddedResourcesService(mockGetPaymentEventsService,
+                mockGetPaymentRefundsService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldParseEmbed() {
+        assertThat(PaymentEmbeddedResourcesService.parseEmbed(null), is(EnumSet.noneOf(Embed.class)));
+        assertThat(PaymentEmbeddedResourcesService.parseEmbed("events"), is(EnumSet.of(Embed.EVENTS)));
+        assertThat(PaymentEmbeddedResourcesService.parseEmbed("refunds, EVENTS"), is(EnumSet.of(Embed.EVENTS, Embed.REFUNDS)));
+    }
+
+    @Test
+    void shouldRejectUnknownEmbed() {
+        assertThrows(BadRequestException.class, () -> PaymentEmbeddedResourcesService.parseEmbed("events,disputes"));
+        assertThrows(BadRequestException.class, () -> PaymentEmbeddedResourcesService.parseEmbed(""));
+    }
+
+    @Test
+    void shouldGetEventsAndRefunds() throws Exception {
+        List<PaymentEventResponse> events = List.of(mock(PaymentEventResponse.class));
+        List<RefundResponse> refunds = List.of(mock(RefundResponse.class));
+        PaymentEventsResponse paymentEventsResponse = mock(PaymentEventsResponse.class);
+        when(paymentEventsResponse.getEvents()).thenReturn(events);
+        when(mockGetPaymentEventsService.getPaymentEvents(ACCOUNT, PAYMENT_ID)).thenReturn(paymentEventsResponse);
+        when(mockGetPaymentRefundsService.getLedgerTransactionTransactions(ACCOUNT, PAYMENT_ID))
+                .thenReturn(RefundsResponse.from(PAYMENT_ID, refunds, "self-link", "payment-link"));
+
+        EmbeddedResources embeddedResources = paymentEmbeddedResourcesService
+                .startGetting(ACCOUNT, PAYMENT_ID, EnumSet.allOf(Embed.class))
+                .get(5, SECONDS);
+
+        assertThat(embeddedResources.events(), is(events));
+        assertThat(embeddedResources.refunds(), is(refunds));
+    }
+
+    @Test
+    void shouldOnlyGetWhatIsAskedFor() throws Exception {
+        PaymentEventsResponse paymentEventsResponse = mock(PaymentEventsResponse.class);
+        when(paymentEventsResponse.getEvents()).thenReturn(List.of());
+        when(mockGetPaymentEventsService.getPaymentEvents(ACCOUNT, PAYMENT_ID)).thenReturn(paymentEventsResponse);
+
+        EmbeddedResources embeddedResources = paymentEmbeddedResourcesService
+                .startGetting(ACCOUNT, PAYMENT_ID, EnumSet.of(Embed.EVENTS))
+                .get(5, SECONDS);
+
+        assertThat(embeddedResources.refunds(), is(nullValue()));
+        verifyNoInteractions(mockGetPaymentRefundsService);
+    }
+
+    @Test
+    void shouldFailWithSameException_whenGettingEmbeddedResourceFails() {
+        when(mockGetPaymentEventsService.getPaymentEvents(ACCOUNT, PAYMENT_ID)).thenThrow(new IllegalStateException("connector error"));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> paymentEmbeddedResourcesService
+                .startGetting(ACCOUNT, PAYMENT_ID, EnumSet.of(Embed.EVENTS))
+                .get(5, SECONDS));
+
+        assertThat(exception.getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    void shouldInterruptLookups_whenCancelled() throws Exception {
+        var lookupStarted = new CountDownLatch(1);
+        var lookupInterrupted = new CountDownLatch(1);
+        when(mockGetPaymentEventsService.getPaymentEvents(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                lookupInterrupted.countDown();
+            }
+            return null;
+        });
+
+        CompletableFuture<EmbeddedResources> embeddedResources = paymentEmbeddedResourcesService
+                .startGetting(ACCOUNT, PAYMENT_ID, EnumSet.of(Embed.EVENTS));
+        assertThat(lookupStarted.await(5, SECONDS), is(true));
+        embeddedResources.cancel(true);
+
+        assertThat(lookupInterrupted.await(5, SECONDS), is(true));
+    }
+
+    @Test
+    void shouldCancelOtherLookup_whenOneFails() throws Exception {
+        var refundsLookupInterrupted = new CountDownLatch(1);
+        var refundsLookupStarted = new CountDownLatch(1);
+        when(mockGetPaymentRefundsService.getLedgerTransactionTransactions(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            refundsLookupStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                refundsLookupInterrupted.countDown();
+            }
+            return null;
+        });
+        when(mockGetPaymentEventsService.getPaymentEvents(ACCOUNT, PAYMENT_ID)).thenAnswer(invocation -> {
+            refundsLookupStarted.await(5, SECONDS);
+            throw new IllegalStateException("connector error");
+        });
+
+        CompletableFuture<EmbeddedResources> embeddedResources = paymentEmbeddedResourcesService
+                .startGetting(ACCOUNT, PAYMENT_ID, EnumSet.allOf(Embed.class));
+
+        assertThrows(ExecutionException.class, () -> embeddedResources.get(5, SECONDS));
+        assertThat(refundsLookupInterrupted.await(5, SECONDS), is(true));
+    }
+}
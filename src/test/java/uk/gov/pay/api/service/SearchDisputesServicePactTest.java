@@ -8,7 +8,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.TestRestClientFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.pay.api.auth.Account;
@@ -47,7 +47,7 @@ public class SearchDisputesServicePactTest {
         when(mockConfiguration.getLedgerUrl()).thenReturn(ledgerRule.getUrl());
         when(mockConfiguration.getBaseUrl()).thenReturn("http://publicapi.test.localhost/");
 
-        Client client = RestClientFactory.buildClient(new RestClientConfig(false));
+        Client client = TestRestClientFactory.buildClient(new RestClientConfig(false));
         LedgerUriGenerator ledgerUriGenerator = new LedgerUriGenerator(mockConfiguration);
 
         service = new SearchDisputesService(new LedgerService(client, ledgerUriGenerator),
@@ -70,9 +70,9 @@ public class SearchDisputesServicePactTest {
         assertThat(results.getCount(), is(1));
         assertThat(results.getPage(), is(1));
         assertThat(results.getTotal(), is(1));
-        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_settled_date=2022-05-27&to_settled_date=2022-05-27&display_size=500&page=1"));
-        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_settled_date=2022-05-27&to_settled_date=2022-05-27&display_size=500&page=1"));
-        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_settled_date=2022-05-27&to_settled_date=2022-05-27&display_size=500&page=1"));
+        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_settled_date=2022-05-27&to_settled_date=2022-05-27&page=1&display_size=500"));
+        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_settled_date=2022-05-27&to_settled_date=2022-05-27&page=1&display_size=500"));
+        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_settled_date=2022-05-27&to_settled_date=2022-05-27&page=1&display_size=500"));
 
         DisputeForSearchResult dispute = results.getResults().get(0);
         assertThat(dispute.getDisputeId(), is("dispute97837509646393e3C"));
@@ -102,9 +102,9 @@ public class SearchDisputesServicePactTest {
         assertThat(results.getCount(), is(1));
         assertThat(results.getPage(), is(1));
         assertThat(results.getTotal(), is(1));
-        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?display_size=500&page=1&status=lost"));
-        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?display_size=500&page=1&status=lost"));
-        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?display_size=500&page=1&status=lost"));
+        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?status=lost&page=1&display_size=500"));
+        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?status=lost&page=1&display_size=500"));
+        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?status=lost&page=1&display_size=500"));
 
         DisputeForSearchResult dispute = results.getResults().get(0);
         assertThat(dispute.getDisputeId(), is("dispute97837509646393e3C"));
@@ -135,9 +135,9 @@ public class SearchDisputesServicePactTest {
         assertThat(results.getCount(), is(1));
         assertThat(results.getPage(), is(1));
         assertThat(results.getTotal(), is(1));
-        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2022-05-20T19%3A04%3A00Z&to_date=2022-05-20T19%3A06%3A00Z&display_size=500&page=1"));
-        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2022-05-20T19%3A04%3A00Z&to_date=2022-05-20T19%3A06%3A00Z&display_size=500&page=1"));
-        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2022-05-20T19%3A04%3A00Z&to_date=2022-05-20T19%3A06%3A00Z&display_size=500&page=1"));
+        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2022-05-20T19%3A04%3A00Z&to_date=2022-05-20T19%3A06%3A00Z&page=1&display_size=500"));
+        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2022-05-20T19%3A04%3A00Z&to_date=2022-05-20T19%3A06%3A00Z&page=1&display_size=500"));
+        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2022-05-20T19%3A04%3A00Z&to_date=2022-05-20T19%3A06%3A00Z&page=1&display_size=500"));
 
         DisputeForSearchResult dispute = results.getResults().get(0);
         assertThat(dispute.getDisputeId(), is("dispute97837509646393e3C"));
@@ -168,9 +168,9 @@ public class SearchDisputesServicePactTest {
         assertThat(results.getCount(), is(0));
         assertThat(results.getPage(), is(1));
         assertThat(results.getTotal(), is(0));
-        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2021-05-20T19%3A04%3A00Z&to_date=2021-05-20T19%3A06%3A00Z&display_size=500&page=1"));
-        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2021-05-20T19%3A04%3A00Z&to_date=2021-05-20T19%3A06%3A00Z&display_size=500&page=1"));
-        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2021-05-20T19%3A04%3A00Z&to_date=2021-05-20T19%3A06%3A00Z&display_size=500&page=1"));
+        assertThat(results.getLinks().getSelf().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2021-05-20T19%3A04%3A00Z&to_date=2021-05-20T19%3A06%3A00Z&page=1&display_size=500"));
+        assertThat(results.getLinks().getFirstPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2021-05-20T19%3A04%3A00Z&to_date=2021-05-20T19%3A06%3A00Z&page=1&display_size=500"));
+        assertThat(results.getLinks().getLastPage().getHref(), is("http://publicapi.test.localhost/v1/disputes?from_date=2021-05-20T19%3A04%3A00Z&to_date=2021-05-20T19%3A06%3A00Z&page=1&display_size=500"));
     }
 
     @Test
@@ -0,0 +1,173 @@
+package uk.gov.pay.api.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.PaymentValidationException;
+
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class SearchExportServiceTest {
+
+    private static final Account ACCOUNT = new Account("1", CARD, "a-token-link");
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T10:15:30.123Z"), ZoneOffset.UTC);
+
+    @Mock
+    private LedgerService mockLedgerService;
+    @Mock
+    private PublicApiConfig mockConfiguration;
+    @Captor
+    private ArgumentCaptor<Map<String, String>> paramsCaptor;
+
+    private final ObjectMapper objectMapper = Jackson.newObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private SearchExportService searchExportService;
+
+    @BeforeEach
+    void setUp() {
+        when(mockConfiguration.getBaseUrl()).thenReturn("http://publicapi.test.localhost/");
+        searchExportService = new SearchExportService(mockLedgerService, new PublicApiUriGenerator(mockConfiguration),
+                objectMapper, CLOCK, 2);
+    }
+
+    @Test
+    void shouldExportPaymentsFromEveryPageAsNdjson() throws Exception {
+        when(mockLedgerService.searchPaymentsAsStream(eq(ACCOUNT), anyMap())).thenReturn(
+                page(payment("payment-1", "ref-1", "first"), payment("payment-2", "ref-2", "second")),
+                page(payment("payment-3", "ref-3", "third")));
+
+        String export = export(searchExportService.exportPayments(ACCOUNT,
+                new PaymentSearchParams.Builder().withPageNumber("7").build(), ExportFormat.NDJSON));
+
+        String[] lines = export.split("\n");
+        assertThat(lines.length, is(4));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("payment_id").asText(), is("payment-1"));
+        assertThat(first.get("_links").get("self").get("href").asText(), is("http://publicapi.test.localhost/v1/payments/payment-1"));
+        assertThat(objectMapper.readTree(lines[2]).get("payment_id").asText(), is("payment-3"));
+        assertThat(lines[3], is("{\"export\":{\"status\":\"complete\",\"count\":3}}"));
+
+        verify(mockLedgerService, times(2)).searchPaymentsAsStream(eq(ACCOUNT), paramsCaptor.capture());
+        assertThat(paramsCaptor.getAllValues().get(0).get("page"), is("1"));
+        assertThat(paramsCaptor.getAllValues().get(1).get("page"), is("2"));
+        assertThat(paramsCaptor.getAllValues().get(1).get("display_size"), is("2"));
+        assertThat(paramsCaptor.getAllValues().get(1).get("to_date"), is("2026-10-18T10:15:30Z"));
+    }
+
+    @Test
+    void shouldExportPaymentsAsCsv() throws Exception {
+        when(mockLedgerService.searchPaymentsAsStream(eq(ACCOUNT), anyMap())).thenReturn(
+                page(payment("payment-1", "ref, \"1\"", "=HYPERLINK(\"http://example.com\")")));
+
+        String export = export(searchExportService.exportPayments(ACCOUNT,
+                new PaymentSearchParams.Builder().withToDate("2026-10-01T00:00:00Z").build(), ExportFormat.CSV));
+
+        String[] rows = export.split("\r\n");
+        assertThat(rows.length, is(3));
+        assertThat(rows[0].startsWith("payment_id,created_date,reference,description,amount,state,"), is(true));
+        assertThat(rows[1].startsWith("payment-1,2026-10-01T09:00:00.000Z,\"ref, \"\"1\"\"\",\"'=HYPERLINK(\"\"http://example.com\"\")\",1000,success,"), is(true));
+        assertThat(rows[2], is("# export complete; count: 1"));
+    }
+
+    @Test
+    void shouldExportRefundsAsCsv() throws Exception {
+        when(mockLedgerService.searchRefundsAsStream(eq(ACCOUNT), anyMap())).thenReturn(page("""
+                {"transaction_id": "refund-1", "parent_transaction_id": "payment-1", "amount": 150,
+                 "created_date": "2026-10-02T09:00:00.000Z", "state": {"status": "success", "finished": true}}"""));
+
+        String export = export(searchExportService.exportRefunds(ACCOUNT,
+                new RefundsParams(null, null, null, null, null, null), ExportFormat.CSV));
+
+        assertThat(export, is("refund_id,payment_id,created_date,amount,status,settled_date\r\n" +
+                "refund-1,payment-1,2026-10-02T09:00:00.000Z,150,success,\r\n" +
+                "# export complete; count: 1\r\n"));
+    }
+
+    @Test
+    void shouldEndExportWithError_whenLaterPageFails() throws Exception {
+        when(mockLedgerService.searchPaymentsAsStream(eq(ACCOUNT), anyMap()))
+                .thenReturn(page(payment("payment-1", "ref-1", "first"), payment("payment-2", "ref-2", "second")))
+                .thenThrow(new IllegalStateException("ledger is down"));
+
+        String export = export(searchExportService.exportPayments(ACCOUNT,
+                new PaymentSearchParams.Builder().build(), ExportFormat.NDJSON));
+
+        String[] lines = export.split("\n");
+        assertThat(lines.length, is(3));
+        assertThat(objectMapper.readTree(lines[1]).get("payment_id").asText(), is("payment-2"));
+        JsonNode end = objectMapper.readTree(lines[2]).get("export");
+        assertThat(end.get("status").asText(), is("failed"));
+        assertThat(end.get("count").asInt(), is(2));
+        assertThat(end.get("error").get("code").asText(), is("P0498"));
+    }
+
+    @Test
+    void shouldEndCsvExportWithError_whenPageCannotBeRead() throws Exception {
+        when(mockLedgerService.searchRefundsAsStream(eq(ACCOUNT), anyMap()))
+                .thenReturn(new ByteArrayInputStream("{\"results\": [".getBytes(UTF_8)));
+
+        String export = export(searchExportService.exportRefunds(ACCOUNT,
+                new RefundsParams(null, null, null, null, null, null), ExportFormat.CSV));
+
+        assertThat(export, is("refund_id,payment_id,created_date,amount,status,settled_date\r\n" +
+                "# export failed; count: 0; error: P1898 Downstream system error\r\n"));
+    }
+
+    @Test
+    void shouldRejectInvalidSearchBeforeAskingLedger() {
+        assertThrows(PaymentValidationException.class, () -> searchExportService.exportPayments(ACCOUNT,
+                new PaymentSearchParams.Builder().withFromDate("yesterday").build(), ExportFormat.NDJSON));
+        verifyNoInteractions(mockLedgerService);
+    }
+
+    private static String payment(String paymentId, String reference, String description) throws Exception {
+        return new ObjectMapper().writeValueAsString(Map.of(
+                "transaction_id", paymentId,
+                "amount", 1000,
+                "reference", reference,
+                "description", description,
+                "created_date", "2026-10-01T09:00:00.000Z",
+                "state", Map.of("status", "success", "finished", true)));
+    }
+
+    private static InputStream page(String... results) {
+        String page = "{\"total\": 3, \"count\": " + results.length + ", \"page\": 1, \"results\": [" +
+                String.join(",", results) + "], \"_links\": {\"self\": {\"href\": \"http://ledger/v1/transaction\"}}}";
+        return new ByteArrayInputStream(page.getBytes(UTF_8));
+    }
+
+    private static String export(StreamingOutput export) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        export.write(outputStream);
+        return outputStream.toString(UTF_8);
+    }
+}
@@ -25,6 +25,8 @@ public class PathHelperTest {
                 arguments("/v1/payments/paymentId/capture", "POST", "capture_payment"),
                 arguments("/v1/payments/paymentId/capture/", "POST", "capture_payment"),
                 arguments("/v1/payments/paymentId/cancel", "POST", ""),
+                arguments("/v1/payments/batch_get", "POST", "batch_get_payments"),
+                arguments("/v1/refunds/bulk", "POST", "bulk_refunds"),
                 arguments("/v1/payments", "GET", "")
         );
     }